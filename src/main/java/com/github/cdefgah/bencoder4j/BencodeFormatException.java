@@ -5,12 +5,37 @@ package com.github.cdefgah.bencoder4j;
  */
 public class BencodeFormatException extends Exception {
 
+    /**
+     * Offset of the problem in the input, or -1 if it is unknown.
+     */
+    private final long offset;
+
     /**
      * Constructs the exception object.
      *
      * @param message the problem description.
      */
     public BencodeFormatException(String message) {
+        this(message, -1);
+    }
+
+    /**
+     * Constructs the exception object with the problem offset.
+     *
+     * @param message the problem description.
+     * @param offset  offset of the problem in the input, or -1 if it is unknown.
+     */
+    public BencodeFormatException(String message, long offset) {
         super(message);
+        this.offset = offset;
+    }
+
+    /**
+     * Returns the offset of the problem in the input.
+     *
+     * @return the offset, or -1 if it is unknown.
+     */
+    public long getOffset() {
+        return offset;
     }
 }
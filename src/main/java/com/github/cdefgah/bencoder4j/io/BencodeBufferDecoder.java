@@ -0,0 +1,788 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Decoder, that reads bencoded objects directly from a byte buffer, without copying it to an input stream.
+ * Heap, direct and memory-mapped (see {@link java.nio.channels.FileChannel#map}) buffers are supported.
+ * <p>
+ * The decoder works on the remaining bytes of the buffer, the buffer position and limit are not changed.
+ * If byte sequence slicing is enabled, decoded byte sequences refer to the buffer regions instead of
+ * copying them, so the buffer contents must not be modified while decoded objects are in use.
+ * </p>
+ * <p>
+ * If lazy dictionaries are enabled, dictionary values are only validated upon decoding, and are kept in the
+ * encoded form until the first access (see {@link BencodedDictionary#putEncoded}). Lazy dictionaries refer
+ * to the buffer in the same way as sliced byte sequences do.
+ * </p>
+ * <p>
+ * Large lists can be decoded in parallel by nextList(ForkJoinPool) method, it still should be called
+ * by one thread at a time.
+ * </p>
+ * <p>
+ * Please note that this implementation is not synchronized, and an instance should be used by one thread at a time.
+ * </p>
+ */
+public final class BencodeBufferDecoder {
+
+    /**
+     * Minimal qty of list elements to be decoded by one parallel task.
+     */
+    private static final int MIN_ELEMENTS_PER_TASK = 64;
+
+    /**
+     * Initial capacity of the container stacks.
+     */
+    private static final int INITIAL_STACK_CAPACITY = 16;
+
+    /**
+     * State of the skipped list, that expects the next element or the suffix.
+     */
+    private static final byte SKIPPING_LIST_ELEMENT = 0;
+
+    /**
+     * State of the skipped dictionary, that expects the next key or the suffix.
+     */
+    private static final byte SKIPPING_DICTIONARY_KEY = 1;
+
+    /**
+     * State of the skipped dictionary, that expects the value of the skipped key.
+     */
+    private static final byte SKIPPING_DICTIONARY_VALUE = 2;
+
+    /**
+     * Buffer to decode objects from.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Buffer view, which is used to pass byte sequence regions to the model classes.
+     */
+    private final ByteBuffer regionView;
+
+    /**
+     * Index of the first byte after the decoded data.
+     */
+    private final int limit;
+
+    /**
+     * Index of the next byte to be decoded.
+     */
+    private int position;
+
+    /**
+     * Accumulator of the integers and byte sequence lengths, that cannot be processed in bulk.
+     */
+    private final BencodeSyntax.DecimalAccumulator decimal = new BencodeSyntax.DecimalAccumulator();
+
+    /**
+     * If true, decoded byte sequences refer to the buffer regions instead of copying them.
+     */
+    private boolean sliceByteSequences;
+
+    /**
+     * If true, dictionary values are kept in the encoded form until the first access.
+     */
+    private boolean lazyDictionaries;
+
+    /**
+     * Limits, enforced upon decoding.
+     */
+    private DecodeLimits decodeLimits = DecodeLimits.UNLIMITED;
+
+    /**
+     * Qty of lists and dictionaries, that are being decoded or skipped now.
+     */
+    private int depth;
+
+    /**
+     * Qty of objects, started in the current top-level object.
+     */
+    private long elementCount;
+
+    /**
+     * Total length of byte sequences in the current top-level object.
+     */
+    private long retainedBytes;
+
+    /**
+     * True, if the decoded objects are the entries of the enclosing container, that is counted
+     * as the top-level object (see {@link #startEnclosingContainer()}).
+     */
+    private boolean enclosed;
+
+    /**
+     * Lists and dictionaries, that are being decoded, innermost last.
+     */
+    private BencodedObject[] containers = new BencodedObject[INITIAL_STACK_CAPACITY];
+
+    /**
+     * Keys, that are waiting for their values, one per dictionary in the containers stack.
+     */
+    private BencodedByteSequence[] pendingKeys = new BencodedByteSequence[INITIAL_STACK_CAPACITY];
+
+    /**
+     * States of the lists and dictionaries, that are being skipped, innermost last.
+     */
+    private byte[] skipStates = new byte[INITIAL_STACK_CAPACITY];
+
+    /**
+     * Constructs the decoder, that processes the remaining bytes of the buffer.
+     *
+     * @param buffer buffer with bencoded data.
+     * @throws IllegalArgumentException if buffer is null.
+     */
+    public BencodeBufferDecoder(ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Null argument is not allowed for BencodeBufferDecoder constructor");
+        }
+
+        this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.regionView = buffer.duplicate();
+        this.position = buffer.position();
+        this.limit = buffer.limit();
+    }
+
+    /**
+     * Returns true, if decoded byte sequences refer to the buffer regions instead of copying them.
+     *
+     * @return see method description above.
+     */
+    public boolean isSliceByteSequences() {
+        return sliceByteSequences;
+    }
+
+    /**
+     * Sets whether decoded byte sequences should refer to the buffer regions instead of copying them.
+     * Disabled by default.
+     *
+     * @param sliceByteSequences true to refer to the buffer regions, false to copy them.
+     */
+    public void setSliceByteSequences(boolean sliceByteSequences) {
+        this.sliceByteSequences = sliceByteSequences;
+    }
+
+    /**
+     * Returns true, if dictionary values are kept in the encoded form until the first access.
+     *
+     * @return see method description above.
+     */
+    public boolean isLazyDictionaries() {
+        return lazyDictionaries;
+    }
+
+    /**
+     * Sets whether dictionary values should be kept in the encoded form until the first access.
+     * Disabled by default.
+     *
+     * @param lazyDictionaries true to decode dictionary values on the first access, false to decode them at once.
+     */
+    public void setLazyDictionaries(boolean lazyDictionaries) {
+        this.lazyDictionaries = lazyDictionaries;
+    }
+
+    /**
+     * Returns the limits, enforced upon decoding.
+     *
+     * @return see method description above.
+     */
+    public DecodeLimits getDecodeLimits() {
+        return decodeLimits;
+    }
+
+    /**
+     * Sets the limits, enforced upon decoding. By default, there are no limits. Values of lazy dictionaries
+     * are counted against the limits upon decoding, as if they are decoded at once.
+     *
+     * @param decodeLimits limits to be enforced.
+     * @throws IllegalArgumentException if decodeLimits is null.
+     */
+    public void setDecodeLimits(DecodeLimits decodeLimits) {
+        if (decodeLimits == null) {
+            throw new IllegalArgumentException("Null decode limits are not allowed");
+        }
+
+        this.decodeLimits = decodeLimits;
+    }
+
+    /**
+     * Returns the buffer index of the next byte to be decoded.
+     *
+     * @return see method description above.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns true, if the next call of next() method will return an object.
+     *
+     * @return see method description above.
+     */
+    public boolean hasNext() {
+        return position < limit;
+    }
+
+    /**
+     * Decodes the next bencoded object from the buffer.
+     *
+     * @return bencoded object from the buffer.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    public BencodedObject next() throws BencodeFormatException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        if (!enclosed) {
+            resetLimitCounters();
+        }
+
+        return decodeObject();
+    }
+
+    /**
+     * Decodes the next list from the buffer, decoding its elements in parallel. At first, element boundaries
+     * are found by a validating scan, that builds no objects, then the elements are decoded by the pool tasks,
+     * and the list is assembled in the original order. Useful for huge lists, holding lots of elements.
+     *
+     * @param pool pool to run decoding tasks in, for example {@link ForkJoinPool#commonPool()}.
+     * @return decoded list.
+     * @throws IllegalArgumentException if pool is null.
+     * @throws BencodeFormatException   if there's a bencoding format error occurred,
+     *                                  or the next object is not a list.
+     */
+    public BencodedList nextList(ForkJoinPool pool) throws BencodeFormatException {
+        if (pool == null) {
+            throw new IllegalArgumentException("Null argument is not allowed for nextList() method");
+        }
+
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        if (buffer.get(position) != BencodedList.SERIALIZED_PREFIX) {
+            throw new BencodeFormatException(
+                    "Incorrect stream position, expected prefix character: " + BencodedList.SERIALIZED_PREFIX);
+        }
+
+        // the limits are enforced by the boundary scan, so the tasks decode the elements without them
+        resetLimitCounters();
+        startObject();
+        enterContainer();
+
+        position++;
+        int[] elementOffsets = new int[MIN_ELEMENTS_PER_TASK];
+        int elementsCount = 0;
+        while (!isContainerEndReached()) {
+            if (elementsCount == elementOffsets.length) {
+                elementOffsets = Arrays.copyOf(elementOffsets, elementsCount * 2);
+            }
+
+            elementOffsets[elementsCount++] = position;
+            skipObject();
+        }
+        exitContainer();
+
+        // the last element ends right before the list suffix
+        final int elementsEnd = position - 1;
+        final int elementsPerTask = Math.max(MIN_ELEMENTS_PER_TASK, elementsCount / (pool.getParallelism() * 4));
+        final BencodedObject[] elements = new BencodedObject[elementsCount];
+
+        pool.invoke(new ElementsDecodingTask(elementOffsets, elementsEnd, elements, 0, elementsCount,
+                elementsPerTask));
+
+        return new BencodedList(Arrays.asList(elements));
+    }
+
+    /**
+     * Decodes the object, starting at the current position. Nested lists and dictionaries are built iteratively
+     * with the container stack of the decoder, so the nesting depth is not limited by the thread stack size.
+     *
+     * @return decoded object.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private BencodedObject decodeObject() throws BencodeFormatException {
+        int stackDepth = 0;
+        try {
+            while (true) {
+                if (position >= limit) {
+                    throw new BencodeFormatException("Unexpected end of the stream");
+                }
+
+                final int objectPrefix = buffer.get(position);
+                BencodedObject bencodedObject;
+
+                if (stackDepth > 0 && objectPrefix == BencodedObject.SERIALIZED_SUFFIX) {
+                    if (pendingKeys[stackDepth - 1] != null) {
+                        throw new BencodeFormatException(
+                                "Unexpected end of the stream for dictionary. 'Key' object is present, " +
+                                        "but 'value' object is not.");
+                    }
+
+                    position++;
+                    exitContainer();
+                    bencodedObject = containers[--stackDepth];
+                    containers[stackDepth] = null;
+                } else {
+                    if (stackDepth > 0 && containers[stackDepth - 1] instanceof BencodedDictionary) {
+                        if (pendingKeys[stackDepth - 1] == null) {
+                            BencodeSyntax.checkDictionaryKeyPrefix(objectPrefix);
+                        } else if (lazyDictionaries) {
+                            putEncodedValue(stackDepth - 1);
+                            continue;
+                        }
+                    }
+
+                    startObject();
+                    switch (objectPrefix) {
+                        case BencodedInteger.SERIALIZED_PREFIX:
+                            position++;
+                            bencodedObject = new BencodedInteger(decodeInteger());
+                            break;
+
+                        case BencodedList.SERIALIZED_PREFIX:
+                        case BencodedDictionary.SERIALIZED_PREFIX:
+                            position++;
+                            enterContainer();
+                            pushContainer(stackDepth++, objectPrefix == BencodedList.SERIALIZED_PREFIX ?
+                                    new BencodedList() : new BencodedDictionary());
+                            continue;
+
+                        default:
+                            if (!BencodeSyntax.isDigit(objectPrefix)) {
+                                throw new BencodeFormatException(
+                                        "Unexpected character in the stream: " + (char) (objectPrefix & 0xFF));
+                            }
+
+                            bencodedObject = decodeByteSequence();
+                            break;
+                    }
+                }
+
+                if (stackDepth == 0) {
+                    return bencodedObject;
+                }
+
+                addToContainer(stackDepth - 1, bencodedObject);
+            }
+        } finally {
+            // releasing the containers left by a format error
+            while (stackDepth > 0) {
+                stackDepth--;
+                containers[stackDepth] = null;
+                pendingKeys[stackDepth] = null;
+            }
+        }
+    }
+
+    /**
+     * Pushes the container to the stack, growing the stack if needed.
+     *
+     * @param index     stack index of the container.
+     * @param container list or dictionary to be pushed.
+     */
+    private void pushContainer(int index, BencodedObject container) {
+        if (index == containers.length) {
+            containers = Arrays.copyOf(containers, containers.length * 2);
+            pendingKeys = Arrays.copyOf(pendingKeys, pendingKeys.length * 2);
+        }
+
+        containers[index] = container;
+    }
+
+    /**
+     * Adds the completed object to the container: either as a list element, or as a dictionary key,
+     * or as a dictionary value for the pending key.
+     *
+     * @param index          stack index of the container.
+     * @param bencodedObject completed object.
+     */
+    private void addToContainer(int index, BencodedObject bencodedObject) {
+        final BencodedObject container = containers[index];
+        if (container instanceof BencodedList) {
+            ((BencodedList) container).add(bencodedObject);
+        } else if (pendingKeys[index] == null) {
+            // the key prefix has been checked, so the object is a byte sequence
+            pendingKeys[index] = (BencodedByteSequence) bencodedObject;
+        } else {
+            ((BencodedDictionary) container).put(pendingKeys[index], bencodedObject);
+            pendingKeys[index] = null;
+        }
+    }
+
+    /**
+     * Validates the value for the pending key of the lazy dictionary, and puts it to the dictionary
+     * in the encoded form. The current position is the one of the value prefix.
+     *
+     * @param index stack index of the dictionary.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private void putEncodedValue(int index) throws BencodeFormatException {
+        final int valueStart = position;
+        skipObject();
+
+        regionView.limit(position);
+        regionView.position(valueStart);
+        ((BencodedDictionary) containers[index]).putEncoded(pendingKeys[index], regionView);
+        pendingKeys[index] = null;
+    }
+
+    /**
+     * Validates the object, starting at the current position, and moves the position right after it.
+     * No model objects are created, nested lists and dictionaries are walked in a loop over the stack
+     * of their states.
+     *
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private void skipObject() throws BencodeFormatException {
+        int skipDepth = 0;
+        do {
+            if (position >= limit) {
+                throw new BencodeFormatException("Unexpected end of the stream");
+            }
+
+            final int objectPrefix = buffer.get(position);
+            final byte skipState = skipDepth > 0 ? skipStates[skipDepth - 1] : SKIPPING_LIST_ELEMENT;
+
+            if (skipDepth > 0 && objectPrefix == BencodedObject.SERIALIZED_SUFFIX) {
+                if (skipState == SKIPPING_DICTIONARY_VALUE) {
+                    throw new BencodeFormatException(
+                            "Unexpected end of the stream for dictionary. 'Key' object is present, " +
+                                    "but 'value' object is not.");
+                }
+
+                position++;
+                exitContainer();
+                skipDepth--;
+            } else {
+                if (skipState == SKIPPING_DICTIONARY_KEY) {
+                    BencodeSyntax.checkDictionaryKeyPrefix(objectPrefix);
+                }
+
+                startObject();
+                switch (objectPrefix) {
+                    case BencodedInteger.SERIALIZED_PREFIX:
+                        position++;
+                        decodeInteger();
+                        break;
+
+                    case BencodedList.SERIALIZED_PREFIX:
+                    case BencodedDictionary.SERIALIZED_PREFIX:
+                        position++;
+                        enterContainer();
+                        if (skipDepth == skipStates.length) {
+                            skipStates = Arrays.copyOf(skipStates, skipDepth * 2);
+                        }
+
+                        skipStates[skipDepth++] = objectPrefix == BencodedList.SERIALIZED_PREFIX ?
+                                SKIPPING_LIST_ELEMENT : SKIPPING_DICTIONARY_KEY;
+                        continue;
+
+                    default:
+                        if (!BencodeSyntax.isDigit(objectPrefix)) {
+                            throw new BencodeFormatException(
+                                    "Unexpected character in the stream: " + (char) (objectPrefix & 0xFF));
+                        }
+
+                        final int sequenceLength = decodeByteSequenceLength();
+                        position += sequenceLength;
+                        break;
+                }
+            }
+
+            // the object is skipped, so the enclosing dictionary expects the other part of the entry
+            if (skipDepth > 0 && skipStates[skipDepth - 1] != SKIPPING_LIST_ELEMENT) {
+                skipStates[skipDepth - 1] = skipStates[skipDepth - 1] == SKIPPING_DICTIONARY_KEY ?
+                        SKIPPING_DICTIONARY_VALUE : SKIPPING_DICTIONARY_KEY;
+            }
+        } while (skipDepth > 0);
+    }
+
+    /**
+     * Checks whether the list or dictionary suffix is reached, and consumes it if so.
+     *
+     * @return true, if the suffix has been reached.
+     * @throws BencodeFormatException if the end of the buffer is reached before the suffix.
+     */
+    private boolean isContainerEndReached() throws BencodeFormatException {
+        if (position >= limit) {
+            throw new BencodeFormatException("Unexpected end of the stream");
+        }
+
+        if (buffer.get(position) == BencodedObject.SERIALIZED_SUFFIX) {
+            position++;
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Decodes the byte sequence, the current position is the one of the first length digit.
+     *
+     * @return decoded byte sequence.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private BencodedByteSequence decodeByteSequence() throws BencodeFormatException {
+        final int sequenceLength = decodeByteSequenceLength();
+
+        regionView.limit(position + sequenceLength);
+        regionView.position(position);
+        position += sequenceLength;
+
+        return sliceByteSequences ? BencodedByteSequence.wrap(regionView) : new BencodedByteSequence(regionView);
+    }
+
+    /**
+     * Decodes the byte sequence length, checking it against the buffer remaining bytes and the decode limits.
+     *
+     * @return decoded length.
+     * @throws BencodeFormatException if there's a bencoding format error occurred, or the limits are exceeded.
+     */
+    private int decodeByteSequenceLength() throws BencodeFormatException {
+        final int sequenceLength = decodeLength();
+        if (sequenceLength > limit - position) {
+            throw new BencodeFormatException("Unexpected end of the byte sequence stream");
+        }
+
+        if (sequenceLength > decodeLimits.getMaxStringLength()) {
+            throw new BencodeFormatException(
+                    "Byte sequence length exceeds the limit: " + decodeLimits.getMaxStringLength());
+        }
+
+        if (sequenceLength > decodeLimits.getMaxTotalBytes() - retainedBytes) {
+            throw new BencodeFormatException(
+                    "Total byte sequences length exceeds the limit: " + decodeLimits.getMaxTotalBytes());
+        }
+
+        retainedBytes += sequenceLength;
+        return sequenceLength;
+    }
+
+    /**
+     * Counts the enclosing list or dictionary against the limits, as the top-level object, so the objects,
+     * that are decoded by subsequent next() calls, are counted as its entries, and the limits are enforced
+     * over the container as a whole. The caller consumes the container prefix and suffix by itself,
+     * and the decoder should not be used for other objects afterwards.
+     *
+     * @throws BencodeFormatException if the element count or depth limit is exceeded.
+     */
+    void startEnclosingContainer() throws BencodeFormatException {
+        resetLimitCounters();
+        startObject();
+        enterContainer();
+        enclosed = true;
+    }
+
+    /**
+     * Resets the limit counters before the next top-level object.
+     */
+    private void resetLimitCounters() {
+        depth = 0;
+        elementCount = 0;
+        retainedBytes = 0;
+    }
+
+    /**
+     * Counts the object, that is being started, against the element count limit.
+     *
+     * @throws BencodeFormatException if the element count limit is exceeded.
+     */
+    private void startObject() throws BencodeFormatException {
+        if (elementCount == decodeLimits.getMaxElementCount()) {
+            throw new BencodeFormatException("Elements count exceeds the limit: " + decodeLimits.getMaxElementCount());
+        }
+
+        elementCount++;
+    }
+
+    /**
+     * Marks the start of list or dictionary, enforcing the depth limit.
+     *
+     * @throws BencodeFormatException if the depth limit is exceeded.
+     */
+    private void enterContainer() throws BencodeFormatException {
+        if (depth == decodeLimits.getMaxDepth()) {
+            throw new BencodeFormatException("Nesting depth exceeds the limit: " + decodeLimits.getMaxDepth());
+        }
+
+        depth++;
+    }
+
+    /**
+     * Marks the end of list or dictionary, started by enterContainer() method.
+     */
+    private void exitContainer() {
+        depth--;
+    }
+
+    /**
+     * Decodes the byte sequence length together with the delimiter after it.
+     *
+     * @return decoded length.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private int decodeLength() throws BencodeFormatException {
+        final int runLength = SwarScanner.canonicalRunLength(buffer, position, limit, ':', false,
+                SwarScanner.MAX_LENGTH_DIGITS);
+        if (runLength > 0) {
+            final int length = (int) SwarScanner.parseDigitRun(buffer, position, runLength);
+            position += runLength + 1;
+            return length;
+        }
+
+        decimal.startLength();
+        position = decimal.append(buffer, position, limit);
+        if (position >= limit) {
+            throw new BencodeFormatException("Stop symbol: ':' was not reached");
+        }
+
+        if (buffer.get(position) != ':' || !decimal.isCanonical()) {
+            throw new BencodeFormatException(BencodeSyntax.INCORRECT_LENGTH_MESSAGE);
+        }
+
+        position++;
+        return (int) decimal.getValue();
+    }
+
+    /**
+     * Decodes the integer value together with its suffix, the current position is the one right after the prefix.
+     * Only canonical form is accepted: no leading zeros and no negative zero.
+     *
+     * @return decoded value.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private long decodeInteger() throws BencodeFormatException {
+        final boolean negative = position < limit && buffer.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+
+        final int runLength = SwarScanner.canonicalRunLength(buffer, position, limit,
+                BencodedObject.SERIALIZED_SUFFIX, negative, SwarScanner.MAX_RUN_LENGTH);
+        if (runLength > 0) {
+            final long value = SwarScanner.parseDigitRun(buffer, position, runLength);
+            position += runLength + 1;
+            return negative ? -value : value;
+        }
+
+        decimal.startInteger();
+        if (negative) {
+            decimal.setNegative();
+        }
+
+        position = decimal.append(buffer, position, limit);
+        if (position >= limit) {
+            throw new BencodeFormatException("Stop symbol: 'e' was not reached");
+        }
+
+        if (buffer.get(position) != BencodedObject.SERIALIZED_SUFFIX || !decimal.isCanonical()) {
+            throw new BencodeFormatException(BencodeSyntax.INCORRECT_VALUE_MESSAGE);
+        }
+
+        position++;
+        return decimal.getValue();
+    }
+
+    /**
+     * Task, that decodes the range of list elements, which boundaries are already found and validated.
+     */
+    private final class ElementsDecodingTask extends RecursiveAction {
+
+        /**
+         * Version of the serialized form, tasks are not serialized by the decoder, it's declared
+         * because RecursiveAction is serializable.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Buffer indexes of all list elements.
+         */
+        private final int[] elementOffsets;
+
+        /**
+         * Buffer index of the list suffix.
+         */
+        private final int elementsEnd;
+
+        /**
+         * Target array for decoded elements.
+         */
+        private final BencodedObject[] elements;
+
+        /**
+         * Index of the first element to decode.
+         */
+        private final int from;
+
+        /**
+         * Index right after the last element to decode.
+         */
+        private final int to;
+
+        /**
+         * Qty of elements, that is decoded without splitting the task.
+         */
+        private final int elementsPerTask;
+
+        /**
+         * Constructs the task.
+         *
+         * @param elementOffsets  buffer indexes of all list elements.
+         * @param elementsEnd     buffer index of the list suffix.
+         * @param elements        target array for decoded elements.
+         * @param from            index of the first element to decode.
+         * @param to              index right after the last element to decode.
+         * @param elementsPerTask qty of elements, that is decoded without splitting the task.
+         */
+        private ElementsDecodingTask(int[] elementOffsets, int elementsEnd, BencodedObject[] elements,
+                                     int from, int to, int elementsPerTask) {
+            this.elementOffsets = elementOffsets;
+            this.elementsEnd = elementsEnd;
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+            this.elementsPerTask = elementsPerTask;
+        }
+
+        /**
+         * Decodes the elements range, or splits it in two halves.
+         */
+        @Override
+        protected void compute() {
+            if (to - from > elementsPerTask) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(
+                        new ElementsDecodingTask(elementOffsets, elementsEnd, elements, from, middle, elementsPerTask),
+                        new ElementsDecodingTask(elementOffsets, elementsEnd, elements, middle, to, elementsPerTask));
+                return;
+            }
+
+            final ByteBuffer range = buffer.duplicate();
+            range.limit(to < elements.length ? elementOffsets[to] : elementsEnd);
+            range.position(elementOffsets[from]);
+
+            final BencodeBufferDecoder rangeDecoder = new BencodeBufferDecoder(range);
+            rangeDecoder.setSliceByteSequences(sliceByteSequences);
+            rangeDecoder.setLazyDictionaries(lazyDictionaries);
+
+            try {
+                for (int i = from; i < to; i++) {
+                    elements[i] = rangeDecoder.next();
+                }
+            } catch (BencodeFormatException e) {
+                // elements are already validated by the boundary scan
+                throw new IllegalStateException("Validated list element cannot be decoded", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.BencodedByteSequence;
+import com.github.cdefgah.bencoder4j.model.BencodedDictionary;
+import com.github.cdefgah.bencoder4j.model.BencodedObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Decoder of a top-level dictionary, that computes digests of the raw bytes of one of its values on the fly.
+ * Useful to get the torrent info-hash along with the parsed metainfo in a single pass:
+ * <pre>
+ *     BencodeDigestDecoder decoder = new BencodeDigestDecoder("info", "SHA-1", "SHA-256");
+ *     BencodeDigestResult result = decoder.decode(inputStream);
+ *     byte[] infoHash = result.getDigest("SHA-1");
+ * </pre>
+ * The digested bytes are exactly the ones present in the input, so the digest does not depend on
+ * how the decoded value would be serialized back.
+ * <p>
+ * The decode limits, if provided, are enforced over the whole top-level dictionary.
+ * </p>
+ * <p>
+ * The decoder keeps no state between decode() method calls, so an instance can be shared between threads.
+ * </p>
+ */
+public final class BencodeDigestDecoder {
+
+    /**
+     * Key of the top-level dictionary value to be digested.
+     */
+    private final BencodedByteSequence digestedKey;
+
+    /**
+     * Names of the digest algorithms.
+     */
+    private final String[] algorithms;
+
+    /**
+     * Limits, enforced upon decoding.
+     */
+    private final DecodeLimits decodeLimits;
+
+    /**
+     * Constructs the decoder, that enforces no decode limits.
+     *
+     * @param digestedKey key of the top-level dictionary value to be digested, for example "info".
+     * @param algorithms  names of the digest algorithms, for example "SHA-1" and "SHA-256".
+     * @throws IllegalArgumentException if the key is null, no algorithms are provided, or an algorithm
+     *                                  is not supported.
+     */
+    public BencodeDigestDecoder(String digestedKey, String... algorithms) {
+        this(digestedKey, DecodeLimits.UNLIMITED, algorithms);
+    }
+
+    /**
+     * Constructs the decoder.
+     *
+     * @param digestedKey  key of the top-level dictionary value to be digested, for example "info".
+     * @param decodeLimits limits to be enforced upon decoding.
+     * @param algorithms   names of the digest algorithms, for example "SHA-1" and "SHA-256".
+     * @throws IllegalArgumentException if the key or decodeLimits is null, no algorithms are provided,
+     *                                  or an algorithm is not supported.
+     */
+    public BencodeDigestDecoder(String digestedKey, DecodeLimits decodeLimits, String... algorithms) {
+        if (digestedKey == null) {
+            throw new IllegalArgumentException("'digestedKey' value for BencodeDigestDecoder cannot be null!");
+        }
+
+        if (decodeLimits == null) {
+            throw new IllegalArgumentException("Null decode limits are not allowed");
+        }
+
+        if (algorithms == null || algorithms.length == 0) {
+            throw new IllegalArgumentException("At least one digest algorithm should be provided");
+        }
+
+        for (String algorithm : algorithms) {
+            if (algorithm == null) {
+                throw new IllegalArgumentException("Null digest algorithm name is not allowed");
+            }
+        }
+
+        this.digestedKey = new BencodedByteSequence(digestedKey);
+        this.algorithms = algorithms.clone();
+        this.decodeLimits = decodeLimits;
+
+        // validating algorithm names right away, instead of failing upon decoding
+        createDigests();
+    }
+
+    /**
+     * Decodes the top-level dictionary from the stream, digesting the chosen value bytes upon reading them.
+     * The stream is read up to the dictionary suffix, remaining bytes are not validated.
+     *
+     * @param is input stream to decode.
+     * @return decoded dictionary with digests.
+     * @throws IOException            if there's an input/output error occurred.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    public BencodeDigestResult decode(InputStream is) throws IOException, BencodeFormatException {
+        final BencodeStreamReader bsr = new BencodeStreamReader(is);
+        bsr.setDecodeLimits(decodeLimits);
+        if (bsr.read() != BencodedDictionary.SERIALIZED_PREFIX) {
+            throw new BencodeFormatException(
+                    "Incorrect stream position, expected prefix character: " + BencodedDictionary.SERIALIZED_PREFIX);
+        }
+
+        final BencodedDictionary dictionary = new BencodedDictionary();
+        final BencodeStreamIterator bsi = new BencodeStreamIterator(bsr);
+        MessageDigest[] digests = null;
+
+        // the dictionary is counted as the top-level object, so the limits are enforced over its entries together
+        bsr.startObject();
+        bsr.enterContainer();
+        try {
+            while (bsi.hasNext()) {
+                BencodeSyntax.checkDictionaryKeyPrefix(bsr.peek());
+                final BencodedByteSequence key = (BencodedByteSequence) bsi.next();
+                if (!bsi.hasNext()) {
+                    throw new BencodeFormatException(
+                            "Unexpected end of the stream for dictionary. 'Key' object is present, " +
+                                    "but 'value' object is not.");
+                }
+
+                if (digests == null && key.equals(digestedKey)) {
+                    digests = createDigests();
+                    bsr.startDigest(digests);
+                    dictionary.put(key, bsi.next());
+                    bsr.stopDigest();
+                } else {
+                    dictionary.put(key, bsi.next());
+                }
+            }
+
+            // reading suffix
+            bsr.read();
+        } finally {
+            bsr.exitContainer();
+        }
+
+        return new BencodeDigestResult(dictionary, algorithms, completeDigests(digests));
+    }
+
+    /**
+     * Decodes the top-level dictionary from the remaining bytes of the buffer, digesting the chosen value
+     * as a buffer region without copying it. The buffer position is not changed.
+     *
+     * @param buffer buffer to decode.
+     * @return decoded dictionary with digests.
+     * @throws IllegalArgumentException if buffer is null.
+     * @throws BencodeFormatException   if there's a bencoding format error occurred.
+     */
+    public BencodeDigestResult decode(ByteBuffer buffer) throws BencodeFormatException {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Null argument is not allowed for decode() method");
+        }
+
+        final ByteBuffer source = buffer.duplicate();
+        if (!source.hasRemaining() || source.get(source.position()) != BencodedDictionary.SERIALIZED_PREFIX) {
+            throw new BencodeFormatException(
+                    "Incorrect stream position, expected prefix character: " + BencodedDictionary.SERIALIZED_PREFIX);
+        }
+
+        source.position(source.position() + 1);
+        final BencodeBufferDecoder decoder = new BencodeBufferDecoder(source);
+        decoder.setDecodeLimits(decodeLimits);
+        decoder.startEnclosingContainer();
+
+        final BencodedDictionary dictionary = new BencodedDictionary();
+        MessageDigest[] digests = null;
+
+        while (true) {
+            if (!decoder.hasNext()) {
+                throw new BencodeFormatException("Unexpected end of the stream");
+            }
+
+            final int keyPrefix = source.get(decoder.getPosition());
+            if (keyPrefix == BencodedObject.SERIALIZED_SUFFIX) {
+                break;
+            }
+
+            BencodeSyntax.checkDictionaryKeyPrefix(keyPrefix);
+            final BencodedByteSequence key = (BencodedByteSequence) decoder.next();
+            if (!decoder.hasNext()) {
+                throw new BencodeFormatException("Unexpected end of the stream");
+            }
+
+            if (source.get(decoder.getPosition()) == BencodedObject.SERIALIZED_SUFFIX) {
+                throw new BencodeFormatException(
+                        "Unexpected end of the stream for dictionary. 'Key' object is present, " +
+                                "but 'value' object is not.");
+            }
+
+            final int valueStart = decoder.getPosition();
+            dictionary.put(key, decoder.next());
+
+            if (digests == null && key.equals(digestedKey)) {
+                digests = createDigests();
+                for (MessageDigest digest : digests) {
+                    source.limit(decoder.getPosition());
+                    source.position(valueStart);
+                    digest.update(source);
+                }
+
+                source.limit(buffer.limit());
+            }
+        }
+
+        return new BencodeDigestResult(dictionary, algorithms, completeDigests(digests));
+    }
+
+    /**
+     * Creates message digests for all algorithms.
+     *
+     * @return see method description above.
+     * @throws IllegalArgumentException if an algorithm is not supported.
+     */
+    private MessageDigest[] createDigests() {
+        final MessageDigest[] digests = new MessageDigest[algorithms.length];
+        for (int i = 0; i < algorithms.length; i++) {
+            try {
+                digests[i] = MessageDigest.getInstance(algorithms[i]);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalArgumentException("Unsupported digest algorithm: " + algorithms[i], e);
+            }
+        }
+
+        return digests;
+    }
+
+    /**
+     * Completes digest computations.
+     *
+     * @param digests message digests, or null if the digested key has not been found.
+     * @return computed digests, or null if the digested key has not been found.
+     */
+    private static byte[][] completeDigests(MessageDigest[] digests) {
+        if (digests == null) {
+            return null;
+        }
+
+        final byte[][] completedDigests = new byte[digests.length][];
+        for (int i = 0; i < digests.length; i++) {
+            completedDigests[i] = digests[i].digest();
+        }
+
+        return completedDigests;
+    }
+}
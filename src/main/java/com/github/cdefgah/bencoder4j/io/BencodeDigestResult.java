@@ -0,0 +1,82 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.model.BencodedDictionary;
+
+/**
+ * Result of decoding with {@link BencodeDigestDecoder}: the decoded dictionary along with the digests
+ * of the raw bytes of its chosen value.
+ */
+public final class BencodeDigestResult {
+
+    /**
+     * Decoded dictionary.
+     */
+    private final BencodedDictionary dictionary;
+
+    /**
+     * Names of the digest algorithms.
+     */
+    private final String[] algorithms;
+
+    /**
+     * Digests, one per algorithm, or null if the dictionary does not contain the digested key.
+     */
+    private final byte[][] digests;
+
+    /**
+     * Constructs the result.
+     *
+     * @param dictionary decoded dictionary.
+     * @param algorithms names of the digest algorithms.
+     * @param digests    digests, one per algorithm, or null if the dictionary does not contain the digested key.
+     */
+    BencodeDigestResult(BencodedDictionary dictionary, String[] algorithms, byte[][] digests) {
+        this.dictionary = dictionary;
+        this.algorithms = algorithms;
+        this.digests = digests;
+    }
+
+    /**
+     * Returns the decoded dictionary.
+     *
+     * @return see method description above.
+     */
+    public BencodedDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Returns true, if the dictionary contains the digested key, and the digests are computed.
+     *
+     * @return see method description above.
+     */
+    public boolean isDigested() {
+        return digests != null;
+    }
+
+    /**
+     * Returns the digest, computed by the first algorithm passed to the decoder.
+     *
+     * @return the digest, or null if the dictionary does not contain the digested key.
+     */
+    public byte[] getDigest() {
+        return getDigest(algorithms[0]);
+    }
+
+    /**
+     * Returns the digest, computed by the specified algorithm.
+     *
+     * @param algorithm name of the digest algorithm, as it has been passed to the decoder.
+     * @return the digest, or null if the dictionary does not contain the digested key.
+     * @throws IllegalArgumentException if the algorithm has not been passed to the decoder.
+     */
+    public byte[] getDigest(String algorithm) {
+        for (int i = 0; i < algorithms.length; i++) {
+            if (algorithms[i].equals(algorithm)) {
+                return digests != null ? digests[i].clone() : null;
+            }
+        }
+
+        throw new IllegalArgumentException("Digest algorithm has not been used upon decoding: " + algorithm);
+    }
+}
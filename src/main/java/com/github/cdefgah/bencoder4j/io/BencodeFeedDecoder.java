@@ -0,0 +1,393 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Incremental decoder, that is fed with data fragments and never blocks waiting for more data.
+ * Useful for non-blocking channels, where bencoded objects arrive split in arbitrary fragments.
+ * <p>
+ * Each call of feed() method consumes the whole fragment and returns the top-level objects completed by it,
+ * the state of a partially received object is retained until the next fragment arrives.
+ * If a bencoding format error is reported, the decoder state is undefined, and the decoder should be discarded.
+ * </p>
+ * <p>
+ * Please note that this implementation is not synchronized, and an instance should be used by one thread at a time.
+ * </p>
+ */
+public final class BencodeFeedDecoder {
+
+    /**
+     * Decoder state: the start of a new object is expected.
+     */
+    private static final int EXPECTING_OBJECT = 0;
+
+    /**
+     * Decoder state: integer digits are being read.
+     */
+    private static final int READING_INTEGER = 1;
+
+    /**
+     * Decoder state: byte sequence length digits are being read.
+     */
+    private static final int READING_LENGTH = 2;
+
+    /**
+     * Decoder state: byte sequence body is being read.
+     */
+    private static final int READING_BYTES = 3;
+
+    /**
+     * Initial capacity of the container stack.
+     */
+    private static final int INITIAL_STACK_CAPACITY = 16;
+
+    /**
+     * Current decoder state.
+     */
+    private int state = EXPECTING_OBJECT;
+
+    /**
+     * Open lists and dictionaries, from the outermost to the innermost one.
+     */
+    private BencodedObject[] containers = new BencodedObject[INITIAL_STACK_CAPACITY];
+
+    /**
+     * Dictionary keys, waiting for their values, one per open container.
+     */
+    private BencodedByteSequence[] pendingKeys = new BencodedByteSequence[INITIAL_STACK_CAPACITY];
+
+    /**
+     * Qty of open containers.
+     */
+    private int depth;
+
+    /**
+     * Accumulator of the integer or byte sequence length being read.
+     */
+    private final BencodeSyntax.DecimalAccumulator decimal = new BencodeSyntax.DecimalAccumulator();
+
+    /**
+     * Body of the byte sequence being read.
+     */
+    private byte[] sequence;
+
+    /**
+     * Qty of bytes read to the byte sequence body.
+     */
+    private int sequenceBytesRead;
+
+    /**
+     * Length of the byte sequence being read, the body array grows up to it as the bytes arrive.
+     */
+    private int sequenceLength;
+
+    /**
+     * Limits, enforced upon decoding.
+     */
+    private DecodeLimits decodeLimits = DecodeLimits.UNLIMITED;
+
+    /**
+     * Qty of objects, started in the current top-level object.
+     */
+    private long elementCount;
+
+    /**
+     * Total length of byte sequences in the current top-level object.
+     */
+    private long retainedBytes;
+
+    /**
+     * Returns the limits, enforced upon decoding.
+     *
+     * @return see method description above.
+     */
+    public DecodeLimits getDecodeLimits() {
+        return decodeLimits;
+    }
+
+    /**
+     * Sets the limits, enforced upon decoding. By default, there are no limits.
+     *
+     * @param decodeLimits limits to be enforced.
+     * @throws IllegalArgumentException if decodeLimits is null.
+     */
+    public void setDecodeLimits(DecodeLimits decodeLimits) {
+        if (decodeLimits == null) {
+            throw new IllegalArgumentException("Null decode limits are not allowed");
+        }
+
+        this.decodeLimits = decodeLimits;
+    }
+
+    /**
+     * Consumes all remaining bytes of the fragment and returns the top-level objects completed by it.
+     *
+     * @param fragment fragment of bencoded data, its position is moved to its limit.
+     * @return the list of completed top-level objects, possibly empty.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    public List<BencodedObject> feed(ByteBuffer fragment) throws BencodeFormatException {
+        List<BencodedObject> completedObjects = Collections.emptyList();
+
+        while (fragment.hasRemaining()) {
+            final BencodedObject completedObject = consume(fragment);
+            if (completedObject != null) {
+                if (completedObjects.isEmpty()) {
+                    completedObjects = new ArrayList<>();
+                }
+
+                completedObjects.add(completedObject);
+            }
+        }
+
+        return completedObjects;
+    }
+
+    /**
+     * Returns true, if a partially received object is retained by the decoder.
+     * Useful to check whether the data source has been closed in the middle of an object.
+     *
+     * @return see method description above.
+     */
+    public boolean hasIncompleteObject() {
+        return state != EXPECTING_OBJECT || depth > 0;
+    }
+
+    /**
+     * Consumes the fragment bytes until the current token is completed or the fragment is exhausted.
+     *
+     * @param fragment fragment of bencoded data.
+     * @return completed top-level object, or null if there's no such one yet.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private BencodedObject consume(ByteBuffer fragment) throws BencodeFormatException {
+        switch (state) {
+            case READING_INTEGER:
+                return consumeIntegerDigits(fragment);
+
+            case READING_LENGTH:
+                return consumeLengthDigits(fragment);
+
+            case READING_BYTES:
+                return consumeBytes(fragment);
+
+            default:
+                return consumeObjectStart(fragment.get() & 0xFF);
+        }
+    }
+
+    /**
+     * Processes the first byte of the object or the container suffix.
+     *
+     * @param objectPrefix the byte to process.
+     * @return completed top-level object, or null if there's no such one yet.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private BencodedObject consumeObjectStart(int objectPrefix) throws BencodeFormatException {
+        if (objectPrefix == BencodedObject.SERIALIZED_SUFFIX && depth > 0) {
+            if (pendingKeys[depth - 1] != null) {
+                throw new BencodeFormatException(
+                        "Unexpected end of the stream for dictionary. 'Key' object is present, " +
+                                "but 'value' object is not.");
+            }
+
+            final BencodedObject container = containers[--depth];
+            containers[depth] = null;
+            return complete(container);
+        }
+
+        if (depth > 0 && containers[depth - 1] instanceof BencodedDictionary && pendingKeys[depth - 1] == null) {
+            BencodeSyntax.checkDictionaryKeyPrefix(objectPrefix);
+        }
+
+        if (depth == 0) {
+            elementCount = 0;
+            retainedBytes = 0;
+        }
+
+        if (elementCount == decodeLimits.getMaxElementCount()) {
+            throw new BencodeFormatException("Elements count exceeds the limit: " + decodeLimits.getMaxElementCount());
+        }
+        elementCount++;
+
+        switch (objectPrefix) {
+            case BencodedInteger.SERIALIZED_PREFIX:
+                state = READING_INTEGER;
+                decimal.startInteger();
+                return null;
+
+            case BencodedList.SERIALIZED_PREFIX:
+                pushContainer(new BencodedList());
+                return null;
+
+            case BencodedDictionary.SERIALIZED_PREFIX:
+                pushContainer(new BencodedDictionary());
+                return null;
+
+            default:
+                if (!BencodeSyntax.isDigit(objectPrefix)) {
+                    throw new BencodeFormatException("Unexpected character in the stream: " + (char) objectPrefix);
+                }
+
+                state = READING_LENGTH;
+                decimal.startLength();
+                decimal.append(objectPrefix - '0');
+                return null;
+        }
+    }
+
+    /**
+     * Consumes integer digits until the suffix is reached or the fragment is exhausted.
+     *
+     * @param fragment fragment of bencoded data.
+     * @return completed top-level object, or null if there's no such one yet.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private BencodedObject consumeIntegerDigits(ByteBuffer fragment) throws BencodeFormatException {
+        while (fragment.hasRemaining()) {
+            final int streamByte = fragment.get() & 0xFF;
+            if (streamByte == '-' && decimal.getDigitsCount() == 0 && !decimal.isNegative()) {
+                decimal.setNegative();
+            } else if (streamByte == BencodedObject.SERIALIZED_SUFFIX && decimal.isCanonical()) {
+                state = EXPECTING_OBJECT;
+                return complete(new BencodedInteger(decimal.getValue()));
+            } else if (!BencodeSyntax.isDigit(streamByte) || !decimal.append(streamByte - '0')) {
+                throw new BencodeFormatException(BencodeSyntax.INCORRECT_VALUE_MESSAGE);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Consumes byte sequence length digits until the delimiter is reached or the fragment is exhausted.
+     *
+     * @param fragment fragment of bencoded data.
+     * @return completed top-level object, or null if there's no such one yet.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private BencodedObject consumeLengthDigits(ByteBuffer fragment) throws BencodeFormatException {
+        while (fragment.hasRemaining()) {
+            final int streamByte = fragment.get() & 0xFF;
+            if (streamByte == ':') {
+                startByteSequence((int) decimal.getValue());
+                state = READING_BYTES;
+                return consumeBytes(fragment);
+            }
+
+            // a digit after the leading zero is reported at once, without waiting for the delimiter
+            if (!BencodeSyntax.isDigit(streamByte) || decimal.hasLeadingZero() || !decimal.append(streamByte - '0')) {
+                throw new BencodeFormatException(BencodeSyntax.INCORRECT_LENGTH_MESSAGE);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Consumes byte sequence body until it is complete or the fragment is exhausted.
+     *
+     * @param fragment fragment of bencoded data.
+     * @return completed top-level object, or null if there's no such one yet.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private BencodedObject consumeBytes(ByteBuffer fragment) throws BencodeFormatException {
+        final int chunkLength = Math.min(fragment.remaining(), sequenceLength - sequenceBytesRead);
+        if (sequenceBytesRead + chunkLength > sequence.length) {
+            final long grownLength = Math.max(sequenceBytesRead + chunkLength, sequence.length * 2L);
+            sequence = Arrays.copyOf(sequence, (int) Math.min(sequenceLength, grownLength));
+        }
+
+        fragment.get(sequence, sequenceBytesRead, chunkLength);
+        sequenceBytesRead += chunkLength;
+
+        if (sequenceBytesRead < sequenceLength) {
+            return null;
+        }
+
+        final ByteBuffer body = ByteBuffer.wrap(sequence);
+        sequence = null;
+        state = EXPECTING_OBJECT;
+        return complete(BencodedByteSequence.wrap(body));
+    }
+
+    /**
+     * Checks the byte sequence length against the decode limits and starts reading its body. The body array is
+     * allocated for the bytes, that actually arrive, not for the length claimed by the header.
+     *
+     * @param length byte sequence length.
+     * @throws BencodeFormatException if the decode limits are exceeded.
+     */
+    private void startByteSequence(int length) throws BencodeFormatException {
+        if (length > decodeLimits.getMaxStringLength()) {
+            throw new BencodeFormatException(
+                    "Byte sequence length exceeds the limit: " + decodeLimits.getMaxStringLength());
+        }
+
+        if (length > decodeLimits.getMaxTotalBytes() - retainedBytes) {
+            throw new BencodeFormatException(
+                    "Total byte sequences length exceeds the limit: " + decodeLimits.getMaxTotalBytes());
+        }
+
+        retainedBytes += length;
+        sequence = new byte[Math.min(length, BencodeStreamReader.DEFAULT_BUFFER_SIZE)];
+        sequenceBytesRead = 0;
+        sequenceLength = length;
+    }
+
+    /**
+     * Pushes the container to the stack.
+     *
+     * @param container list or dictionary to be pushed.
+     * @throws BencodeFormatException if the depth limit is exceeded.
+     */
+    private void pushContainer(BencodedObject container) throws BencodeFormatException {
+        if (depth == decodeLimits.getMaxDepth()) {
+            throw new BencodeFormatException("Nesting depth exceeds the limit: " + decodeLimits.getMaxDepth());
+        }
+
+        if (depth == containers.length) {
+            final BencodedObject[] grownContainers = new BencodedObject[containers.length * 2];
+            System.arraycopy(containers, 0, grownContainers, 0, depth);
+            containers = grownContainers;
+
+            final BencodedByteSequence[] grownPendingKeys = new BencodedByteSequence[pendingKeys.length * 2];
+            System.arraycopy(pendingKeys, 0, grownPendingKeys, 0, depth);
+            pendingKeys = grownPendingKeys;
+        }
+
+        containers[depth++] = container;
+    }
+
+    /**
+     * Passes the completed object to the enclosing container.
+     *
+     * @param completedObject completed object.
+     * @return the object itself, if it is a top-level one, otherwise null.
+     */
+    private BencodedObject complete(BencodedObject completedObject) {
+        if (depth == 0) {
+            return completedObject;
+        }
+
+        final BencodedObject container = containers[depth - 1];
+        if (container instanceof BencodedList) {
+            ((BencodedList) container).add(completedObject);
+        } else if (pendingKeys[depth - 1] == null) {
+            // key type has already been checked by its prefix
+            pendingKeys[depth - 1] = (BencodedByteSequence) completedObject;
+        } else {
+            ((BencodedDictionary) container).put(pendingKeys[depth - 1], completedObject);
+            pendingKeys[depth - 1] = null;
+        }
+
+        return null;
+    }
+}
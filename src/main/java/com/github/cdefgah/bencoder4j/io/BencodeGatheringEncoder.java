@@ -0,0 +1,122 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.CircularReferenceException;
+import com.github.cdefgah.bencoder4j.model.BencodedObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.IllegalBlockingModeException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encoder, that represents a bencoded object as an array of buffers, to be written with a single gathering write.
+ * <p>
+ * Structural tokens, integers and short byte sequences are collected to scratch buffers, while byte sequences,
+ * that are not shorter than the reference threshold, are referenced as separate read-only buffers,
+ * so their bodies, such as 'pieces' or 'peers' strings, are never copied on the way out.
+ * File regions are mapped to memory. Please note that referenced buffers share the byte sequence contents,
+ * so the contents must not be modified until the buffers are written.
+ * </p>
+ * <p>
+ * The class is immutable, so an instance can be shared between threads.
+ * </p>
+ */
+public final class BencodeGatheringEncoder {
+
+    /**
+     * Default min length of a byte sequence, that is referenced instead of copying.
+     */
+    public static final int DEFAULT_REFERENCE_THRESHOLD = 1024;
+
+    /**
+     * Min length of a byte sequence, that is referenced instead of copying, also the scratch buffer size.
+     */
+    private final int referenceThreshold;
+
+    /**
+     * Constructs the encoder with the default reference threshold.
+     */
+    public BencodeGatheringEncoder() {
+        this(DEFAULT_REFERENCE_THRESHOLD);
+    }
+
+    /**
+     * Constructs the encoder.
+     *
+     * @param referenceThreshold min length of a byte sequence, that is referenced instead of copying, at least 32.
+     * @throws IllegalArgumentException if referenceThreshold is too small.
+     */
+    public BencodeGatheringEncoder(int referenceThreshold) {
+        if (referenceThreshold < BencodeOutputBuffer.MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Incorrect reference threshold: " + referenceThreshold);
+        }
+
+        this.referenceThreshold = referenceThreshold;
+    }
+
+    /**
+     * Encodes the bencoded object to an array of buffers, whose remaining bytes, taken in order,
+     * contain the encoded object.
+     *
+     * @param bencodedObject object to be encoded.
+     * @return see method description above.
+     * @throws CircularReferenceException if there's a circular reference found upon encoding the object.
+     * @throws IllegalArgumentException   if bencodedObject is null.
+     */
+    public ByteBuffer[] encode(BencodedObject bencodedObject) throws CircularReferenceException {
+        if (bencodedObject == null) {
+            throw new IllegalArgumentException("Null argument is not allowed for encode() method");
+        }
+
+        final List<ByteBuffer> buffers = new ArrayList<>();
+        final BencodeWriter writer = new BencodeWriter(new BencodeOutputBuffer(buffers, referenceThreshold));
+        try {
+            writer.write(bencodedObject);
+            writer.flush();
+        } catch (IOException e) {
+            // buffers are collected in memory, so the exception is not expected here
+            throw new UncheckedIOException("Bencoded object cannot be encoded", e);
+        }
+
+        return buffers.toArray(new ByteBuffer[0]);
+    }
+
+    /**
+     * Encodes the bencoded object and writes it to the channel with gathering writes,
+     * until all bytes are written. Non-blocking channels are rejected, because the retried writes would spin
+     * until the channel gets ready, use encode() method and write the buffers as the channel gets ready instead.
+     *
+     * @param bencodedObject object to be written.
+     * @param channel        channel to write to.
+     * @return qty of written bytes.
+     * @throws IOException                  if there's an input/output error occurred.
+     * @throws CircularReferenceException   if there's a circular reference found upon encoding the object.
+     * @throws IllegalArgumentException     if one of the arguments is null.
+     * @throws IllegalBlockingModeException if the channel is a selectable channel in non-blocking mode.
+     */
+    public long write(BencodedObject bencodedObject, GatheringByteChannel channel)
+            throws IOException, CircularReferenceException {
+
+        if (channel == null) {
+            throw new IllegalArgumentException("Null channel is not allowed");
+        }
+
+        BencodeOutputBuffer.checkBlockingMode(channel);
+        final ByteBuffer[] buffers = encode(bencodedObject);
+        long bytesWritten = 0;
+        int index = 0;
+        while (index < buffers.length) {
+            if (!buffers[index].hasRemaining()) {
+                index++;
+                continue;
+            }
+
+            bytesWritten += channel.write(buffers, index, buffers.length - index);
+        }
+
+        return bytesWritten;
+    }
+}
@@ -0,0 +1,440 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reusable output buffer, that collects encoded bytes and passes them to an output stream or a channel
+ * in large chunks. Integers are encoded directly to the buffer, two digits at a time, and byte arrays
+ * are copied in bulk, large ones bypass the buffer.
+ * <p>
+ * In the gathering mode the buffered chunks and large sources are collected to a list of buffers instead,
+ * large sources are not copied.
+ * </p>
+ */
+final class BencodeOutputBuffer {
+
+    /**
+     * Min size of the buffer, that fits any encoded long value.
+     */
+    static final int MIN_BUFFER_SIZE = 32;
+
+    /**
+     * Max qty of characters in the decimal representation of a long value, including minus sign.
+     */
+    private static final int MAX_DECIMAL_LENGTH = 20;
+
+    /**
+     * Max size of the chunk, used to pass buffers, that are not backed by an accessible array, to the output stream.
+     */
+    private static final int MAX_TRANSFER_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * ASCII codes of all two-digit numbers from "00" to "99", two bytes per number.
+     */
+    private static final byte[] DIGIT_PAIRS = new byte[200];
+
+    /**
+     * Powers of ten, indexed by exponent.
+     */
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    /**
+     * Digits of the absolute value of Long.MIN_VALUE, that cannot be negated.
+     */
+    private static final byte[] MIN_LONG_DIGITS = "9223372036854775808".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[i * 2] = (byte) ('0' + i / 10);
+            DIGIT_PAIRS[i * 2 + 1] = (byte) ('0' + i % 10);
+        }
+
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * Output stream to pass bytes to, null if the channel is used.
+     */
+    private final OutputStream os;
+
+    /**
+     * Channel to pass bytes to, null if the output stream is used.
+     */
+    private final WritableByteChannel channel;
+
+    /**
+     * List to collect the buffers to in the gathering mode, null otherwise.
+     */
+    private final List<ByteBuffer> gatheredBuffers;
+
+    /**
+     * The buffer.
+     */
+    private final byte[] buffer;
+
+    /**
+     * View of the buffer, used to write it to the channel.
+     */
+    private final ByteBuffer bufferView;
+
+    /**
+     * Reusable chunk, used to pass large read-only and direct buffers to the output stream,
+     * allocated on the first use.
+     */
+    private byte[] transferChunk;
+
+    /**
+     * Qty of bytes in the buffer.
+     */
+    private int position;
+
+    /**
+     * Channel view of the buffer, see asChannel() method.
+     */
+    private final WritableByteChannel channelView = new WritableByteChannel() {
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            final int length = source.remaining();
+            writeBuffer(source);
+            source.position(source.limit());
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            // the output is not closed by the buffer
+        }
+    };
+
+    /**
+     * Constructs the buffer, that passes bytes to the output stream.
+     *
+     * @param os         output stream instance.
+     * @param bufferSize size of the buffer in bytes.
+     * @throws IllegalArgumentException if os is null, or bufferSize is less than {@link #MIN_BUFFER_SIZE}.
+     */
+    BencodeOutputBuffer(OutputStream os, int bufferSize) {
+        this(os, null, null, bufferSize);
+        if (os == null) {
+            throw new IllegalArgumentException("Null output stream is not allowed");
+        }
+    }
+
+    /**
+     * Constructs the buffer, that passes bytes to the channel.
+     *
+     * @param channel    channel instance.
+     * @param bufferSize size of the buffer in bytes.
+     * @throws IllegalArgumentException if channel is null, or bufferSize is less than {@link #MIN_BUFFER_SIZE}.
+     */
+    BencodeOutputBuffer(WritableByteChannel channel, int bufferSize) {
+        this(null, channel, null, bufferSize);
+        if (channel == null) {
+            throw new IllegalArgumentException("Null channel is not allowed");
+        }
+    }
+
+    /**
+     * Constructs the buffer in the gathering mode. Buffered chunks are copied to the list as separate buffers,
+     * and sources, that are not smaller than the buffer, are added to the list as is.
+     *
+     * @param gatheredBuffers list to collect the buffers to.
+     * @param bufferSize      size of the buffer in bytes.
+     * @throws IllegalArgumentException if bufferSize is less than {@link #MIN_BUFFER_SIZE}.
+     */
+    BencodeOutputBuffer(List<ByteBuffer> gatheredBuffers, int bufferSize) {
+        this(null, null, gatheredBuffers, bufferSize);
+    }
+
+    /**
+     * Constructs the buffer.
+     *
+     * @param os              output stream instance, or null if it's not used.
+     * @param channel         channel instance, or null if it's not used.
+     * @param gatheredBuffers list to collect the buffers to, or null if it's not used.
+     * @param bufferSize      size of the buffer in bytes.
+     * @throws IllegalArgumentException if bufferSize is less than {@link #MIN_BUFFER_SIZE}.
+     */
+    private BencodeOutputBuffer(OutputStream os, WritableByteChannel channel, List<ByteBuffer> gatheredBuffers,
+                                int bufferSize) {
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Incorrect buffer size: " + bufferSize);
+        }
+
+        this.os = os;
+        this.channel = channel;
+        this.gatheredBuffers = gatheredBuffers;
+        this.buffer = new byte[bufferSize];
+        this.bufferView = ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * Writes a byte.
+     *
+     * @param value the byte.
+     * @throws IOException if there's an input/output error occurred.
+     */
+    void writeByte(int value) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Writes decimal digits of the value, prefixed by minus sign for negative values.
+     *
+     * @param value the value.
+     * @throws IOException if there's an input/output error occurred.
+     */
+    void writeDecimal(long value) throws IOException {
+        if (buffer.length - position < MAX_DECIMAL_LENGTH) {
+            drain();
+        }
+
+        position = encodeDecimal(value, buffer, position);
+    }
+
+    /**
+     * Encodes decimal digits of the value to the array, prefixed by minus sign for negative values.
+     *
+     * @param value  the value.
+     * @param target the array, that has at least decimalLength(value) bytes after the offset.
+     * @param offset index of the first encoded byte.
+     * @return index of the byte right after the encoded digits.
+     */
+    static int encodeDecimal(long value, byte[] target, int offset) {
+        if (value < 0) {
+            target[offset++] = '-';
+            if (value == Long.MIN_VALUE) {
+                System.arraycopy(MIN_LONG_DIGITS, 0, target, offset, MIN_LONG_DIGITS.length);
+                return offset + MIN_LONG_DIGITS.length;
+            }
+
+            value = -value;
+        }
+
+        final int end = offset + decimalLength(value);
+        int index = end;
+        while (value >= 100) {
+            final int pairIndex = (int) (value % 100) * 2;
+            value /= 100;
+            target[--index] = DIGIT_PAIRS[pairIndex + 1];
+            target[--index] = DIGIT_PAIRS[pairIndex];
+        }
+
+        if (value >= 10) {
+            target[--index] = DIGIT_PAIRS[(int) value * 2 + 1];
+            target[--index] = DIGIT_PAIRS[(int) value * 2];
+        } else {
+            target[--index] = (byte) ('0' + value);
+        }
+
+        return end;
+    }
+
+    /**
+     * Writes the array region. Regions, that are not smaller than the buffer, are passed directly
+     * to the output stream or channel, or collected without copying in the gathering mode.
+     *
+     * @param bytes  the array.
+     * @param offset start offset in the array.
+     * @param length qty of bytes to write.
+     * @throws IOException if there's an input/output error occurred.
+     */
+    void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+        if (length >= buffer.length) {
+            drain();
+            if (os != null) {
+                os.write(bytes, offset, length);
+            } else if (gatheredBuffers != null) {
+                gatheredBuffers.add(ByteBuffer.wrap(bytes, offset, length).slice().asReadOnlyBuffer());
+            } else {
+                writeFully(ByteBuffer.wrap(bytes, offset, length));
+            }
+
+            return;
+        }
+
+        if (length > buffer.length - position) {
+            drain();
+        }
+
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer, the source buffer position is not changed.
+     * Sources, that are not smaller than the buffer, bypass it: they are passed directly to the channel,
+     * collected in the gathering mode, or passed to the output stream in chunks of up to 1 MB.
+     *
+     * @param source buffer to be written.
+     * @throws IOException if there's an input/output error occurred.
+     */
+    void writeBuffer(ByteBuffer source) throws IOException {
+        if (source.hasArray()) {
+            writeBytes(source.array(), source.arrayOffset() + source.position(), source.remaining());
+            return;
+        }
+
+        final ByteBuffer remainingBytes = source.duplicate();
+        final int length = remainingBytes.remaining();
+        if (length >= buffer.length) {
+            drain();
+            if (os != null) {
+                writeToStream(remainingBytes);
+            } else if (gatheredBuffers != null) {
+                gatheredBuffers.add(remainingBytes.slice());
+            } else {
+                writeFully(remainingBytes);
+            }
+
+            return;
+        }
+
+        if (length > buffer.length - position) {
+            drain();
+        }
+
+        remainingBytes.get(buffer, position, length);
+        position += length;
+    }
+
+    /**
+     * Returns true, if the buffer is in the gathering mode.
+     *
+     * @return see method description above.
+     */
+    boolean isGathering() {
+        return gatheredBuffers != null;
+    }
+
+    /**
+     * Returns the channel view of the buffer, that passes the written bytes to writeBuffer() method.
+     * The source bytes are consumed upon writing, so the view should not be used in the gathering mode,
+     * where large sources are collected without copying.
+     *
+     * @return see method description above.
+     */
+    WritableByteChannel asChannel() {
+        return channelView;
+    }
+
+    /**
+     * Passes the buffered bytes to the output stream, channel or list, and flushes the output stream.
+     *
+     * @throws IOException if there's an input/output error occurred.
+     */
+    void flush() throws IOException {
+        drain();
+        if (os != null) {
+            os.flush();
+        }
+    }
+
+    /**
+     * Passes the buffered bytes to the output stream, channel or list, the output stream is not flushed.
+     *
+     * @throws IOException if there's an input/output error occurred.
+     */
+    void drain() throws IOException {
+        if (position == 0) {
+            return;
+        }
+
+        if (os != null) {
+            os.write(buffer, 0, position);
+        } else if (gatheredBuffers != null) {
+            gatheredBuffers.add(ByteBuffer.wrap(Arrays.copyOf(buffer, position)));
+        } else {
+            bufferView.clear().limit(position);
+            writeFully(bufferView);
+        }
+
+        position = 0;
+    }
+
+    /**
+     * Writes all remaining bytes of the source to the output stream, copying them to the transfer chunk.
+     *
+     * @param source bytes to be written.
+     * @throws IOException if there's an input/output error occurred.
+     */
+    private void writeToStream(ByteBuffer source) throws IOException {
+        final int chunkSize = Math.min(source.remaining(), MAX_TRANSFER_CHUNK_SIZE);
+        if (transferChunk == null || transferChunk.length < chunkSize) {
+            transferChunk = new byte[chunkSize];
+        }
+
+        while (source.hasRemaining()) {
+            final int chunkLength = Math.min(source.remaining(), transferChunk.length);
+            source.get(transferChunk, 0, chunkLength);
+            os.write(transferChunk, 0, chunkLength);
+        }
+    }
+
+    /**
+     * Checks that the channel accepts all bytes of a write call. A non-blocking channel may accept none of them,
+     * and the write would be retried in a busy loop until the channel gets ready.
+     *
+     * @param channel channel to be written to.
+     * @throws IllegalBlockingModeException if the channel is a selectable channel in non-blocking mode.
+     */
+    static void checkBlockingMode(WritableByteChannel channel) {
+        if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking()) {
+            throw new IllegalBlockingModeException();
+        }
+    }
+
+    /**
+     * Writes all remaining bytes of the source to the channel.
+     *
+     * @param source bytes to be written.
+     * @throws IOException                  if there's an input/output error occurred.
+     * @throws IllegalBlockingModeException if the channel is in non-blocking mode.
+     */
+    private void writeFully(ByteBuffer source) throws IOException {
+        checkBlockingMode(channel);
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    /**
+     * Returns the qty of characters in the decimal representation of the value, including minus sign.
+     *
+     * @param value the value.
+     * @return see method description above.
+     */
+    static int decimalLength(long value) {
+        if (value < 0) {
+            // Long.MIN_VALUE cannot be negated, but its absolute value has as many digits as Long.MAX_VALUE
+            return 1 + decimalLength(value == Long.MIN_VALUE ? Long.MAX_VALUE : -value);
+        }
+
+        int length = 1;
+        while (length < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[length]) {
+            length++;
+        }
+
+        return length;
+    }
+}
@@ -0,0 +1,273 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.BencodedDictionary;
+import com.github.cdefgah.bencoder4j.model.BencodedInteger;
+import com.github.cdefgah.bencoder4j.model.BencodedList;
+import com.github.cdefgah.bencoder4j.model.BencodedObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Pull parser, that reads the stream token by token without building bencoded objects.
+ * <p>
+ * The value of the current token is exposed as a primitive long for {@link BencodeToken#INTEGER},
+ * and as the leading bytes of the internal buffer for {@link BencodeToken#BYTES}. The internal buffer is reused,
+ * so its contents are valid only until the next call of next() method. Apart from growing the internal
+ * buffer and the container stack, the parser allocates nothing per token.
+ * </p>
+ * <p>
+ * The depth and byte sequence length limits of the stream reader (see
+ * {@link BencodeStreamReader#setDecodeLimits}) are enforced. Tokens are not retained by the parser,
+ * so the element count and total bytes limits are not applied.
+ * </p>
+ * <p>
+ * Please note that this implementation is not synchronized, and an instance should be used by one thread at a time.
+ * </p>
+ */
+public final class BencodeParser {
+
+    /**
+     * Initial size of the internal byte sequence buffer and container stack.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Container stack state: list.
+     */
+    private static final byte IN_LIST = 0;
+
+    /**
+     * Container stack state: dictionary, the key is expected next.
+     */
+    private static final byte IN_DICTIONARY_KEY = 1;
+
+    /**
+     * Container stack state: dictionary, the value is expected next.
+     */
+    private static final byte IN_DICTIONARY_VALUE = 2;
+
+    /**
+     * Reference to stream reader.
+     */
+    private final BencodeStreamReader bsr;
+
+    /**
+     * States of the open containers.
+     */
+    private byte[] containerStack = new byte[INITIAL_CAPACITY];
+
+    /**
+     * Qty of the open containers.
+     */
+    private int depth;
+
+    /**
+     * Buffer with the current byte sequence.
+     */
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+
+    /**
+     * Length of the current byte sequence.
+     */
+    private int bytesLength;
+
+    /**
+     * Value of the current integer.
+     */
+    private long longValue;
+
+    /**
+     * True, if the current byte sequence is a dictionary key.
+     */
+    private boolean dictionaryKey;
+
+    /**
+     * Constructs the parser, that processes the stream until its end.
+     *
+     * @param is input stream to work on.
+     */
+    public BencodeParser(InputStream is) {
+        this(new BencodeStreamReader(is));
+    }
+
+    /**
+     * Constructs the parser, that processes the stream reader until its end.
+     *
+     * @param bsr reference to bencoder4j stream reader.
+     */
+    public BencodeParser(BencodeStreamReader bsr) {
+        this.bsr = bsr;
+    }
+
+    /**
+     * Returns true, if the next call of next() method will return a token, or fail with format error
+     * because of incomplete data.
+     *
+     * @return see method description above.
+     * @throws IOException if there's an I/O exception occurred.
+     */
+    public boolean hasNext() throws IOException {
+        return depth > 0 || bsr.peek() != -1;
+    }
+
+    /**
+     * Reads the next token from the stream.
+     *
+     * @return the token.
+     * @throws IOException            if there's an input/output error occurred.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    public BencodeToken next() throws IOException, BencodeFormatException {
+        final int objectPrefix = bsr.read();
+        if (objectPrefix == -1) {
+            if (depth == 0) {
+                throw new NoSuchElementException();
+            }
+
+            throw new BencodeFormatException("Unexpected end of the stream");
+        }
+
+        if (objectPrefix == BencodedObject.SERIALIZED_SUFFIX && depth > 0) {
+            if (containerStack[depth - 1] == IN_DICTIONARY_VALUE) {
+                throw new BencodeFormatException(
+                        "Unexpected end of the stream for dictionary. 'Key' object is present, " +
+                                "but 'value' object is not.");
+            }
+
+            depth--;
+            return BencodeToken.END;
+        }
+
+        dictionaryKey = depth > 0 && containerStack[depth - 1] == IN_DICTIONARY_KEY;
+        if (dictionaryKey) {
+            BencodeSyntax.checkDictionaryKeyPrefix(objectPrefix);
+        }
+
+        if (depth > 0 && containerStack[depth - 1] != IN_LIST) {
+            containerStack[depth - 1] = dictionaryKey ? IN_DICTIONARY_VALUE : IN_DICTIONARY_KEY;
+        }
+
+        switch (objectPrefix) {
+            case BencodedInteger.SERIALIZED_PREFIX:
+                longValue = bsr.readLong(BencodedObject.SERIALIZED_SUFFIX);
+                return BencodeToken.INTEGER;
+
+            case BencodedList.SERIALIZED_PREFIX:
+                pushContainer(IN_LIST);
+                return BencodeToken.START_LIST;
+
+            case BencodedDictionary.SERIALIZED_PREFIX:
+                pushContainer(IN_DICTIONARY_KEY);
+                return BencodeToken.START_DICT;
+
+            default:
+                if (BencodeSyntax.isDigit(objectPrefix)) {
+                    bsr.unread(objectPrefix);
+                    readBytes();
+                    return BencodeToken.BYTES;
+                }
+
+                throw new BencodeFormatException("Unexpected character in the stream: " + (char) objectPrefix);
+        }
+    }
+
+    /**
+     * Returns the qty of the open lists and dictionaries.
+     *
+     * @return see method description above.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the value of the current {@link BencodeToken#INTEGER} token.
+     *
+     * @return see method description above.
+     */
+    public long getLongValue() {
+        return longValue;
+    }
+
+    /**
+     * Returns the internal buffer with the current {@link BencodeToken#BYTES} token value.
+     * The value is copied from the stream to the start of the buffer, so it occupies the first
+     * getBytesLength() bytes. The buffer is reused, its contents are valid until the next call of next() method.
+     *
+     * @return see method description above.
+     * @see #getBytesLength()
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the length of the current byte sequence.
+     *
+     * @return see method description above.
+     */
+    public int getBytesLength() {
+        return bytesLength;
+    }
+
+    /**
+     * Returns true, if the current {@link BencodeToken#BYTES} token is a dictionary key.
+     *
+     * @return see method description above.
+     */
+    public boolean isDictionaryKey() {
+        return dictionaryKey;
+    }
+
+    /**
+     * Pushes the container state to the stack.
+     *
+     * @param state state of the new container.
+     * @throws BencodeFormatException if the depth limit is exceeded.
+     */
+    private void pushContainer(byte state) throws BencodeFormatException {
+        final int maxDepth = bsr.getDecodeLimits().getMaxDepth();
+        if (depth == maxDepth) {
+            throw new BencodeFormatException("Nesting depth exceeds the limit: " + maxDepth);
+        }
+
+        if (depth == containerStack.length) {
+            final byte[] grownStack = new byte[containerStack.length * 2];
+            System.arraycopy(containerStack, 0, grownStack, 0, depth);
+            containerStack = grownStack;
+        }
+
+        containerStack[depth++] = state;
+    }
+
+    /**
+     * Reads the byte sequence to the internal buffer, the current position is the one of the first length digit.
+     *
+     * @throws IOException            if there's an input/output error occurred.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private void readBytes() throws IOException, BencodeFormatException {
+        bytesLength = bsr.readLength(':');
+        bsr.checkByteSequenceLength(bytesLength);
+
+        int bytesRead = 0;
+        while (bytesRead < bytesLength) {
+            if (bytesRead == bytes.length) {
+                // growing the buffer as the bytes arrive, not trusting the length claimed by the header
+                bytes = Arrays.copyOf(bytes, (int) Math.min(bytesLength, bytes.length * 2L));
+            }
+
+            final int chunkLength = bsr.readByteSequence(bytes, bytesRead,
+                    Math.min(bytesLength, bytes.length) - bytesRead);
+            if (chunkLength == -1) {
+                throw new BencodeFormatException("Unexpected end of the byte sequence stream");
+            }
+
+            bytesRead += chunkLength;
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Compiled query, that extracts values by their paths from a bencoded object in the stream.
+ * Only the matching values are built, everything else is validated and skipped without building it.
+ * <p>
+ * Path consists of dictionary keys, separated by dots, and list indexes in square brackets,
+ * where [*] matches every list element. For example:
+ * </p>
+ * <pre>
+ *     BencodePathQuery query = BencodePathQuery.compile("info.name", "info.piece length", "info.files[*].length");
+ *     Map&lt;String, List&lt;BencodedObject&gt;&gt; values = query.execute(inputStream);
+ * </pre>
+ * Dictionary keys containing dots or square brackets cannot be used in paths.
+ * <p>
+ * The decode limits of the stream reader (see {@link BencodeStreamReader#setDecodeLimits}) are enforced
+ * over the whole object, both for the walked containers and for the built and skipped values.
+ * </p>
+ * <p>
+ * Compiled query is immutable, so it can be shared between threads.
+ * </p>
+ */
+public final class BencodePathQuery {
+
+    /**
+     * Query paths in the order they have been provided.
+     */
+    private final List<String> paths;
+
+    /**
+     * Root node of the path tree.
+     */
+    private final PathNode root = new PathNode();
+
+    /**
+     * Constructs the query, use compile() method to get the instance.
+     *
+     * @param paths query paths.
+     */
+    private BencodePathQuery(String[] paths) {
+        this.paths = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(Arrays.asList(paths))));
+        for (String path : this.paths) {
+            addPath(path);
+        }
+    }
+
+    /**
+     * Compiles the query.
+     *
+     * @param paths query paths, for example "info.files[*].length".
+     * @return compiled query.
+     * @throws IllegalArgumentException if no paths are provided, or a path is incorrect.
+     */
+    public static BencodePathQuery compile(String... paths) {
+        if (paths == null || paths.length == 0) {
+            throw new IllegalArgumentException("At least one path should be provided");
+        }
+
+        return new BencodePathQuery(paths);
+    }
+
+    /**
+     * Returns the query paths.
+     *
+     * @return see method description above.
+     */
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * Executes the query against the first bencoded object in the stream.
+     *
+     * @param is input stream to work on.
+     * @return map from every query path to the list of matching values in the stream order,
+     * the list is empty if there are no matching values.
+     * @throws IOException            if there's an input/output error occurred.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    public Map<String, List<BencodedObject>> execute(InputStream is) throws IOException, BencodeFormatException {
+        return execute(new BencodeStreamReader(is));
+    }
+
+    /**
+     * Executes the query against the next bencoded object in the stream reader,
+     * the reader is moved right after this object.
+     *
+     * @param bsr reference to bencoder4j stream reader.
+     * @return map from every query path to the list of matching values in the stream order,
+     * the list is empty if there are no matching values.
+     * @throws IOException            if there's an input/output error occurred.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    public Map<String, List<BencodedObject>> execute(BencodeStreamReader bsr)
+            throws IOException, BencodeFormatException {
+
+        final Map<String, List<BencodedObject>> results = new LinkedHashMap<>();
+        for (String path : paths) {
+            results.put(path, new ArrayList<>());
+        }
+
+        evaluate(bsr, Collections.singletonList(root), results);
+        return results;
+    }
+
+    /**
+     * Parses the path and adds it to the path tree.
+     *
+     * @param path path to add.
+     * @throws IllegalArgumentException if the path is incorrect.
+     */
+    private void addPath(String path) {
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("Incorrect path: " + path);
+        }
+
+        PathNode node = root;
+        int index = 0;
+        while (index < path.length()) {
+            if (path.charAt(index) == '[') {
+                final int closingIndex = path.indexOf(']', index);
+                if (closingIndex < 0) {
+                    throw new IllegalArgumentException("Incorrect path: " + path);
+                }
+
+                node = node.addIndexChild(path.substring(index + 1, closingIndex), path);
+                index = closingIndex + 1;
+            } else {
+                if (index > 0) {
+                    if (path.charAt(index) != '.') {
+                        throw new IllegalArgumentException("Incorrect path: " + path);
+                    }
+
+                    index++;
+                }
+
+                int keyEnd = index;
+                while (keyEnd < path.length() && path.charAt(keyEnd) != '.' && path.charAt(keyEnd) != '[') {
+                    keyEnd++;
+                }
+
+                if (keyEnd == index) {
+                    throw new IllegalArgumentException("Incorrect path: " + path);
+                }
+
+                node = node.addKeyChild(path.substring(index, keyEnd));
+                index = keyEnd;
+            }
+        }
+
+        node.paths.add(path);
+    }
+
+    /**
+     * Evaluates the next object in the stream against the path tree nodes.
+     *
+     * @param bsr     reference to bencoder4j stream reader.
+     * @param nodes   path tree nodes, matching the position of the object.
+     * @param results query results.
+     * @throws IOException            if there's an input/output error occurred.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private static void evaluate(BencodeStreamReader bsr, List<PathNode> nodes,
+                                 Map<String, List<BencodedObject>> results)
+            throws IOException, BencodeFormatException {
+
+        for (PathNode node : nodes) {
+            if (!node.paths.isEmpty()) {
+                // the object itself is requested, so it is built, and nested paths are resolved in memory
+                final BencodedObject bencodedObject = new BencodeStreamIterator(bsr).next();
+                for (PathNode matchingNode : nodes) {
+                    collect(matchingNode, bencodedObject, results);
+                }
+
+                return;
+            }
+        }
+
+        final int objectPrefix = bsr.peek();
+        if (objectPrefix == BencodedDictionary.SERIALIZED_PREFIX && hasKeyChildren(nodes)) {
+            evaluateDictionary(bsr, nodes, results);
+        } else if (objectPrefix == BencodedList.SERIALIZED_PREFIX && hasIndexChildren(nodes)) {
+            evaluateList(bsr, nodes, results);
+        } else {
+            bsr.skipValue();
+        }
+    }
+
+    /**
+     * Evaluates dictionary entries, the current stream position is the one of the dictionary prefix.
+     *
+     * @param bsr     reference to bencoder4j stream reader.
+     * @param nodes   path tree nodes, matching the position of the dictionary.
+     * @param results query results.
+     * @throws IOException            if there's an input/output error occurred.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private static void evaluateDictionary(BencodeStreamReader bsr, List<PathNode> nodes,
+                                           Map<String, List<BencodedObject>> results)
+            throws IOException, BencodeFormatException {
+
+        startContainer(bsr);
+        try {
+            while (!isContainerEndReached(bsr)) {
+                BencodeSyntax.checkDictionaryKeyPrefix(bsr.peek());
+                bsr.startObject();
+                final BencodedByteSequence key = new BencodedByteSequence(bsr);
+
+                if (bsr.peek() == BencodedObject.SERIALIZED_SUFFIX) {
+                    throw new BencodeFormatException(
+                            "Unexpected end of the stream for dictionary. 'Key' object is present, " +
+                                    "but 'value' object is not.");
+                }
+
+                final List<PathNode> matchingNodes = new ArrayList<>(1);
+                for (PathNode node : nodes) {
+                    final PathNode child = node.keyChildren.get(key);
+                    if (child != null) {
+                        matchingNodes.add(child);
+                    }
+                }
+
+                evaluateMatching(bsr, matchingNodes, results);
+            }
+        } finally {
+            bsr.exitContainer();
+        }
+    }
+
+    /**
+     * Evaluates list elements, the current stream position is the one of the list prefix.
+     *
+     * @param bsr     reference to bencoder4j stream reader.
+     * @param nodes   path tree nodes, matching the position of the list.
+     * @param results query results.
+     * @throws IOException            if there's an input/output error occurred.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private static void evaluateList(BencodeStreamReader bsr, List<PathNode> nodes,
+                                     Map<String, List<BencodedObject>> results)
+            throws IOException, BencodeFormatException {
+
+        startContainer(bsr);
+        try {
+            int elementIndex = 0;
+            while (!isContainerEndReached(bsr)) {
+                final List<PathNode> matchingNodes = new ArrayList<>(2);
+                for (PathNode node : nodes) {
+                    if (node.anyIndexChild != null) {
+                        matchingNodes.add(node.anyIndexChild);
+                    }
+
+                    final PathNode child = node.indexChildren.get(elementIndex);
+                    if (child != null) {
+                        matchingNodes.add(child);
+                    }
+                }
+
+                evaluateMatching(bsr, matchingNodes, results);
+                elementIndex++;
+            }
+        } finally {
+            bsr.exitContainer();
+        }
+    }
+
+    /**
+     * Evaluates the next object in the stream, or skips it if there are no matching path tree nodes.
+     *
+     * @param bsr           reference to bencoder4j stream reader.
+     * @param matchingNodes path tree nodes, matching the position of the object.
+     * @param results       query results.
+     * @throws IOException            if there's an input/output error occurred.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private static void evaluateMatching(BencodeStreamReader bsr, List<PathNode> matchingNodes,
+                                         Map<String, List<BencodedObject>> results)
+            throws IOException, BencodeFormatException {
+
+        if (matchingNodes.isEmpty()) {
+            bsr.skipValue();
+        } else {
+            evaluate(bsr, matchingNodes, results);
+        }
+    }
+
+    /**
+     * Adds the built object and its nested values to the results, according to the path tree node.
+     *
+     * @param node           path tree node, matching the object.
+     * @param bencodedObject built object.
+     * @param results        query results.
+     */
+    private static void collect(PathNode node, BencodedObject bencodedObject,
+                                Map<String, List<BencodedObject>> results) {
+
+        for (String path : node.paths) {
+            results.get(path).add(bencodedObject);
+        }
+
+        if (bencodedObject instanceof BencodedDictionary) {
+            final BencodedDictionary dictionary = (BencodedDictionary) bencodedObject;
+            for (Map.Entry<BencodedByteSequence, PathNode> keyChild : node.keyChildren.entrySet()) {
+                final BencodedObject value = dictionary.get(keyChild.getKey());
+                if (value != null) {
+                    collect(keyChild.getValue(), value, results);
+                }
+            }
+        } else if (bencodedObject instanceof BencodedList) {
+            final BencodedList list = (BencodedList) bencodedObject;
+            for (int i = 0; i < list.size(); i++) {
+                if (node.anyIndexChild != null) {
+                    collect(node.anyIndexChild, list.get(i), results);
+                }
+
+                final PathNode child = node.indexChildren.get(i);
+                if (child != null) {
+                    collect(child, list.get(i), results);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the list or dictionary against the decode limits of the stream reader, and consumes its prefix.
+     * The caller should call exitContainer() method of the reader once the container is evaluated.
+     *
+     * @param bsr reference to bencoder4j stream reader.
+     * @throws IOException            if there's an input/output error occurred.
+     * @throws BencodeFormatException if the element count or depth limit is exceeded.
+     */
+    private static void startContainer(BencodeStreamReader bsr) throws IOException, BencodeFormatException {
+        bsr.startObject();
+        bsr.enterContainer();
+        bsr.read();
+    }
+
+    /**
+     * Checks whether the list or dictionary suffix is reached, and consumes it if so.
+     *
+     * @param bsr reference to bencoder4j stream reader.
+     * @return true, if the suffix has been reached.
+     * @throws IOException            if there's an input/output error occurred.
+     * @throws BencodeFormatException if the end of the stream is reached before the suffix.
+     */
+    private static boolean isContainerEndReached(BencodeStreamReader bsr) throws IOException, BencodeFormatException {
+        final int streamByte = bsr.peek();
+        if (streamByte == -1) {
+            throw new BencodeFormatException("Unexpected end of the stream");
+        }
+
+        if (streamByte == BencodedObject.SERIALIZED_SUFFIX) {
+            bsr.read();
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns true, if one of the nodes has dictionary key children.
+     *
+     * @param nodes path tree nodes.
+     * @return see method description above.
+     */
+    private static boolean hasKeyChildren(List<PathNode> nodes) {
+        for (PathNode node : nodes) {
+            if (!node.keyChildren.isEmpty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns true, if one of the nodes has list index children.
+     *
+     * @param nodes path tree nodes.
+     * @return see method description above.
+     */
+    private static boolean hasIndexChildren(List<PathNode> nodes) {
+        for (PathNode node : nodes) {
+            if (node.anyIndexChild != null || !node.indexChildren.isEmpty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Node of the path tree, it is modified only upon query compilation.
+     */
+    private static final class PathNode {
+
+        /**
+         * Children, matching dictionary values by their keys.
+         */
+        private final Map<BencodedByteSequence, PathNode> keyChildren = new HashMap<>();
+
+        /**
+         * Children, matching list elements by their indexes.
+         */
+        private final Map<Integer, PathNode> indexChildren = new HashMap<>();
+
+        /**
+         * Child, matching every list element, or null if there's no such one.
+         */
+        private PathNode anyIndexChild;
+
+        /**
+         * Query paths, ending at this node.
+         */
+        private final List<String> paths = new ArrayList<>(1);
+
+        /**
+         * Returns the child for the dictionary key, creating it if needed.
+         *
+         * @param key dictionary key.
+         * @return see method description above.
+         */
+        private PathNode addKeyChild(String key) {
+            final BencodedByteSequence keyObject = new BencodedByteSequence(key);
+            PathNode child = keyChildren.get(keyObject);
+            if (child == null) {
+                child = new PathNode();
+                keyChildren.put(keyObject, child);
+            }
+
+            return child;
+        }
+
+        /**
+         * Returns the child for the list index, creating it if needed.
+         *
+         * @param index list index or '*' for every element.
+         * @param path  the whole path, used in the exception message.
+         * @return see method description above.
+         * @throws IllegalArgumentException if the index is incorrect.
+         */
+        private PathNode addIndexChild(String index, String path) {
+            if ("*".equals(index)) {
+                if (anyIndexChild == null) {
+                    anyIndexChild = new PathNode();
+                }
+
+                return anyIndexChild;
+            }
+
+            final int indexValue;
+            try {
+                indexValue = Integer.parseInt(index);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Incorrect path: " + path, e);
+            }
+
+            if (indexValue < 0 || index.charAt(0) == '+') {
+                throw new IllegalArgumentException("Incorrect path: " + path);
+            }
+
+            PathNode child = indexChildren.get(indexValue);
+            if (child == null) {
+                child = new PathNode();
+                indexChildren.put(indexValue, child);
+            }
+
+            return child;
+        }
+    }
+}
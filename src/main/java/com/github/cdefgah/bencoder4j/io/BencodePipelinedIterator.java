@@ -0,0 +1,264 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.BencodedObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+import java.util.concurrent.*;
+
+/**
+ * Iterator over the stream of concatenated top-level bencoded objects, that decodes them concurrently.
+ * <p>
+ * A dedicated framing thread reads the stream, validates each object and captures its raw bytes without
+ * building it, then the captured objects are decoded by the provided executor. Decoded objects are delivered
+ * either in the stream order, or in the order of decoding completion. The qty of framed objects, that are not
+ * taken by next() method yet, is limited by the capacity, so the framing thread waits when the consumer
+ * falls behind.
+ * </p>
+ * <p>
+ * If a bencoding format error is found by the framing thread, all objects before it are delivered,
+ * and then next() method throws the exception. The iterator should be closed to stop the framing thread
+ * before the end of the stream is reached. Please note that this implementation is not synchronized,
+ * and an instance should be used by one consumer thread at a time.
+ * </p>
+ */
+public final class BencodePipelinedIterator implements AutoCloseable {
+
+    /**
+     * Reference to stream reader, used by the framing thread only.
+     */
+    private final BencodeStreamReader bsr;
+
+    /**
+     * Executor to decode framed objects.
+     */
+    private final Executor executor;
+
+    /**
+     * Max qty of framed objects, that are not taken by the consumer yet.
+     */
+    private final int capacity;
+
+    /**
+     * True, if objects are delivered in the stream order, false if in the order of decoding completion.
+     */
+    private final boolean ordered;
+
+    /**
+     * Permits to frame objects, one per object, returned when the object is taken by the consumer.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Results to be taken by the consumer, the last one is either end of the stream marker or the failure.
+     */
+    private final BlockingQueue<Future<BencodedObject>> results = new LinkedBlockingQueue<>();
+
+    /**
+     * End of the stream marker.
+     */
+    private final Future<BencodedObject> endOfStream = CompletableFuture.completedFuture(null);
+
+    /**
+     * Framing thread.
+     */
+    private final Thread framingThread;
+
+    /**
+     * The next result to be taken, or null if it is not received from the queue yet.
+     */
+    private Future<BencodedObject> nextResult;
+
+    /**
+     * Constructs the iterator and starts the framing thread.
+     *
+     * @param is       input stream to work on.
+     * @param executor executor to decode objects, for example {@link ForkJoinPool#commonPool()},
+     *                 it is not shut down by the iterator.
+     * @param capacity max qty of framed objects, that are not taken by next() method yet.
+     * @param ordered  true to deliver objects in the stream order, false to deliver them
+     *                 as soon as they are decoded.
+     * @throws IllegalArgumentException if stream or executor is null, or capacity is not positive.
+     */
+    public BencodePipelinedIterator(InputStream is, Executor executor, int capacity, boolean ordered) {
+        if (is == null || executor == null) {
+            throw new IllegalArgumentException(
+                    "Null argument is not allowed for BencodePipelinedIterator constructor");
+        }
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Incorrect capacity: " + capacity);
+        }
+
+        this.bsr = new BencodeStreamReader(is);
+        this.executor = executor;
+        this.capacity = capacity;
+        this.ordered = ordered;
+        this.permits = new Semaphore(capacity);
+
+        this.framingThread = new Thread(this::frameObjects, "bencode-framing");
+        this.framingThread.setDaemon(true);
+        this.framingThread.start();
+    }
+
+    /**
+     * Returns true, if the next call of next() method will return an object, or fail with an exception.
+     * Waits until the next object is framed and, in unordered mode, decoded.
+     *
+     * @return see method description above.
+     * @throws InterruptedIOException if the current thread is interrupted while waiting.
+     */
+    public boolean hasNext() throws InterruptedIOException {
+        if (nextResult == null) {
+            try {
+                nextResult = results.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the next object");
+            }
+        }
+
+        return nextResult != endOfStream;
+    }
+
+    /**
+     * Gets the next decoded object.
+     *
+     * @return bencoded object from the stream.
+     * @throws IOException            if there's an input/output error occurred.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    public BencodedObject next() throws IOException, BencodeFormatException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final BencodedObject bencodedObject;
+        try {
+            bencodedObject = nextResult.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the next object");
+        } catch (ExecutionException e) {
+            // the failure stays at the head, so it is thrown by all subsequent calls
+            throw rethrow(e.getCause());
+        }
+
+        nextResult = null;
+        permits.release();
+        return bencodedObject;
+    }
+
+    /**
+     * Stops the framing thread. Objects, that are being decoded, are not cancelled.
+     * The framing thread cannot be stopped while it is blocked reading the stream,
+     * so it is stopped after the stream read returns. The end of the stream is posted right away,
+     * so the consumer, that waits in hasNext() method, is woken up and gets false once the objects,
+     * that are framed already, are taken.
+     */
+    @Override
+    public void close() {
+        framingThread.interrupt();
+        results.add(endOfStream);
+    }
+
+    /**
+     * Frames objects until the end of the stream, the first error, or interruption.
+     * Runs on the framing thread.
+     */
+    private void frameObjects() {
+        Throwable failure = null;
+        boolean permitAcquired = false;
+
+        try {
+            while (bsr.peek() != -1) {
+                permits.acquire();
+                permitAcquired = true;
+
+                bsr.startCapture();
+                bsr.skipValue();
+                submit(bsr.stopCapture());
+                permitAcquired = false;
+            }
+        } catch (InterruptedException e) {
+            return;
+        } catch (Throwable e) {
+            // errors are delivered too, otherwise the consumer would wait for the next object forever
+            failure = e;
+        }
+
+        if (permitAcquired) {
+            permits.release();
+        }
+
+        try {
+            // waiting until all delivered objects are taken, so the failure is the last one in unordered mode too
+            permits.acquire(capacity);
+        } catch (InterruptedException e) {
+            return;
+        }
+
+        if (failure == null) {
+            results.add(endOfStream);
+        } else {
+            final CompletableFuture<BencodedObject> failedResult = new CompletableFuture<>();
+            failedResult.completeExceptionally(failure);
+            results.add(failedResult);
+        }
+    }
+
+    /**
+     * Submits decoding of the framed object to the executor.
+     *
+     * @param encodedObject raw bytes of the framed object.
+     */
+    private void submit(byte[] encodedObject) {
+        final Callable<BencodedObject> decoding = () ->
+                new BencodeBufferDecoder(ByteBuffer.wrap(encodedObject)).next();
+
+        if (ordered) {
+            final FutureTask<BencodedObject> decodingTask = new FutureTask<>(decoding);
+            executor.execute(decodingTask);
+            results.add(decodingTask);
+        } else {
+            executor.execute(new FutureTask<BencodedObject>(decoding) {
+                @Override
+                protected void done() {
+                    results.add(this);
+                }
+            });
+        }
+    }
+
+    /**
+     * Converts the decoding failure to the exception to be thrown.
+     *
+     * @param failure decoding failure.
+     * @return exception to be thrown, unchecked exceptions are thrown right away.
+     * @throws IOException            if the failure is an input/output error.
+     * @throws BencodeFormatException if the failure is a bencoding format error.
+     */
+    private static RuntimeException rethrow(Throwable failure) throws IOException, BencodeFormatException {
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+
+        if (failure instanceof BencodeFormatException) {
+            throw (BencodeFormatException) failure;
+        }
+
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+
+        if (failure instanceof RuntimeException) {
+            return (RuntimeException) failure;
+        }
+
+        return new IllegalStateException("Object decoding failed", failure);
+    }
+}
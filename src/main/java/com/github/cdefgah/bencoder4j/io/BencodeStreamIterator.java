@@ -2,6 +2,7 @@ package com.github.cdefgah.bencoder4j.io;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 
 import com.github.cdefgah.bencoder4j.BencodeFormatException;
@@ -13,6 +14,11 @@ import com.github.cdefgah.bencoder4j.model.*;
  */
 public class BencodeStreamIterator {
 
+    /**
+     * Initial capacity of the container stack.
+     */
+    private static final int INITIAL_STACK_CAPACITY = 16;
+
     /**
      * Reference to stream reader.
      */
@@ -27,6 +33,16 @@ public class BencodeStreamIterator {
      */
     private final boolean isLocalMode;
 
+    /**
+     * Stack of the lists and dictionaries being built, reused between next() method calls.
+     */
+    private BencodedObject[] containers = new BencodedObject[INITIAL_STACK_CAPACITY];
+
+    /**
+     * Dictionary keys, that are waiting for their values, indexed the same way as the containers.
+     */
+    private BencodedByteSequence[] pendingKeys = new BencodedByteSequence[INITIAL_STACK_CAPACITY];
+
     /**
      * Constructs global iterator, that processes the stream until its end.
      *
@@ -37,6 +53,18 @@ public class BencodeStreamIterator {
         this.isLocalMode = false;
     }
 
+    /**
+     * Constructs global iterator, that processes the stream until its end, enforcing the decode limits.
+     *
+     * @param is           input stream to work on.
+     * @param decodeLimits limits to be enforced upon decoding.
+     * @throws IllegalArgumentException if decodeLimits is null.
+     */
+    public BencodeStreamIterator(InputStream is, DecodeLimits decodeLimits) {
+        this(is);
+        this.bsr.setDecodeLimits(decodeLimits);
+    }
+
     /**
      * Constructs local iterator, that processes stream to read elements of List/Dictionary object.
      *
@@ -56,14 +84,29 @@ public class BencodeStreamIterator {
      * @throws IOException if there's an I/O exception occurred.
      */
     public boolean hasNext() throws IOException {
-        final int streamByte = bsr.read();
-        bsr.unread(streamByte);
+        final int streamByte = bsr.peek();
 
-        return isLocalMode ? ((char) streamByte != BencodedObject.SERIALIZED_SUFFIX) : ((byte) streamByte != -1);
+        return isLocalMode ? ((char) streamByte != BencodedObject.SERIALIZED_SUFFIX) : (streamByte != -1);
     }
 
     /**
-     * Gets the next bencoded object from the stream.
+     * Skips the next bencoded object in the stream without building it, its structure is still validated.
+     *
+     * @throws IOException            if there's an input/output error occurred.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    public void skip() throws IOException, BencodeFormatException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        bsr.skipValue();
+    }
+
+    /**
+     * Gets the next bencoded object from the stream. Nested lists and dictionaries are built iteratively
+     * with the container stack of the iterator, that is reused between calls, so the nesting depth is
+     * not limited by the thread stack size, and nothing is allocated per container except the container itself.
      *
      * @return bencoded object from the stream.
      * @throws IOException            if there's an input/output error occurred.
@@ -75,37 +118,109 @@ public class BencodeStreamIterator {
             throw new NoSuchElementException();
         }
 
-        final int objectPrefix = bsr.read();
-        bsr.unread(objectPrefix);
-
-        if ((byte) objectPrefix == -1) {
-            throw new BencodeFormatException("Unexpected end of the stream");
-        }
+        int depth = 0;
+        try {
+            while (true) {
+                final int objectPrefix = bsr.peek();
+                BencodedObject bencodedObject;
+
+                if (depth > 0 && objectPrefix == BencodedObject.SERIALIZED_SUFFIX) {
+                    if (pendingKeys[depth - 1] != null) {
+                        throw new BencodeFormatException(
+                                "Unexpected end of the stream for dictionary. 'Key' object is present, " +
+                                        "but 'value' object is not.");
+                    }
+
+                    // reading suffix
+                    bsr.read();
+                    bsr.exitContainer();
+                    bencodedObject = containers[--depth];
+                    containers[depth] = null;
+                } else {
+                    if (objectPrefix == -1) {
+                        throw new BencodeFormatException("Unexpected end of the stream");
+                    }
+
+                    if (depth > 0 && containers[depth - 1] instanceof BencodedDictionary
+                            && pendingKeys[depth - 1] == null) {
+                        BencodeSyntax.checkDictionaryKeyPrefix(objectPrefix);
+                    }
+
+                    bsr.startObject();
+                    switch (objectPrefix) {
+                        case BencodedInteger.SERIALIZED_PREFIX:
+                            bencodedObject = new BencodedInteger(bsr);
+                            break;
+
+                        case BencodedList.SERIALIZED_PREFIX:
+                        case BencodedDictionary.SERIALIZED_PREFIX:
+                            bsr.enterContainer();
+                            bsr.read();
+                            pushContainer(depth++, objectPrefix == BencodedList.SERIALIZED_PREFIX ?
+                                    new BencodedList() : new BencodedDictionary());
+                            continue;
+
+                        default:
+                            if (Character.isDigit(objectPrefix)) {
+                                bencodedObject = new BencodedByteSequence(bsr);
+                            } else {
+                                throw new BencodeFormatException(
+                                        "Unexpected character in the stream: " + (char) objectPrefix);
+                            }
+
+                            break;
+                    }
+                }
 
-        BencodedObject bencodedObject;
-        switch (objectPrefix) {
-            case BencodedInteger.SERIALIZED_PREFIX:
-                bencodedObject = new BencodedInteger(bsr);
-                break;
+                if (depth == 0) {
+                    return bencodedObject;
+                }
 
-            case BencodedList.SERIALIZED_PREFIX:
-                bencodedObject = new BencodedList(bsr);
-                break;
+                addToContainer(depth - 1, bencodedObject);
+            }
+        } finally {
+            // releasing the containers left by a format error
+            while (depth > 0) {
+                depth--;
+                containers[depth] = null;
+                pendingKeys[depth] = null;
+                bsr.exitContainer();
+            }
+        }
+    }
 
-            case BencodedDictionary.SERIALIZED_PREFIX:
-                bencodedObject = new BencodedDictionary(bsr);
-                break;
+    /**
+     * Pushes the container to the stack, growing the stack if needed.
+     *
+     * @param index     stack index of the container.
+     * @param container list or dictionary to be pushed.
+     */
+    private void pushContainer(int index, BencodedObject container) {
+        if (index == containers.length) {
+            containers = Arrays.copyOf(containers, containers.length * 2);
+            pendingKeys = Arrays.copyOf(pendingKeys, pendingKeys.length * 2);
+        }
 
-            default:
-                if (Character.isDigit(objectPrefix)) {
-                    bencodedObject = new BencodedByteSequence(bsr);
-                } else {
-                    throw new BencodeFormatException("Unexpected character in the stream: " + (char) objectPrefix);
-                }
+        containers[index] = container;
+    }
 
-                break;
+    /**
+     * Adds the completed object to the container: either as a list element, or as a dictionary key,
+     * or as a dictionary value for the pending key.
+     *
+     * @param index          stack index of the container.
+     * @param bencodedObject completed object.
+     */
+    private void addToContainer(int index, BencodedObject bencodedObject) {
+        final BencodedObject container = containers[index];
+        if (container instanceof BencodedList) {
+            ((BencodedList) container).add(bencodedObject);
+        } else if (pendingKeys[index] == null) {
+            // the key prefix has been checked, so the object is a byte sequence
+            pendingKeys[index] = (BencodedByteSequence) bencodedObject;
+        } else {
+            ((BencodedDictionary) container).put(pendingKeys[index], bencodedObject);
+            pendingKeys[index] = null;
         }
-
-        return bencodedObject;
     }
-}
\ No newline at end of file
+}
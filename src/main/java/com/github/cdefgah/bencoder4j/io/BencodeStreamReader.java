@@ -1,28 +1,187 @@
 package com.github.cdefgah.bencoder4j.io;
 
 import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.BencodedDictionary;
+import com.github.cdefgah.bencoder4j.model.BencodedInteger;
+import com.github.cdefgah.bencoder4j.model.BencodedList;
+import com.github.cdefgah.bencoder4j.model.BencodedObject;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Helper class to read input stream to get bencoded objects from it.
+ * <p>
+ * The reader keeps its own internal byte buffer and refills it from the underlying stream in bulk,
+ * so the bytes are taken from the stream in chunks, not one by one. As a consequence, the underlying
+ * stream is usually read ahead of the last consumed bencoded object.
+ * </p>
+ * <p>
+ * The reader is a single-owner object: it holds no locks and uses no synchronized methods or streams on the
+ * per-byte path, so it does not pin carrier threads when used on virtual threads. The underlying stream is
+ * accessed only upon buffer refills, so wrapping it in a {@link java.io.BufferedInputStream}, which methods
+ * are synchronized, is not needed. An instance should be used by one thread at a time.
+ * </p>
  */
 public final class BencodeStreamReader {
 
+    /**
+     * Default size of the internal buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /**
+     * Max size of the chunk, used to read large byte sequence bodies.
+     */
+    private static final int MAX_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * State of the skipped list, that expects the next element or the suffix.
+     */
+    private static final byte SKIPPING_LIST_ELEMENT = 0;
+
+    /**
+     * State of the skipped dictionary, that expects the next key or the suffix.
+     */
+    private static final byte SKIPPING_DICTIONARY_KEY = 1;
+
+    /**
+     * State of the skipped dictionary, that expects the value of the skipped key.
+     */
+    private static final byte SKIPPING_DICTIONARY_VALUE = 2;
+
+    /**
+     * Initial capacity of the skipped containers stack.
+     */
+    private static final int INITIAL_SKIP_STACK_CAPACITY = 16;
+
     /**
      * Reference to the input stream.
      */
-    private final PushbackInputStream is;
+    private final InputStream is;
 
     /**
-     * Constructs the reader class instance.
+     * Internal buffer with bytes, read from the stream, but not consumed yet.
+     */
+    private byte[] buffer;
+
+    /**
+     * Little-endian view of the internal buffer, used to scan it 8 bytes at a time.
+     */
+    private ByteBuffer bufferView;
+
+    /**
+     * Index of the next byte to be consumed from the buffer.
+     */
+    private int position;
+
+    /**
+     * Index of the first byte after the valid buffer contents.
+     */
+    private int limit;
+
+    /**
+     * Accumulator of the integers and byte sequence lengths, that cannot be processed in bulk.
+     */
+    private final BencodeSyntax.DecimalAccumulator decimal = new BencodeSyntax.DecimalAccumulator();
+
+    /**
+     * Message digests, that are fed with the consumed bytes, or null if digesting is not started.
+     */
+    private MessageDigest[] digests;
+
+    /**
+     * Captured bytes, or null if capturing is not started.
+     */
+    private byte[] capture;
+
+    /**
+     * Qty of captured bytes.
+     */
+    private int captureLength;
+
+    /**
+     * Index of the first buffered byte, that is consumed but not passed to the digests and capture yet.
+     */
+    private int tapStart;
+
+    /**
+     * Limits, enforced upon decoding.
+     */
+    private DecodeLimits decodeLimits = DecodeLimits.UNLIMITED;
+
+    /**
+     * Qty of lists and dictionaries, that are being decoded or skipped now.
+     */
+    private int depth;
+
+    /**
+     * Qty of objects, started in the current top-level object.
+     */
+    private long elementCount;
+
+    /**
+     * Total length of byte sequences, read by readBytes() method in the current top-level object.
+     */
+    private long retainedBytes;
+
+    /**
+     * States of the lists and dictionaries, that are being skipped by skipValue() method, innermost last.
+     */
+    private byte[] skipStates = new byte[INITIAL_SKIP_STACK_CAPACITY];
+
+    /**
+     * Constructs the reader class instance with the default buffer size.
      *
      * @param is reference to input stream.
      */
     public BencodeStreamReader(InputStream is) {
-        this.is = new PushbackInputStream(is);
+        this(is, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs the reader class instance.
+     *
+     * @param is         reference to input stream.
+     * @param bufferSize size of the internal buffer in bytes.
+     * @throws IllegalArgumentException if bufferSize is not positive.
+     */
+    public BencodeStreamReader(InputStream is, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Incorrect buffer size: " + bufferSize);
+        }
+
+        this.is = is;
+        this.buffer = new byte[bufferSize];
+        this.bufferView = SwarScanner.littleEndianView(buffer);
+    }
+
+    /**
+     * Returns the limits, enforced upon decoding.
+     *
+     * @return see method description above.
+     */
+    public DecodeLimits getDecodeLimits() {
+        return decodeLimits;
+    }
+
+    /**
+     * Sets the limits, enforced upon decoding. By default, there are no limits.
+     *
+     * @param decodeLimits limits to be enforced.
+     * @throws IllegalArgumentException if decodeLimits is null.
+     */
+    public void setDecodeLimits(DecodeLimits decodeLimits) {
+        if (decodeLimits == null) {
+            throw new IllegalArgumentException("Null decode limits are not allowed");
+        }
+
+        this.decodeLimits = decodeLimits;
     }
 
     /**
@@ -32,24 +191,131 @@ public final class BencodeStreamReader {
      * @throws IOException if there's an I/O error occurred.
      */
     public int read() throws IOException {
-        return this.is.read();
+        if (position == limit && fill() <= 0) {
+            return -1;
+        }
+
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * Returns the next byte from the stream without consuming it.
+     *
+     * @return the next byte from the stream, or -1 if the end of the stream is reached.
+     * @throws IOException if there's an I/O error occurred.
+     */
+    public int peek() throws IOException {
+        if (position == limit && fill() <= 0) {
+            return -1;
+        }
+
+        return buffer[position] & 0xFF;
     }
 
     /**
-     * Pushes the byte back to the stream.
+     * Pushes the byte back to the stream. Pushing back -1 (the end of the stream marker) has no effect.
      *
      * @param byte2Unread byte to be pushed back to the stream.
      * @throws IOException if there's an I/O error occurred.
      */
     public void unread(int byte2Unread) throws IOException {
-        this.is.unread(byte2Unread);
+        if (byte2Unread == -1) {
+            return;
+        }
+
+        if (position == 0) {
+            // nothing has been consumed from the buffer, making room at its head
+            final int length = limit - position;
+            final byte[] target = (length < buffer.length) ? buffer : new byte[buffer.length * 2];
+            System.arraycopy(buffer, 0, target, 1, length);
+            if (target != buffer) {
+                buffer = target;
+                bufferView = SwarScanner.littleEndianView(buffer);
+            }
+            position = 1;
+            limit = length + 1;
+        }
+
+        buffer[--position] = (byte) byte2Unread;
+        tapStart = Math.min(tapStart, position);
+    }
+
+    /**
+     * Starts passing every consumed byte to the provided message digests, until stopDigest() method is called.
+     * Useful to compute a hash of the raw bytes of an object, such as the torrent info-hash,
+     * exactly as they are present in the stream and upon reading it.
+     *
+     * @param messageDigests message digests to be updated with consumed bytes.
+     * @throws IllegalArgumentException if no message digests are provided, or one of them is null.
+     * @throws IllegalStateException    if digesting is already started.
+     */
+    public void startDigest(MessageDigest... messageDigests) {
+        if (messageDigests == null || messageDigests.length == 0) {
+            throw new IllegalArgumentException("At least one message digest should be provided");
+        }
+
+        for (MessageDigest messageDigest : messageDigests) {
+            if (messageDigest == null) {
+                throw new IllegalArgumentException("Null message digest is not allowed");
+            }
+        }
+
+        if (digests != null) {
+            throw new IllegalStateException("Digesting is already started");
+        }
+
+        flushTaps();
+        digests = messageDigests.clone();
+    }
+
+    /**
+     * Passes the remaining consumed bytes to the message digests and stops digesting.
+     * Does nothing if digesting is not started.
+     */
+    public void stopDigest() {
+        flushTaps();
+        digests = null;
+    }
+
+    /**
+     * Starts capturing every consumed byte, until stopCapture() method is called.
+     * Useful to get the raw bytes of an object exactly as they are present in the stream.
+     *
+     * @throws IllegalStateException if capturing is already started.
+     */
+    public void startCapture() {
+        if (capture != null) {
+            throw new IllegalStateException("Capturing is already started");
+        }
+
+        flushTaps();
+        capture = new byte[Math.min(buffer.length, DEFAULT_BUFFER_SIZE)];
+        captureLength = 0;
+    }
+
+    /**
+     * Stops capturing and returns the bytes, consumed since capturing has been started.
+     *
+     * @return captured bytes.
+     * @throws IllegalStateException if capturing is not started.
+     */
+    public byte[] stopCapture() {
+        if (capture == null) {
+            throw new IllegalStateException("Capturing is not started");
+        }
+
+        flushTaps();
+        final byte[] capturedBytes = Arrays.copyOf(capture, captureLength);
+        capture = null;
+        return capturedBytes;
     }
 
     /**
      * Reads byte sequence and returns the qty of read bytes.
      *
      * @param sequence array to be used as target place upon reading bytes from the stream.
-     * @return qty of bytes read, or -1 if the end of the stream has been reached.
+     * @return qty of bytes read, which is less than the array length only if the end of the stream
+     * has been reached, or -1 if there are no bytes left in the stream.
      * @throws IOException if there's an input/output error occurred.
      */
     public int readByteSequence(byte[] sequence) throws IOException {
@@ -57,7 +323,104 @@ public final class BencodeStreamReader {
             return 0;
         }
 
-        return is.read(sequence);
+        return readByteSequence(sequence, 0, sequence.length);
+    }
+
+    /**
+     * Reads length bytes to the array region and returns the qty of read bytes. Short reads of the underlying
+     * stream, which are common for sockets and compressed streams, are repeated, so fewer bytes are returned
+     * only if the end of the stream has been reached. Buffered bytes are copied first, then remainders, that
+     * are not smaller than the internal buffer, are transferred directly from the stream to the array,
+     * and smaller ones are read via the internal buffer.
+     *
+     * @param sequence array to be used as target place upon reading bytes from the stream.
+     * @param offset   start offset in the array.
+     * @param length   qty of bytes to read.
+     * @return qty of bytes read, or -1 if there are no bytes left in the stream.
+     * @throws IOException if there's an input/output error occurred.
+     */
+    public int readByteSequence(byte[] sequence, int offset, int length) throws IOException {
+        int bytesRead = 0;
+        while (bytesRead < length) {
+            if (position == limit) {
+                final int remainingLength = length - bytesRead;
+                if (remainingLength >= buffer.length) {
+                    // bypassing the buffer, so the bytes are copied once
+                    final int chunkLength = is.read(sequence, offset + bytesRead, remainingLength);
+                    if (chunkLength == -1) {
+                        break;
+                    }
+
+                    flushTaps();
+                    passToTaps(sequence, offset + bytesRead, chunkLength);
+                    bytesRead += chunkLength;
+                    continue;
+                }
+
+                if (fill() <= 0) {
+                    break;
+                }
+            }
+
+            final int buffered = Math.min(limit - position, length - bytesRead);
+            System.arraycopy(buffer, position, sequence, offset + bytesRead, buffered);
+            position += buffered;
+            bytesRead += buffered;
+        }
+
+        return (bytesRead == 0 && length > 0) ? -1 : bytesRead;
+    }
+
+    /**
+     * Reads byte sequence body of the specified length, enforcing the decode limits. Large bodies are read
+     * to the chunks of growing size, which are assembled at the end, so the memory is allocated for the bytes,
+     * that are actually present in the stream, and not for the length, claimed by the byte sequence header.
+     *
+     * @param length byte sequence length.
+     * @return byte sequence body.
+     * @throws IOException            if there's an input/output error occurred.
+     * @throws BencodeFormatException if the length exceeds the decode limits,
+     *                                or the end of the stream is reached before the body end.
+     * @throws IllegalArgumentException if length is negative.
+     */
+    public byte[] readBytes(int length) throws IOException, BencodeFormatException {
+        if (length < 0) {
+            throw new IllegalArgumentException("Incorrect length: " + length);
+        }
+
+        checkByteSequenceLength(length);
+        if (length > decodeLimits.getMaxTotalBytes() - retainedBytes) {
+            throw new BencodeFormatException(
+                    "Total byte sequences length exceeds the limit: " + decodeLimits.getMaxTotalBytes());
+        }
+        retainedBytes += length;
+
+        final List<byte[]> chunks = new ArrayList<>();
+        int chunkSize = DEFAULT_BUFFER_SIZE;
+        int bytesRead = 0;
+        do {
+            final byte[] chunk = new byte[Math.min(chunkSize, length - bytesRead)];
+            if (readByteSequence(chunk, 0, chunk.length) < chunk.length) {
+                throw new BencodeFormatException("Unexpected end of the byte sequence stream");
+            }
+
+            chunks.add(chunk);
+            bytesRead += chunk.length;
+            chunkSize = Math.min(chunkSize * 2, MAX_CHUNK_SIZE);
+        } while (bytesRead < length);
+
+        if (chunks.size() == 1) {
+            return chunks.get(0);
+        }
+
+        final byte[] bytes = new byte[length];
+        int bytesAssembled = 0;
+        for (byte[] chunk : chunks) {
+            System.arraycopy(chunk, 0, bytes, bytesAssembled, chunk.length);
+            bytesAssembled += chunk.length;
+        }
+
+        return bytes;
     }
 
     /**
@@ -70,27 +433,377 @@ public final class BencodeStreamReader {
      * @throws BencodeFormatException if there's an error related to the bencoding format.
      */
     public String readCharSequence(char stopSymbol) throws IOException, BencodeFormatException {
-        boolean stopSymbolIsNotReached = true;
         final StringBuilder sb = new StringBuilder();
 
-        int intValue;
-        char charValue;
-        while (stopSymbolIsNotReached && ((intValue = is.read()) != -1)) {
-            charValue = (char) intValue;
+        while (position < limit || fill() > 0) {
+            int index = position;
+            if (stopSymbol <= 0xFF) {
+                // skipping 8 bytes at a time while they do not contain the stop symbol
+                int symbolIndex = Long.BYTES;
+                while (symbolIndex == Long.BYTES && limit - index >= Long.BYTES) {
+                    symbolIndex = SwarScanner.indexOf(bufferView.getLong(index), (byte) stopSymbol);
+                    index += symbolIndex;
+                }
+            }
+
+            while (index < limit && (char) (buffer[index] & 0xFF) != stopSymbol) {
+                index++;
+            }
+
+            for (int i = position; i < index; i++) {
+                sb.append((char) (buffer[i] & 0xFF));
+            }
+
+            if (index < limit) {
+                // stop symbol is reached, consuming it
+                position = index + 1;
+                return sb.toString();
+            }
+
+            position = index;
+        }
+
+        final String exceptionMessage = sb.length() > 0 ? "Stop symbol: '" + stopSymbol + "' was not reached" :
+                "Unexpected end of the stream";
+        throw new BencodeFormatException(exceptionMessage);
+    }
+
+    /**
+     * Reads decimal integer value in canonical form (no leading zeros, no negative zero) until specified symbol
+     * in a single pass, without building intermediate strings.
+     *
+     * @param stopSymbol stop symbol, consumed but not included to the value.
+     * @return integer value.
+     * @throws IOException            if there's an input/output error occurred upon reading.
+     * @throws BencodeFormatException if there's an error related to the bencoding format.
+     */
+    public long readLong(char stopSymbol) throws IOException, BencodeFormatException {
+        return readNumber(stopSymbol, true, BencodeSyntax.INCORRECT_VALUE_MESSAGE,
+                BencodeSyntax.INCORRECT_VALUE_MESSAGE);
+    }
+
+    /**
+     * Reads byte sequence length in canonical form (no sign, no leading zeros) until specified symbol
+     * in a single pass, without building intermediate strings.
+     *
+     * @param stopSymbol stop symbol, consumed but not included to the value.
+     * @return byte sequence length.
+     * @throws IOException            if there's an input/output error occurred upon reading.
+     * @throws BencodeFormatException if there's an error related to the bencoding format.
+     */
+    public int readLength(char stopSymbol) throws IOException, BencodeFormatException {
+        // the length range is checked upon reading, so it always fits the int type
+        return (int) readNumber(stopSymbol, false,
+                "BencodedByteSequence length part is not present in the stream",
+                BencodeSyntax.INCORRECT_LENGTH_MESSAGE);
+    }
+
+    /**
+     * Skips the next bencoded object in the stream without building it. The object structure and the decode
+     * limits are validated in the same way as upon building it, and byte sequence bodies are skipped in bulk.
+     * Nested lists and dictionaries are walked in a loop, so the nesting depth is not limited by the thread
+     * stack size.
+     *
+     * @throws IOException            if there's an input/output error occurred upon reading.
+     * @throws BencodeFormatException if there's an error related to the bencoding format.
+     */
+    public void skipValue() throws IOException, BencodeFormatException {
+        int skipDepth = 0;
+        try {
+            do {
+                final int objectPrefix = peek();
+                final byte skipState = skipDepth > 0 ? skipStates[skipDepth - 1] : SKIPPING_LIST_ELEMENT;
+
+                if (skipDepth > 0 && objectPrefix == BencodedObject.SERIALIZED_SUFFIX) {
+                    if (skipState == SKIPPING_DICTIONARY_VALUE) {
+                        throw new BencodeFormatException(
+                                "Unexpected end of the stream for dictionary. 'Key' object is present, " +
+                                        "but 'value' object is not.");
+                    }
+
+                    position++;
+                    exitContainer();
+                    skipDepth--;
+                } else {
+                    if (objectPrefix == -1) {
+                        throw new BencodeFormatException("Unexpected end of the stream");
+                    }
+
+                    if (skipState == SKIPPING_DICTIONARY_KEY) {
+                        BencodeSyntax.checkDictionaryKeyPrefix(objectPrefix);
+                    }
+
+                    startObject();
+                    switch (objectPrefix) {
+                        case BencodedInteger.SERIALIZED_PREFIX:
+                            position++;
+                            readLong(BencodedObject.SERIALIZED_SUFFIX);
+                            break;
+
+                        case BencodedList.SERIALIZED_PREFIX:
+                        case BencodedDictionary.SERIALIZED_PREFIX:
+                            enterContainer();
+                            position++;
+                            if (skipDepth == skipStates.length) {
+                                skipStates = Arrays.copyOf(skipStates, skipDepth * 2);
+                            }
+
+                            skipStates[skipDepth++] = objectPrefix == BencodedList.SERIALIZED_PREFIX ?
+                                    SKIPPING_LIST_ELEMENT : SKIPPING_DICTIONARY_KEY;
+                            continue;
+
+                        default:
+                            if (!BencodeSyntax.isDigit(objectPrefix)) {
+                                throw new BencodeFormatException(
+                                        "Unexpected character in the stream: " + (char) objectPrefix);
+                            }
+
+                            final int length = readLength(':');
+                            checkByteSequenceLength(length);
+                            skipBytes(length);
+                            break;
+                    }
+                }
+
+                // the object is skipped, so the enclosing dictionary expects the other part of the entry
+                if (skipDepth > 0 && skipStates[skipDepth - 1] != SKIPPING_LIST_ELEMENT) {
+                    skipStates[skipDepth - 1] = skipStates[skipDepth - 1] == SKIPPING_DICTIONARY_KEY ?
+                            SKIPPING_DICTIONARY_VALUE : SKIPPING_DICTIONARY_KEY;
+                }
+            } while (skipDepth > 0);
+        } finally {
+            // the containers, that are left open by an exception, are not counted anymore
+            for (; skipDepth > 0; skipDepth--) {
+                exitContainer();
+            }
+        }
+    }
+
+    /**
+     * Counts the object, that is being started, against the element count limit. The counters of the top-level
+     * object are reset, if there are no lists or dictionaries being decoded.
+     *
+     * @throws BencodeFormatException if the element count limit is exceeded.
+     */
+    void startObject() throws BencodeFormatException {
+        if (depth == 0) {
+            elementCount = 0;
+            retainedBytes = 0;
+        }
+
+        if (elementCount == decodeLimits.getMaxElementCount()) {
+            throw new BencodeFormatException("Elements count exceeds the limit: " + decodeLimits.getMaxElementCount());
+        }
+
+        elementCount++;
+    }
+
+    /**
+     * Marks the start of list or dictionary, enforcing the depth limit.
+     *
+     * @throws BencodeFormatException if the depth limit is exceeded.
+     */
+    void enterContainer() throws BencodeFormatException {
+        if (depth == decodeLimits.getMaxDepth()) {
+            throw new BencodeFormatException("Nesting depth exceeds the limit: " + decodeLimits.getMaxDepth());
+        }
+
+        depth++;
+    }
+
+    /**
+     * Marks the end of list or dictionary, started by enterContainer() method.
+     */
+    void exitContainer() {
+        depth--;
+    }
+
+    /**
+     * Checks the byte sequence length against the string length limit.
+     *
+     * @param length byte sequence length.
+     * @throws BencodeFormatException if the string length limit is exceeded.
+     */
+    void checkByteSequenceLength(int length) throws BencodeFormatException {
+        if (length > decodeLimits.getMaxStringLength()) {
+            throw new BencodeFormatException(
+                    "Byte sequence length exceeds the limit: " + decodeLimits.getMaxStringLength());
+        }
+    }
+
+    /**
+     * Skips the specified qty of bytes, using the buffered bytes first and skipping the stream afterwards.
+     * The last byte is always read, because skip() method of some streams, such as FileInputStream,
+     * may skip past the end of the stream, so a truncated byte sequence would be treated as complete.
+     *
+     * @param length qty of bytes to skip.
+     * @throws IOException            if there's an input/output error occurred upon reading.
+     * @throws BencodeFormatException if the end of the stream is reached before all bytes are skipped.
+     */
+    private void skipBytes(long length) throws IOException, BencodeFormatException {
+        final int buffered = (int) Math.min(limit - position, length);
+        position += buffered;
+        long remaining = length - buffered;
+
+        while (remaining > 0) {
+            // skipped bytes would bypass the digests and capture, so reading them is required upon tapping
+            final boolean skippingAllowed = digests == null && capture == null && remaining > 1;
+            final long skipped = skippingAllowed ? is.skip(remaining - 1) : 0;
+            if (skipped > 0) {
+                remaining -= skipped;
+            } else if (fill() > 0) {
+                // the stream does not support skipping, falling back to reading
+                final int consumed = (int) Math.min(limit, remaining);
+                position = consumed;
+                remaining -= consumed;
+            } else {
+                throw new BencodeFormatException("Unexpected end of the byte sequence stream");
+            }
+        }
+    }
 
-            stopSymbolIsNotReached = (charValue != stopSymbol);
+    /**
+     * Reads decimal value until specified symbol, validating its canonical form and range on the fly.
+     *
+     * @param stopSymbol            stop symbol, consumed but not included to the value.
+     * @param signed                true for an integer, false for a byte sequence length.
+     * @param emptyValueMessage     exception message for the case when there are no digits before the stop symbol.
+     * @param incorrectValueMessage exception message for the case when the value is not canonical or overflows.
+     * @return decoded value.
+     * @throws IOException            if there's an input/output error occurred upon reading.
+     * @throws BencodeFormatException if there's an error related to the bencoding format.
+     */
+    private long readNumber(char stopSymbol, boolean signed, String emptyValueMessage,
+                            String incorrectValueMessage) throws IOException, BencodeFormatException {
+
+        // the common case of the whole value being buffered is scanned 8 bytes at a time
+        final boolean bufferedNegative = signed && position < limit && buffer[position] == '-';
+        final int digitsStart = bufferedNegative ? position + 1 : position;
+        final int runLength = SwarScanner.canonicalRunLength(bufferView, digitsStart, limit, stopSymbol,
+                bufferedNegative, signed ? SwarScanner.MAX_RUN_LENGTH : SwarScanner.MAX_LENGTH_DIGITS);
+
+        if (runLength > 0) {
+            final long value = SwarScanner.parseDigitRun(bufferView, digitsStart, runLength);
+            position = digitsStart + runLength + 1;
+            return bufferedNegative ? -value : value;
+        }
+
+        int streamByte = read();
+        if (streamByte == -1) {
+            throw new BencodeFormatException("Unexpected end of the stream");
+        }
+
+        if (signed) {
+            decimal.startInteger();
+        } else {
+            decimal.startLength();
+        }
+
+        if (signed && streamByte == '-') {
+            decimal.setNegative();
+            streamByte = read();
+        }
 
-            if (stopSymbolIsNotReached) {
-                sb.append(charValue);
+        while (BencodeSyntax.isDigit(streamByte)) {
+            if (!decimal.append(streamByte - '0')) {
+                throw incorrectNumberException(stopSymbol, incorrectValueMessage);
             }
+
+            streamByte = read();
+        }
+
+        if (streamByte != stopSymbol) {
+            throw incorrectNumberException(stopSymbol, incorrectValueMessage);
+        }
+
+        if (decimal.getDigitsCount() == 0) {
+            throw new BencodeFormatException(decimal.isNegative() ? incorrectValueMessage : emptyValueMessage);
+        }
+
+        if (!decimal.isCanonical()) {
+            throw new BencodeFormatException(incorrectValueMessage);
+        }
+
+        return decimal.getValue();
+    }
+
+    /**
+     * Skips the stream until specified symbol and composes the exception for incorrect numeric value.
+     *
+     * @param stopSymbol            stop symbol to skip to.
+     * @param incorrectValueMessage message to be used, if the stop symbol is present in the stream.
+     * @return the exception to be thrown.
+     * @throws IOException if there's an input/output error occurred upon reading.
+     */
+    private BencodeFormatException incorrectNumberException(char stopSymbol, String incorrectValueMessage)
+            throws IOException {
+        int streamByte;
+        do {
+            streamByte = read();
+        } while (streamByte != -1 && streamByte != stopSymbol);
+
+        return new BencodeFormatException(streamByte == -1 ?
+                "Stop symbol: '" + stopSymbol + "' was not reached" : incorrectValueMessage);
+    }
+
+    /**
+     * Refills the internal buffer from the stream, should be called only when all buffered bytes are consumed.
+     *
+     * @return qty of bytes read, or -1 if the end of the stream has been reached.
+     * @throws IOException if there's an I/O error occurred.
+     */
+    private int fill() throws IOException {
+        flushTaps();
+
+        position = 0;
+        tapStart = 0;
+        limit = 0;
+
+        int bytesRead;
+        do {
+            bytesRead = is.read(buffer, 0, buffer.length);
+        } while (bytesRead == 0);
+
+        if (bytesRead > 0) {
+            limit = bytesRead;
+        }
+
+        return bytesRead;
+    }
+
+    /**
+     * Passes the buffered bytes, consumed since the last call, to the digests and capture.
+     */
+    private void flushTaps() {
+        passToTaps(buffer, tapStart, position - tapStart);
+        tapStart = position;
+    }
+
+    /**
+     * Passes the array region to all message digests and capture.
+     *
+     * @param bytes  array with bytes.
+     * @param offset start offset in the array.
+     * @param length qty of bytes to pass.
+     */
+    private void passToTaps(byte[] bytes, int offset, int length) {
+        if (length <= 0) {
+            return;
         }
 
-        if (stopSymbolIsNotReached) {
-            final String exceptionMessage = sb.length() > 0 ? "Stop symbol: '" + stopSymbol + "' was not reached" :
-                    "Unexpected end of the stream";
-            throw new BencodeFormatException(exceptionMessage);
+        if (digests != null) {
+            for (MessageDigest messageDigest : digests) {
+                messageDigest.update(bytes, offset, length);
+            }
         }
 
-        return sb.toString();
+        if (capture != null) {
+            if (capture.length - captureLength < length) {
+                capture = Arrays.copyOf(capture, Math.max(capture.length * 2, captureLength + length));
+            }
+
+            System.arraycopy(bytes, offset, capture, captureLength, length);
+            captureLength += length;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,387 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.CircularReferenceException;
+import com.github.cdefgah.bencoder4j.model.BencodedByteSequence;
+import com.github.cdefgah.bencoder4j.model.BencodedDictionary;
+import com.github.cdefgah.bencoder4j.model.BencodedInteger;
+import com.github.cdefgah.bencoder4j.model.BencodedList;
+import com.github.cdefgah.bencoder4j.model.BencodedObject;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streaming writer, that writes bencoded lists, dictionaries and their contents directly to the output,
+ * without building a tree of bencoded objects, so the memory use depends on the nesting depth only.
+ * <p>
+ * The writer enforces correct nesting: dictionaries contain key and value pairs, and every list or dictionary
+ * is ended by end() method. Optionally it verifies that dictionary keys are written in ascending order
+ * of their bytes, as the bencode format requires. Several top-level objects can be written one after another.
+ * </p>
+ * <p>
+ * The written bytes may stay in the buffer until flush() method is called. The output stream or channel
+ * is not closed by the writer. Please note that this implementation is not synchronized, and an instance
+ * should be used by one thread at a time.
+ * </p>
+ */
+public final class BencodeStreamWriter implements Flushable {
+
+    /**
+     * Initial capacity of the open containers stack.
+     */
+    private static final int INITIAL_STACK_CAPACITY = 16;
+
+    /**
+     * The buffer, that collects encoded bytes.
+     */
+    private final BencodeOutputBuffer out;
+
+    /**
+     * Writer of complete bencoded objects, that shares the buffer.
+     */
+    private final BencodeWriter objectWriter;
+
+    /**
+     * True for open dictionaries and false for open lists, from the outermost to the innermost one.
+     */
+    private boolean[] dictionaries = new boolean[INITIAL_STACK_CAPACITY];
+
+    /**
+     * True, if the open dictionary has a key, that is waiting for its value, indexed the same way as dictionaries.
+     */
+    private boolean[] pendingKeys = new boolean[INITIAL_STACK_CAPACITY];
+
+    /**
+     * True, if the key order of the open dictionary is verified, indexed the same way as dictionaries.
+     * The setting is taken when the dictionary is begun.
+     */
+    private boolean[] verifiedKeyOrders = new boolean[INITIAL_STACK_CAPACITY];
+
+    /**
+     * Last keys of the open dictionaries, indexed the same way as dictionaries,
+     * they are kept only if the key order of the dictionary is verified.
+     */
+    private byte[][] lastKeys = new byte[INITIAL_STACK_CAPACITY][];
+
+    /**
+     * Qty of open lists and dictionaries.
+     */
+    private int depth;
+
+    /**
+     * If true, the writer verifies that dictionary keys are written in ascending order.
+     */
+    private boolean verifyKeyOrder;
+
+    /**
+     * Constructs the writer with the default buffer size.
+     *
+     * @param os output stream to write to.
+     * @throws IllegalArgumentException if os is null.
+     */
+    public BencodeStreamWriter(OutputStream os) {
+        this(new BencodeOutputBuffer(os, BencodeWriter.DEFAULT_BUFFER_SIZE));
+    }
+
+    /**
+     * Constructs the writer.
+     *
+     * @param os         output stream to write to.
+     * @param bufferSize size of the buffer in bytes, at least 32.
+     * @throws IllegalArgumentException if os is null, or bufferSize is too small.
+     */
+    public BencodeStreamWriter(OutputStream os, int bufferSize) {
+        this(new BencodeOutputBuffer(os, bufferSize));
+    }
+
+    /**
+     * Constructs the writer with the default buffer size.
+     *
+     * @param channel channel to write to.
+     * @throws IllegalArgumentException if channel is null.
+     */
+    public BencodeStreamWriter(WritableByteChannel channel) {
+        this(new BencodeOutputBuffer(channel, BencodeWriter.DEFAULT_BUFFER_SIZE));
+    }
+
+    /**
+     * Constructs the writer.
+     *
+     * @param channel    channel to write to.
+     * @param bufferSize size of the buffer in bytes, at least 32.
+     * @throws IllegalArgumentException if channel is null, or bufferSize is too small.
+     */
+    public BencodeStreamWriter(WritableByteChannel channel, int bufferSize) {
+        this(new BencodeOutputBuffer(channel, bufferSize));
+    }
+
+    /**
+     * Constructs the writer over the buffer.
+     *
+     * @param out the buffer, that collects encoded bytes.
+     */
+    private BencodeStreamWriter(BencodeOutputBuffer out) {
+        this.out = out;
+        this.objectWriter = new BencodeWriter(out);
+    }
+
+    /**
+     * Returns true, if the writer verifies that dictionary keys are written in ascending order.
+     *
+     * @return see method description above.
+     */
+    public boolean isVerifyKeyOrder() {
+        return verifyKeyOrder;
+    }
+
+    /**
+     * Sets whether the writer should verify that dictionary keys are written in ascending order of their bytes,
+     * compared as unsigned values. Disabled by default. The setting is applied to dictionaries,
+     * that are begun after this call.
+     *
+     * @param verifyKeyOrder true to verify the key order, false to write keys as is.
+     */
+    public void setVerifyKeyOrder(boolean verifyKeyOrder) {
+        this.verifyKeyOrder = verifyKeyOrder;
+    }
+
+    /**
+     * Returns the qty of open lists and dictionaries.
+     *
+     * @return see method description above.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Begins a list, its elements are written by subsequent calls, until end() method is called.
+     *
+     * @throws IOException           if there's an input/output error occurred.
+     * @throws IllegalStateException if a dictionary key is expected.
+     */
+    public void beginList() throws IOException {
+        beginContainer(false);
+        out.writeByte(BencodedList.SERIALIZED_PREFIX);
+    }
+
+    /**
+     * Begins a dictionary, its keys and values are written by subsequent calls, until end() method is called.
+     *
+     * @throws IOException           if there's an input/output error occurred.
+     * @throws IllegalStateException if a dictionary key is expected.
+     */
+    public void beginDictionary() throws IOException {
+        beginContainer(true);
+        out.writeByte(BencodedDictionary.SERIALIZED_PREFIX);
+    }
+
+    /**
+     * Ends the innermost open list or dictionary.
+     *
+     * @throws IOException           if there's an input/output error occurred.
+     * @throws IllegalStateException if there's no open list or dictionary, or the last dictionary key has no value.
+     */
+    public void end() throws IOException {
+        if (depth == 0) {
+            throw new IllegalStateException("There's no open list or dictionary to end");
+        }
+
+        final int index = depth - 1;
+        if (pendingKeys[index]) {
+            throw new IllegalStateException("Dictionary key has no value");
+        }
+
+        lastKeys[index] = null;
+        depth--;
+        out.writeByte(BencodedObject.SERIALIZED_SUFFIX);
+    }
+
+    /**
+     * Writes a key of the innermost open dictionary.
+     *
+     * @param key key bytes.
+     * @throws IOException              if there's an input/output error occurred.
+     * @throws IllegalArgumentException if key is null, or key order verification was enabled when the dictionary
+     *                                  was begun, and the key is not greater than the previous key of the dictionary.
+     * @throws IllegalStateException    if the innermost open object is not a dictionary,
+     *                                  or the previous key has no value.
+     */
+    public void key(byte[] key) throws IOException {
+        if (key == null) {
+            throw new IllegalArgumentException("Null key is not allowed");
+        }
+
+        final int index = depth - 1;
+        if (depth == 0 || !dictionaries[index]) {
+            throw new IllegalStateException("Key can be written to a dictionary only");
+        }
+
+        if (pendingKeys[index]) {
+            throw new IllegalStateException("Dictionary value is expected, but key is written");
+        }
+
+        if (verifiedKeyOrders[index]) {
+            if (lastKeys[index] != null && BencodedByteSequence.compareUnsigned(key, lastKeys[index]) <= 0) {
+                throw new IllegalArgumentException("Dictionary key is not greater than the previous key: " +
+                        new String(key, StandardCharsets.UTF_8));
+            }
+
+            lastKeys[index] = key.clone();
+        }
+
+        pendingKeys[index] = true;
+        writeByteSequence(key);
+    }
+
+    /**
+     * Writes a key of the innermost open dictionary, the key is encoded in UTF-8.
+     *
+     * @param key the key.
+     * @throws IOException              if there's an input/output error occurred.
+     * @throws IllegalArgumentException if key is null, or key order verification was enabled when the dictionary
+     *                                  was begun, and the key is not greater than the previous key of the dictionary.
+     * @throws IllegalStateException    if the innermost open object is not a dictionary,
+     *                                  or the previous key has no value.
+     */
+    public void key(String key) throws IOException {
+        if (key == null) {
+            throw new IllegalArgumentException("Null key is not allowed");
+        }
+
+        key(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes an integer value.
+     *
+     * @param value the value.
+     * @throws IOException           if there's an input/output error occurred.
+     * @throws IllegalStateException if a dictionary key is expected.
+     */
+    public void value(long value) throws IOException {
+        beforeValue();
+        out.writeByte(BencodedInteger.SERIALIZED_PREFIX);
+        out.writeDecimal(value);
+        out.writeByte(BencodedObject.SERIALIZED_SUFFIX);
+    }
+
+    /**
+     * Writes a byte sequence value.
+     *
+     * @param value byte sequence bytes.
+     * @throws IOException              if there's an input/output error occurred.
+     * @throws IllegalArgumentException if value is null.
+     * @throws IllegalStateException    if a dictionary key is expected.
+     */
+    public void value(byte[] value) throws IOException {
+        if (value == null) {
+            throw new IllegalArgumentException("Null value is not allowed");
+        }
+
+        beforeValue();
+        writeByteSequence(value);
+    }
+
+    /**
+     * Writes a byte sequence value, the string is encoded in UTF-8.
+     *
+     * @param value the value.
+     * @throws IOException              if there's an input/output error occurred.
+     * @throws IllegalArgumentException if value is null.
+     * @throws IllegalStateException    if a dictionary key is expected.
+     */
+    public void value(String value) throws IOException {
+        if (value == null) {
+            throw new IllegalArgumentException("Null value is not allowed");
+        }
+
+        value(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes a complete bencoded object as a value.
+     *
+     * @param value the value.
+     * @throws IOException                if there's an input/output error occurred.
+     * @throws CircularReferenceException if there's a circular reference found upon writing the object.
+     * @throws IllegalArgumentException   if value is null.
+     * @throws IllegalStateException      if a dictionary key is expected.
+     */
+    public void value(BencodedObject value) throws IOException, CircularReferenceException {
+        if (value == null) {
+            throw new IllegalArgumentException("Null value is not allowed");
+        }
+
+        beforeValue();
+        objectWriter.write(value);
+    }
+
+    /**
+     * Passes the buffered bytes to the output, and flushes the output stream.
+     *
+     * @throws IOException if there's an input/output error occurred.
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Checks that a value can be written, and marks the pending dictionary key as having its value.
+     *
+     * @throws IllegalStateException if a dictionary key is expected.
+     */
+    private void beforeValue() {
+        if (depth == 0) {
+            return;
+        }
+
+        final int index = depth - 1;
+        if (dictionaries[index]) {
+            if (!pendingKeys[index]) {
+                throw new IllegalStateException("Dictionary key is expected, but value is written");
+            }
+
+            pendingKeys[index] = false;
+        }
+    }
+
+    /**
+     * Pushes a new list or dictionary to the stack of the open containers.
+     *
+     * @param dictionary true for a dictionary, false for a list.
+     * @throws IllegalStateException if a dictionary key is expected.
+     */
+    private void beginContainer(boolean dictionary) {
+        beforeValue();
+        if (depth == dictionaries.length) {
+            dictionaries = Arrays.copyOf(dictionaries, depth * 2);
+            pendingKeys = Arrays.copyOf(pendingKeys, depth * 2);
+            verifiedKeyOrders = Arrays.copyOf(verifiedKeyOrders, depth * 2);
+            lastKeys = Arrays.copyOf(lastKeys, depth * 2);
+        }
+
+        dictionaries[depth] = dictionary;
+        pendingKeys[depth] = false;
+        verifiedKeyOrders[depth] = dictionary && verifyKeyOrder;
+        lastKeys[depth] = null;
+        depth++;
+    }
+
+    /**
+     * Writes the byte sequence with its length prefix.
+     *
+     * @param bytes byte sequence bytes.
+     * @throws IOException if there's an input/output error occurred.
+     */
+    private void writeByteSequence(byte[] bytes) throws IOException {
+        out.writeDecimal(bytes.length);
+        out.writeByte(':');
+        out.writeBytes(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,231 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.BencodedByteSequence;
+import com.github.cdefgah.bencoder4j.model.BencodedDictionary;
+import com.github.cdefgah.bencoder4j.model.BencodedInteger;
+import com.github.cdefgah.bencoder4j.model.BencodedList;
+import com.github.cdefgah.bencoder4j.model.BencodedObject;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Syntax rules of the bencoding format, shared by the decoders, the stream reader and the validator:
+ * dictionary key types, integers and byte sequence lengths.
+ * <p>
+ * Integers and byte sequence lengths are accepted in canonical form only: no leading zeros, no negative zero,
+ * and the value fits its type. The common case is processed in bulk by {@link SwarScanner}, and the remaining
+ * cases are processed byte by byte by {@link DecimalAccumulator}.
+ * </p>
+ */
+final class BencodeSyntax {
+
+    /**
+     * Exception message for the integer, that is not canonical or overflows.
+     */
+    static final String INCORRECT_VALUE_MESSAGE = "Incorrect character sequence for the value";
+
+    /**
+     * Exception message for the byte sequence length, that is not canonical or overflows.
+     */
+    static final String INCORRECT_LENGTH_MESSAGE = "BencodedByteSequence length cannot be converted to a numeric value";
+
+    /**
+     * Utility class, it should not be instantiated.
+     */
+    private BencodeSyntax() {
+    }
+
+    /**
+     * Returns true, if the value is an ASCII digit.
+     *
+     * @param value value to check.
+     * @return see method description above.
+     */
+    static boolean isDigit(int value) {
+        return value >= '0' && value <= '9';
+    }
+
+    /**
+     * Checks that the object with the provided prefix can be used as a dictionary key.
+     *
+     * @param objectPrefix prefix of the key object.
+     * @throws BencodeFormatException if the object is not a byte sequence.
+     */
+    static void checkDictionaryKeyPrefix(int objectPrefix) throws BencodeFormatException {
+        final Class<? extends BencodedObject> keyClass;
+        switch (objectPrefix) {
+            case BencodedInteger.SERIALIZED_PREFIX:
+                keyClass = BencodedInteger.class;
+                break;
+
+            case BencodedList.SERIALIZED_PREFIX:
+                keyClass = BencodedList.class;
+                break;
+
+            case BencodedDictionary.SERIALIZED_PREFIX:
+                keyClass = BencodedDictionary.class;
+                break;
+
+            default:
+                // byte sequences are fine, other characters are reported upon skipping the key
+                return;
+        }
+
+        throw new BencodeFormatException("Incorrect object used as dictionary key. Expected: '"
+                + BencodedByteSequence.class.getCanonicalName() + "' but get: '"
+                + keyClass.getCanonicalName() + "'");
+    }
+
+    /**
+     * Accumulator of the integer or byte sequence length digits, that checks the range on every digit,
+     * and the canonical form once all digits are accumulated. Digits can be passed one by one, so the value
+     * may be split between stream reads or data fragments. The instance is reused for subsequent values.
+     */
+    static final class DecimalAccumulator {
+
+        /**
+         * Negated value, because the negative range is wider than the positive one.
+         */
+        private long negatedValue;
+
+        /**
+         * Min negated value, that is allowed.
+         */
+        private long minNegatedValue;
+
+        /**
+         * Qty of accumulated digits.
+         */
+        private int digitsCount;
+
+        /**
+         * True, if the value is negative.
+         */
+        private boolean negative;
+
+        /**
+         * True, if the first digit is zero.
+         */
+        private boolean leadingZero;
+
+        /**
+         * Starts accumulating the integer, that may be negative.
+         */
+        void startInteger() {
+            start(Long.MIN_VALUE);
+        }
+
+        /**
+         * Starts accumulating the byte sequence length, that fits the int type.
+         */
+        void startLength() {
+            start(-Integer.MAX_VALUE);
+        }
+
+        /**
+         * Marks the value as negative, should be called before the first digit.
+         */
+        void setNegative() {
+            negative = true;
+        }
+
+        /**
+         * Returns true, if the value is negative.
+         *
+         * @return see method description above.
+         */
+        boolean isNegative() {
+            return negative;
+        }
+
+        /**
+         * Returns the qty of accumulated digits.
+         *
+         * @return see method description above.
+         */
+        int getDigitsCount() {
+            return digitsCount;
+        }
+
+        /**
+         * Returns true, if the first digit is zero.
+         *
+         * @return see method description above.
+         */
+        boolean hasLeadingZero() {
+            return leadingZero;
+        }
+
+        /**
+         * Appends the digit to the value, unless the value gets out of its range.
+         *
+         * @param digit the digit value.
+         * @return true, if the digit is appended, false if the value would get out of its range.
+         */
+        boolean append(int digit) {
+            if (negatedValue < minNegatedValue / 10 || negatedValue * 10 < minNegatedValue + digit) {
+                return false;
+            }
+
+            if (digitsCount == 0) {
+                leadingZero = digit == 0;
+            }
+
+            negatedValue = negatedValue * 10 - digit;
+            digitsCount++;
+            return true;
+        }
+
+        /**
+         * Appends the buffer digits, starting at the index, until a non-digit is found,
+         * or the value would get out of its range.
+         *
+         * @param buffer buffer with the digits.
+         * @param index  buffer index of the first digit.
+         * @param limit  index of the first byte after the valid buffer contents.
+         * @return buffer index of the first byte, that is not appended.
+         */
+        int append(ByteBuffer buffer, int index, int limit) {
+            while (index < limit && isDigit(buffer.get(index)) && append(buffer.get(index) - '0')) {
+                index++;
+            }
+
+            return index;
+        }
+
+        /**
+         * Returns true, if the accumulated value is in canonical form: it has digits, no leading zeros,
+         * is not a negative zero, and a positive value is in its range.
+         *
+         * @return see method description above.
+         */
+        boolean isCanonical() {
+            return digitsCount > 0
+                    && !(leadingZero && (digitsCount > 1 || negative))
+                    && (negative || negatedValue != Long.MIN_VALUE);
+        }
+
+        /**
+         * Returns the accumulated value.
+         *
+         * @return see method description above.
+         */
+        long getValue() {
+            return negative ? negatedValue : -negatedValue;
+        }
+
+        /**
+         * Resets the accumulator.
+         *
+         * @param minNegatedValue min negated value, that is allowed.
+         */
+        private void start(long minNegatedValue) {
+            this.minNegatedValue = minNegatedValue;
+            negatedValue = 0;
+            digitsCount = 0;
+            negative = false;
+            leadingZero = false;
+        }
+    }
+}
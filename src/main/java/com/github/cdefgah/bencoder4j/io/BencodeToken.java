@@ -0,0 +1,34 @@
+package com.github.cdefgah.bencoder4j.io;
+
+/**
+ * Tokens, returned by the pull parser.
+ *
+ * @see BencodeParser
+ */
+public enum BencodeToken {
+
+    /**
+     * Start of the dictionary.
+     */
+    START_DICT,
+
+    /**
+     * Start of the list.
+     */
+    START_LIST,
+
+    /**
+     * Integer value.
+     */
+    INTEGER,
+
+    /**
+     * Byte sequence, either a dictionary key or a value.
+     */
+    BYTES,
+
+    /**
+     * End of the list or dictionary.
+     */
+    END
+}
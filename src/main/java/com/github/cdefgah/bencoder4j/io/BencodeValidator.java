@@ -0,0 +1,336 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.BencodedDictionary;
+import com.github.cdefgah.bencoder4j.model.BencodedInteger;
+import com.github.cdefgah.bencoder4j.model.BencodedList;
+import com.github.cdefgah.bencoder4j.model.BencodedObject;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Validator, that checks whether the input is a single well-formed bencoded object, without building it.
+ * <p>
+ * Object prefixes, canonical integers and byte sequence lengths, declared lengths, balanced suffixes and
+ * byte sequence dictionary keys are checked in a single pass. Optionally, dictionary keys are checked to be
+ * unique and sorted in the raw byte order, as the bencoding specification requires.
+ * If the input is malformed, the exception reports the offset of the first problem
+ * (see {@link BencodeFormatException#getOffset()}), counted from the start of the validated input.
+ * </p>
+ * <p>
+ * Validator settings are not synchronized, but an instance, that is not being reconfigured,
+ * can be used by several threads at a time.
+ * </p>
+ */
+public final class BencodeValidator {
+
+    /**
+     * Container stack state: list.
+     */
+    private static final byte IN_LIST = 0;
+
+    /**
+     * Container stack state: dictionary, the key is expected next.
+     */
+    private static final byte IN_DICTIONARY_KEY = 1;
+
+    /**
+     * Container stack state: dictionary, the value is expected next.
+     */
+    private static final byte IN_DICTIONARY_VALUE = 2;
+
+    /**
+     * Initial capacity of the container stack.
+     */
+    private static final int INITIAL_STACK_CAPACITY = 32;
+
+    /**
+     * True, if dictionary keys should be unique and sorted.
+     */
+    private boolean sortedKeysRequired;
+
+    /**
+     * Returns true, if dictionary keys are required to be unique and sorted in the raw byte order.
+     *
+     * @return see method description above.
+     */
+    public boolean isSortedKeysRequired() {
+        return sortedKeysRequired;
+    }
+
+    /**
+     * Sets whether dictionary keys are required to be unique and sorted in the raw byte order.
+     * Disabled by default.
+     *
+     * @param sortedKeysRequired true to require unique sorted keys.
+     */
+    public void setSortedKeysRequired(boolean sortedKeysRequired) {
+        this.sortedKeysRequired = sortedKeysRequired;
+    }
+
+    /**
+     * Validates the whole array.
+     *
+     * @param data array with bencoded data.
+     * @throws IllegalArgumentException if data is null.
+     * @throws BencodeFormatException   if the data is not a single well-formed bencoded object.
+     */
+    public void validate(byte[] data) throws BencodeFormatException {
+        if (data == null) {
+            throw new IllegalArgumentException("Null argument is not allowed for validate() method");
+        }
+
+        validate(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Validates the remaining bytes of the buffer, the buffer position is not changed.
+     *
+     * @param data buffer with bencoded data.
+     * @throws IllegalArgumentException if data is null.
+     * @throws BencodeFormatException   if the data is not a single well-formed bencoded object.
+     */
+    public void validate(ByteBuffer data) throws BencodeFormatException {
+        if (data == null) {
+            throw new IllegalArgumentException("Null argument is not allowed for validate() method");
+        }
+
+        final ByteBuffer buffer = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        final int start = buffer.position();
+        final int limit = buffer.limit();
+
+        byte[] containerStack = new byte[INITIAL_STACK_CAPACITY];
+        // start and length of the previous key of every open dictionary, used upon checking key order
+        int[] previousKeys = new int[INITIAL_STACK_CAPACITY * 2];
+        int depth = 0;
+        int position = start;
+        final BencodeSyntax.DecimalAccumulator decimal = new BencodeSyntax.DecimalAccumulator();
+
+        do {
+            if (position >= limit) {
+                throw formatException("Unexpected end of the stream", position, start);
+            }
+
+            final int objectPrefix = buffer.get(position);
+            final byte state = depth > 0 ? containerStack[depth - 1] : IN_LIST;
+
+            if (objectPrefix == BencodedObject.SERIALIZED_SUFFIX && depth > 0) {
+                if (state == IN_DICTIONARY_VALUE) {
+                    throw formatException("Unexpected end of the stream for dictionary. 'Key' object is present, " +
+                            "but 'value' object is not.", position, start);
+                }
+
+                depth--;
+                position++;
+            } else {
+                if (state == IN_DICTIONARY_KEY) {
+                    try {
+                        BencodeSyntax.checkDictionaryKeyPrefix(objectPrefix);
+                    } catch (BencodeFormatException e) {
+                        throw formatException(e.getMessage(), position, start);
+                    }
+                }
+
+                switch (objectPrefix) {
+                    case BencodedInteger.SERIALIZED_PREFIX:
+                        position = validateInteger(buffer, position + 1, start, decimal);
+                        break;
+
+                    case BencodedList.SERIALIZED_PREFIX:
+                    case BencodedDictionary.SERIALIZED_PREFIX:
+                        if (depth == containerStack.length) {
+                            containerStack = Arrays.copyOf(containerStack, depth * 2);
+                            previousKeys = Arrays.copyOf(previousKeys, depth * 4);
+                        }
+
+                        containerStack[depth] = objectPrefix == BencodedList.SERIALIZED_PREFIX ?
+                                IN_LIST : IN_DICTIONARY_KEY;
+                        previousKeys[depth * 2] = -1;
+                        depth++;
+                        position++;
+
+                        // the container is not complete yet, so its parent state is not changed
+                        continue;
+
+                    default:
+                        if (!BencodeSyntax.isDigit(objectPrefix)) {
+                            throw formatException("Unexpected character in the stream: " +
+                                    (char) (objectPrefix & 0xFF), position, start);
+                        }
+
+                        final int sequenceStart;
+                        final int sequenceLength;
+                        final int runLength = SwarScanner.canonicalRunLength(buffer, position, limit, ':', false,
+                                SwarScanner.MAX_LENGTH_DIGITS);
+
+                        if (runLength > 0) {
+                            sequenceStart = position + runLength + 1;
+                            sequenceLength = (int) SwarScanner.parseDigitRun(buffer, position, runLength);
+                        } else {
+                            sequenceStart = validateLength(buffer, position, start, decimal);
+                            sequenceLength = (int) decimal.getValue();
+                        }
+
+                        if (sequenceLength > limit - sequenceStart) {
+                            throw formatException("Unexpected end of the byte sequence stream", sequenceStart, start);
+                        }
+
+                        if (state == IN_DICTIONARY_KEY && sortedKeysRequired) {
+                            checkKeyOrder(buffer, previousKeys, depth - 1, sequenceStart, sequenceLength,
+                                    position, start);
+                        }
+
+                        position = sequenceStart + sequenceLength;
+                        break;
+                }
+            }
+
+            // the value is complete, moving the enclosing dictionary to the next key or value
+            if (depth > 0 && containerStack[depth - 1] != IN_LIST) {
+                containerStack[depth - 1] = containerStack[depth - 1] == IN_DICTIONARY_KEY ?
+                        IN_DICTIONARY_VALUE : IN_DICTIONARY_KEY;
+            }
+        } while (depth > 0);
+
+        if (position != limit) {
+            throw formatException("Unexpected data after the end of the object", position, start);
+        }
+    }
+
+    /**
+     * Validates the integer value together with its suffix.
+     *
+     * @param buffer   buffer with bencoded data.
+     * @param position buffer index right after the integer prefix.
+     * @param start    buffer index of the validated input start.
+     * @param decimal  accumulator for the integer, that cannot be processed in bulk.
+     * @return buffer index right after the integer suffix.
+     * @throws BencodeFormatException if the integer is malformed.
+     */
+    private static int validateInteger(ByteBuffer buffer, int position, int start,
+                                       BencodeSyntax.DecimalAccumulator decimal) throws BencodeFormatException {
+        final int limit = buffer.limit();
+
+        final boolean negative = position < limit && buffer.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+
+        final int digitsStart = position;
+        final int runLength = SwarScanner.canonicalRunLength(buffer, position, limit,
+                BencodedObject.SERIALIZED_SUFFIX, negative, SwarScanner.MAX_RUN_LENGTH);
+        if (runLength > 0) {
+            return position + runLength + 1;
+        }
+
+        decimal.startInteger();
+        if (negative) {
+            decimal.setNegative();
+        }
+
+        // the digit, that gets the value out of its range, is reported as the problem
+        position = decimal.append(buffer, position, limit);
+        if (position >= limit) {
+            throw formatException("Stop symbol: 'e' was not reached", position, start);
+        }
+
+        if (buffer.get(position) != BencodedObject.SERIALIZED_SUFFIX || decimal.getDigitsCount() == 0) {
+            throw formatException(BencodeSyntax.INCORRECT_VALUE_MESSAGE, position, start);
+        }
+
+        if (!decimal.isCanonical()) {
+            throw formatException(BencodeSyntax.INCORRECT_VALUE_MESSAGE, digitsStart, start);
+        }
+
+        return position + 1;
+    }
+
+    /**
+     * Validates the byte sequence length together with the delimiter after it, the length is left in the accumulator.
+     *
+     * @param buffer   buffer with bencoded data.
+     * @param position buffer index of the first length digit.
+     * @param start    buffer index of the validated input start.
+     * @param decimal  accumulator for the length.
+     * @return buffer index right after the delimiter.
+     * @throws BencodeFormatException if the length is malformed.
+     */
+    private static int validateLength(ByteBuffer buffer, int position, int start,
+                                      BencodeSyntax.DecimalAccumulator decimal) throws BencodeFormatException {
+        final int limit = buffer.limit();
+        final int digitsStart = position;
+
+        decimal.startLength();
+        position = decimal.append(buffer, position, limit);
+        if (position >= limit) {
+            throw formatException("Stop symbol: ':' was not reached", position, start);
+        }
+
+        if (buffer.get(position) != ':') {
+            throw formatException(BencodeSyntax.INCORRECT_LENGTH_MESSAGE, position, start);
+        }
+
+        if (!decimal.isCanonical()) {
+            throw formatException(BencodeSyntax.INCORRECT_LENGTH_MESSAGE, digitsStart, start);
+        }
+
+        return position + 1;
+    }
+
+    /**
+     * Checks that the dictionary key is greater than the previous key of the same dictionary,
+     * and remembers it as the previous one.
+     *
+     * @param buffer       buffer with bencoded data.
+     * @param previousKeys start and length of the previous key of every open dictionary.
+     * @param level        dictionary level in the container stack.
+     * @param keyStart     buffer index of the key body.
+     * @param keyLength    key length.
+     * @param keyOffset    buffer index of the key object, reported in the exception.
+     * @param start        buffer index of the validated input start.
+     * @throws BencodeFormatException if the key is not greater than the previous one.
+     */
+    private static void checkKeyOrder(ByteBuffer buffer, int[] previousKeys, int level, int keyStart, int keyLength,
+                                      int keyOffset, int start) throws BencodeFormatException {
+
+        final int previousKeyStart = previousKeys[level * 2];
+        if (previousKeyStart >= 0) {
+            final int previousKeyLength = previousKeys[level * 2 + 1];
+            final int commonLength = Math.min(previousKeyLength, keyLength);
+
+            int comparison = 0;
+            for (int i = 0; i < commonLength && comparison == 0; i++) {
+                comparison = (buffer.get(previousKeyStart + i) & 0xFF) - (buffer.get(keyStart + i) & 0xFF);
+            }
+
+            if (comparison == 0) {
+                comparison = previousKeyLength - keyLength;
+            }
+
+            if (comparison == 0) {
+                throw formatException("Duplicate dictionary key", keyOffset, start);
+            }
+
+            if (comparison > 0) {
+                throw formatException("Dictionary keys are not sorted", keyOffset, start);
+            }
+        }
+
+        previousKeys[level * 2] = keyStart;
+        previousKeys[level * 2 + 1] = keyLength;
+    }
+
+    /**
+     * Composes the exception with the problem offset.
+     *
+     * @param message  the problem description.
+     * @param position buffer index of the problem.
+     * @param start    buffer index of the validated input start.
+     * @return the exception to be thrown.
+     */
+    private static BencodeFormatException formatException(String message, int position, int start) {
+        return new BencodeFormatException(message, position - start);
+    }
+}
@@ -0,0 +1,324 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.CircularReferenceException;
+import com.github.cdefgah.bencoder4j.model.*;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.*;
+
+/**
+ * Encoder, that writes bencoded objects to an output stream or a channel via its own reusable buffer.
+ * <p>
+ * Integers and byte sequence lengths are encoded directly to the buffer with a digit lookup table, byte sequence
+ * bodies are copied in bulk, and the buffer is passed to the output in large chunks, so unbuffered outputs,
+ * such as FileOutputStream, are not accessed per byte. Nested lists and dictionaries are written iteratively,
+ * and circular references are detected upon writing, so the nesting depth is not limited by the thread stack size.
+ * Frozen lists and dictionaries with the cached encoded form, and dictionary values, that are kept in the encoded
+ * form, are written by copying the cached bytes.
+ * </p>
+ * <p>
+ * The written bytes may stay in the buffer until flush() method is called. The output stream or channel
+ * is not closed by the writer. Please note that this implementation is not synchronized, and an instance
+ * should be used by one thread at a time.
+ * </p>
+ */
+public final class BencodeWriter implements Flushable {
+
+    /**
+     * Default size of the buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /**
+     * The buffer, that collects encoded bytes.
+     */
+    private final BencodeOutputBuffer out;
+
+    /**
+     * Constructs the writer with the default buffer size.
+     *
+     * @param os output stream to write to.
+     * @throws IllegalArgumentException if os is null.
+     */
+    public BencodeWriter(OutputStream os) {
+        this(os, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs the writer.
+     *
+     * @param os         output stream to write to.
+     * @param bufferSize size of the buffer in bytes, at least 32.
+     * @throws IllegalArgumentException if os is null, or bufferSize is too small.
+     */
+    public BencodeWriter(OutputStream os, int bufferSize) {
+        this.out = new BencodeOutputBuffer(os, bufferSize);
+    }
+
+    /**
+     * Constructs the writer with the default buffer size. The channel should be in blocking mode, writing to
+     * a non-blocking selectable channel throws IllegalBlockingModeException.
+     *
+     * @param channel channel to write to.
+     * @throws IllegalArgumentException if channel is null.
+     */
+    public BencodeWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs the writer. The channel should be in blocking mode, writing to a non-blocking selectable channel
+     * throws IllegalBlockingModeException.
+     *
+     * @param channel    channel to write to.
+     * @param bufferSize size of the buffer in bytes, at least 32.
+     * @throws IllegalArgumentException if channel is null, or bufferSize is too small.
+     */
+    public BencodeWriter(WritableByteChannel channel, int bufferSize) {
+        this.out = new BencodeOutputBuffer(channel, bufferSize);
+    }
+
+    /**
+     * Constructs the writer over the buffer.
+     *
+     * @param out the buffer, that collects encoded bytes.
+     */
+    BencodeWriter(BencodeOutputBuffer out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes the bencoded object. If a circular reference is found, the bytes of the object,
+     * that are written before it, may be passed to the output.
+     *
+     * @param bencodedObject object to be written.
+     * @throws IOException                if there's an input/output error occurred.
+     * @throws CircularReferenceException if there's a circular reference found upon writing the object.
+     * @throws IllegalArgumentException   if bencodedObject is null.
+     */
+    public void write(BencodedObject bencodedObject) throws IOException, CircularReferenceException {
+        if (bencodedObject == null) {
+            throw new IllegalArgumentException("Null argument is not allowed for write() method");
+        }
+
+        if (!bencodedObject.isCompositeObject()) {
+            writeScalar(bencodedObject);
+            return;
+        }
+
+        final ByteBuffer frozenForm = bencodedObject.getFrozenForm();
+        if (frozenForm != null) {
+            out.writeBuffer(frozenForm);
+            return;
+        }
+
+        final Deque<ContainerFrame> frames = new ArrayDeque<>();
+        final Set<BencodedObject> openContainers = Collections.newSetFromMap(new IdentityHashMap<>());
+        openContainer(bencodedObject, frames, openContainers);
+
+        while (!frames.isEmpty()) {
+            final ContainerFrame frame = frames.peek();
+            if (!frame.values.hasNext()) {
+                out.writeByte(BencodedObject.SERIALIZED_SUFFIX);
+                openContainers.remove(frames.pop().container);
+                continue;
+            }
+
+            if (frame.keys != null) {
+                writeScalar(frame.keys.next());
+            }
+
+            final BencodedObject value = frame.values.next();
+            if (!value.isCompositeObject()) {
+                writeScalar(value);
+                continue;
+            }
+
+            final ByteBuffer nestedFrozenForm = value.getFrozenForm();
+            if (nestedFrozenForm != null) {
+                out.writeBuffer(nestedFrozenForm);
+            } else {
+                openContainer(value, frames, openContainers);
+            }
+        }
+    }
+
+    /**
+     * Writes the bencoded integer.
+     *
+     * @param bencodedInteger integer to be written.
+     * @throws IOException              if there's an input/output error occurred.
+     * @throws IllegalArgumentException if bencodedInteger is null.
+     */
+    public void write(BencodedInteger bencodedInteger) throws IOException {
+        if (bencodedInteger == null) {
+            throw new IllegalArgumentException("Null argument is not allowed for write() method");
+        }
+
+        writeScalar(bencodedInteger);
+    }
+
+    /**
+     * Writes the bencoded byte sequence.
+     *
+     * @param byteSequence byte sequence to be written.
+     * @throws IOException              if there's an input/output error occurred.
+     * @throws IllegalArgumentException if byteSequence is null.
+     */
+    public void write(BencodedByteSequence byteSequence) throws IOException {
+        if (byteSequence == null) {
+            throw new IllegalArgumentException("Null argument is not allowed for write() method");
+        }
+
+        writeScalar(byteSequence);
+    }
+
+    /**
+     * Returns the qty of characters, that the writer produces for the decimal representation of the value,
+     * including minus sign.
+     *
+     * @param value the value.
+     * @return see method description above.
+     */
+    public static int decimalLength(long value) {
+        return BencodeOutputBuffer.decimalLength(value);
+    }
+
+    /**
+     * Encodes the decimal representation of the value to the array in the same way as the writer does,
+     * including minus sign.
+     *
+     * @param value  the value.
+     * @param target the array, that has at least decimalLength(value) bytes after the offset.
+     * @param offset index of the first encoded byte.
+     * @return index of the byte right after the encoded representation.
+     * @throws IllegalArgumentException if target is null, or has not enough bytes after the offset.
+     */
+    public static int encodeDecimal(long value, byte[] target, int offset) {
+        if (target == null || offset < 0 || offset > target.length - decimalLength(value)) {
+            throw new IllegalArgumentException("Target array has not enough space for the value: " + value);
+        }
+
+        return BencodeOutputBuffer.encodeDecimal(value, target, offset);
+    }
+
+    /**
+     * Passes the buffered bytes to the output without flushing the output stream.
+     *
+     * @throws IOException if there's an input/output error occurred.
+     */
+    public void drain() throws IOException {
+        out.drain();
+    }
+
+    /**
+     * Passes the buffered bytes to the output, and flushes the output stream.
+     *
+     * @throws IOException if there's an input/output error occurred.
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Writes the list or dictionary prefix and pushes its frame to the stack.
+     *
+     * @param container      list or dictionary.
+     * @param frames         stack of the open containers.
+     * @param openContainers identity set of the open containers.
+     * @throws IOException                if there's an input/output error occurred.
+     * @throws CircularReferenceException if the container is open already.
+     */
+    private void openContainer(BencodedObject container, Deque<ContainerFrame> frames,
+                               Set<BencodedObject> openContainers) throws IOException, CircularReferenceException {
+
+        if (!openContainers.add(container)) {
+            throw new CircularReferenceException(
+                    "Upon writing to stream, circular reference found in " + container.getClass().getCanonicalName());
+        }
+
+        if (container instanceof BencodedList) {
+            out.writeByte(BencodedList.SERIALIZED_PREFIX);
+            frames.push(new ContainerFrame(container, null, ((BencodedList) container).iterator()));
+        } else {
+            final BencodedDictionary dictionary = (BencodedDictionary) container;
+            out.writeByte(BencodedDictionary.SERIALIZED_PREFIX);
+            frames.push(new ContainerFrame(container, dictionary.getKeysIterator(),
+                    dictionary.getEncodedValuesIterator()));
+        }
+    }
+
+    /**
+     * Writes the integer, byte sequence, or dictionary value, that is kept in the encoded form.
+     *
+     * @param bencodedObject integer, byte sequence, or dictionary value in the encoded form.
+     * @throws IOException if there's an input/output error occurred.
+     */
+    private void writeScalar(BencodedObject bencodedObject) throws IOException {
+        if (bencodedObject instanceof BencodedInteger) {
+            out.writeByte(BencodedInteger.SERIALIZED_PREFIX);
+            out.writeDecimal(((BencodedInteger) bencodedObject).getValue());
+            out.writeByte(BencodedObject.SERIALIZED_SUFFIX);
+        } else if (!(bencodedObject instanceof BencodedByteSequence)) {
+            // the encoded dictionary value is validated upon putting, so it is copied as it is
+            out.writeBuffer(bencodedObject.getFrozenForm());
+        } else {
+            final BencodedByteSequence byteSequence = (BencodedByteSequence) bencodedObject;
+            out.writeDecimal(byteSequence.length());
+            out.writeByte(':');
+            if (!out.isGathering()) {
+                // file regions are copied in chunks, other bodies are copied at once
+                byteSequence.writeBody(out.asChannel());
+                return;
+            }
+
+            try {
+                // gathered buffers refer to the bodies, so file regions are mapped to memory
+                out.writeBuffer(byteSequence.asByteBuffer());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Open list or dictionary, that is being written.
+     */
+    private static final class ContainerFrame {
+
+        /**
+         * The container.
+         */
+        private final BencodedObject container;
+
+        /**
+         * Iterator over dictionary keys, null for a list.
+         */
+        private final Iterator<BencodedByteSequence> keys;
+
+        /**
+         * Iterator over list elements or dictionary values.
+         */
+        private final Iterator<BencodedObject> values;
+
+        /**
+         * Constructs the frame.
+         *
+         * @param container the container.
+         * @param keys      iterator over dictionary keys, null for a list.
+         * @param values    iterator over list elements or dictionary values.
+         */
+        private ContainerFrame(BencodedObject container, Iterator<BencodedByteSequence> keys,
+                               Iterator<BencodedObject> values) {
+            this.container = container;
+            this.keys = keys;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.cdefgah.bencoder4j.io;
+
+/**
+ * Limits, that are enforced upon decoding to keep the memory use predictable on hostile or corrupted input.
+ * The limits are applied to every top-level object separately.
+ * <p>
+ * The class is immutable, so an instance can be shared between decoders and threads.
+ * </p>
+ */
+public final class DecodeLimits {
+
+    /**
+     * No limits, used by default.
+     */
+    public static final DecodeLimits UNLIMITED =
+            new DecodeLimits(Integer.MAX_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE);
+
+    /**
+     * Max length of a byte sequence.
+     */
+    private final int maxStringLength;
+
+    /**
+     * Max total length of byte sequences in a top-level object.
+     */
+    private final long maxTotalBytes;
+
+    /**
+     * Max nesting depth of lists and dictionaries.
+     */
+    private final int maxDepth;
+
+    /**
+     * Max qty of objects in a top-level object, including itself.
+     */
+    private final long maxElementCount;
+
+    /**
+     * Constructs the limits.
+     *
+     * @param maxStringLength max length of a byte sequence.
+     * @param maxTotalBytes   max total length of byte sequences in a top-level object.
+     * @param maxDepth        max nesting depth of lists and dictionaries, a top-level list has depth 1.
+     * @param maxElementCount max qty of objects in a top-level object, including itself.
+     * @throws IllegalArgumentException if one of the limits is negative.
+     */
+    public DecodeLimits(int maxStringLength, long maxTotalBytes, int maxDepth, long maxElementCount) {
+        if (maxStringLength < 0 || maxTotalBytes < 0 || maxDepth < 0 || maxElementCount < 0) {
+            throw new IllegalArgumentException("Decode limits cannot be negative");
+        }
+
+        this.maxStringLength = maxStringLength;
+        this.maxTotalBytes = maxTotalBytes;
+        this.maxDepth = maxDepth;
+        this.maxElementCount = maxElementCount;
+    }
+
+    /**
+     * Returns the max length of a byte sequence.
+     *
+     * @return see method description above.
+     */
+    public int getMaxStringLength() {
+        return maxStringLength;
+    }
+
+    /**
+     * Returns the max total length of byte sequences in a top-level object.
+     *
+     * @return see method description above.
+     */
+    public long getMaxTotalBytes() {
+        return maxTotalBytes;
+    }
+
+    /**
+     * Returns the max nesting depth of lists and dictionaries.
+     *
+     * @return see method description above.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the max qty of objects in a top-level object, including itself.
+     *
+     * @return see method description above.
+     */
+    public long getMaxElementCount() {
+        return maxElementCount;
+    }
+}
@@ -0,0 +1,190 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Scanner of digit runs and stop symbols, that processes 8 bytes at a time, treating them as a long value
+ * (SIMD within a register technique). Words are loaded from little-endian buffers, so the first byte of
+ * the word is the least significant one.
+ * <p>
+ * Only the common case is processed in bulk, if a method cannot do it, it reports so, and the caller
+ * should fall back to the byte by byte processing, that also produces the exact error message.
+ * </p>
+ */
+final class SwarScanner {
+
+    /**
+     * Max qty of digits in a run, that can be processed in bulk.
+     */
+    static final int MAX_RUN_LENGTH = 15;
+
+    /**
+     * Max qty of digits in a byte sequence length, that always fits the int type.
+     */
+    static final int MAX_LENGTH_DIGITS = 9;
+
+    /**
+     * Word with all bytes equal to 0x01.
+     */
+    private static final long ONES = 0x0101010101010101L;
+
+    /**
+     * Word with all bytes equal to 0x80.
+     */
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    /**
+     * Word with all bytes equal to '0'.
+     */
+    private static final long ZEROS = 0x3030303030303030L;
+
+    /**
+     * Powers of ten, indexed by exponent.
+     */
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L,
+            10_000_000L, 100_000_000L};
+
+    /**
+     * Utility class, it should not be instantiated.
+     */
+    private SwarScanner() {
+    }
+
+    /**
+     * Creates little-endian view of the array, to be used for word loading.
+     *
+     * @param array the array.
+     * @return see method description above.
+     */
+    static ByteBuffer littleEndianView(byte[] array) {
+        return ByteBuffer.wrap(array).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Returns the length of the digit run, starting at the index of the little-endian buffer.
+     *
+     * @param buffer little-endian buffer.
+     * @param index  buffer index of the run start.
+     * @param limit  index of the first byte after the valid buffer contents.
+     * @return the run length, always followed by a non-digit byte before the limit, or -1 if the run
+     * cannot be processed in bulk, because it is longer than {@link #MAX_RUN_LENGTH}, or it is too close
+     * to the limit.
+     */
+    static int digitRunLength(ByteBuffer buffer, int index, int limit) {
+        if (limit - index < Long.BYTES) {
+            return -1;
+        }
+
+        final int firstWordDigits = leadingDigits(buffer.getLong(index));
+        if (firstWordDigits < Long.BYTES) {
+            return firstWordDigits;
+        }
+
+        if (limit - index < Long.BYTES * 2) {
+            return -1;
+        }
+
+        final int secondWordDigits = leadingDigits(buffer.getLong(index + Long.BYTES));
+        return secondWordDigits < Long.BYTES ? Long.BYTES + secondWordDigits : -1;
+    }
+
+    /**
+     * Returns the length of the canonical digit run (without leading zeros, and not a negative zero),
+     * starting at the index of the little-endian buffer and followed by the stop symbol.
+     *
+     * @param buffer     little-endian buffer.
+     * @param index      buffer index of the run start, right after the minus sign if any.
+     * @param limit      index of the first byte after the valid buffer contents.
+     * @param stopSymbol symbol, that should follow the run.
+     * @param negative   true, if the run is preceded by the minus sign.
+     * @param maxLength  max run length, up to {@link #MAX_RUN_LENGTH}.
+     * @return the run length, or -1 if the run cannot be processed in bulk, or it is not a canonical one.
+     */
+    static int canonicalRunLength(ByteBuffer buffer, int index, int limit, char stopSymbol, boolean negative,
+                                  int maxLength) {
+
+        if (stopSymbol > 0xFF) {
+            return -1;
+        }
+
+        final int runLength = digitRunLength(buffer, index, limit);
+        if (runLength <= 0 || runLength > maxLength || buffer.get(index + runLength) != (byte) stopSymbol) {
+            return -1;
+        }
+
+        if (buffer.get(index) == '0' && (runLength > 1 || negative)) {
+            return -1;
+        }
+
+        return runLength;
+    }
+
+    /**
+     * Parses the digit run, found by {@link #digitRunLength}.
+     *
+     * @param buffer little-endian buffer.
+     * @param index  buffer index of the run start.
+     * @param length the run length, from 1 to {@link #MAX_RUN_LENGTH}.
+     * @return the run value.
+     */
+    static long parseDigitRun(ByteBuffer buffer, int index, int length) {
+        if (length <= Long.BYTES) {
+            return parseDigits(buffer.getLong(index), length);
+        }
+
+        final int tailLength = length - Long.BYTES;
+        return parseDigits(buffer.getLong(index), Long.BYTES) * POWERS_OF_TEN[tailLength]
+                + parseDigits(buffer.getLong(index + Long.BYTES), tailLength);
+    }
+
+    /**
+     * Returns the index of the first occurrence of the symbol in the word.
+     *
+     * @param word   little-endian word.
+     * @param symbol the symbol to find.
+     * @return byte index in the word, or 8 if the symbol is absent.
+     */
+    static int indexOf(long word, byte symbol) {
+        final long difference = word ^ (ONES * (symbol & 0xFF));
+
+        // the lowest set high bit marks exactly the first zero byte, higher ones may be false positives
+        final long zeroBytes = (difference - ONES) & ~difference & HIGH_BITS;
+        return Long.numberOfTrailingZeros(zeroBytes) >>> 3;
+    }
+
+    /**
+     * Returns the qty of leading ASCII digits in the word.
+     *
+     * @param word little-endian word.
+     * @return see method description above, from 0 to 8.
+     */
+    static int leadingDigits(long word) {
+        // digit bytes are 0x30..0x39: high nibble is 3, and low nibble does not overflow when 6 is added to it
+        final long nonDigits = ((word & 0xF0F0F0F0F0F0F0F0L) ^ ZEROS)
+                | (((word & 0x0F0F0F0F0F0F0F0FL) + 0x0606060606060606L) & 0xF0F0F0F0F0F0F0F0L);
+
+        // setting the high bit of every non-zero byte of nonDigits
+        final long nonDigitBytes = (((nonDigits & ~HIGH_BITS) + ~HIGH_BITS) | nonDigits) & HIGH_BITS;
+        return Long.numberOfTrailingZeros(nonDigitBytes) >>> 3;
+    }
+
+    /**
+     * Parses the leading digits of the word.
+     *
+     * @param word   little-endian word, that starts with the digits.
+     * @param length qty of digits, from 1 to 8.
+     * @return the value.
+     */
+    static long parseDigits(long word, int length) {
+        // moving the digits to the most significant bytes and padding them with leading zero digits
+        final long digits = (length == Long.BYTES) ? word :
+                (word << ((Long.BYTES - length) * Byte.SIZE)) | (ZEROS >>> (length * Byte.SIZE));
+        long value = digits - ZEROS;
+
+        // merging adjacent digits into 2-digit, 4-digit and 8-digit values, the first digit is the most significant
+        value = (value * 10) + (value >>> 8);
+        value = (((value & 0x00FF00FF00FF00FFL) * (1 + (100L << 16))) >>> 16) & 0x0000FFFF0000FFFFL;
+        return (value * (1 + (10000L << 32))) >>> 32;
+    }
+}
@@ -2,10 +2,18 @@ package com.github.cdefgah.bencoder4j.model;
 
 import com.github.cdefgah.bencoder4j.BencodeFormatException;
 import com.github.cdefgah.bencoder4j.io.BencodeStreamReader;
+import com.github.cdefgah.bencoder4j.io.BencodeWriter;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Arrays;
 
 /**
@@ -21,10 +29,32 @@ public final class BencodedByteSequence extends BencodedObject implements Compar
     private static final char DELIMITER = ':';
 
     /**
-     * Byte sequence body.
+     * Max length of the body, that writeObject() method writes together with the length in a single call.
+     * Longer bodies are passed to the output stream as they are.
+     */
+    private static final int MAX_INLINE_BODY_LENGTH = 32;
+
+    /**
+     * Size of the buffer used by writeObject() method for bodies, that are not backed by an accessible array.
+     */
+    private static final int WRITE_BUFFER_SIZE = 32;
+
+    /**
+     * Byte sequence body, null if the instance refers to a buffer region.
      */
     private final byte[] sequence;
 
+    /**
+     * Buffer region with the byte sequence body, null if the instance owns its body as a byte array,
+     * or refers to a file region. Position of the region is always 0, and its limit is the byte sequence length.
+     */
+    private final ByteBuffer region;
+
+    /**
+     * File region with the byte sequence body, null if the instance owns its body or refers to a buffer region.
+     */
+    private final FileRegion fileRegion;
+
     /**
      * Reads the input stream and constructs the class instance.
      *
@@ -34,21 +64,10 @@ public final class BencodedByteSequence extends BencodedObject implements Compar
      */
     public BencodedByteSequence(BencodeStreamReader bsr) throws IOException, BencodeFormatException {
 
-        final String sequenceLengthStrValue = bsr.readCharSequence(DELIMITER);
-        if (sequenceLengthStrValue.length() == 0) {
-            throw new BencodeFormatException("BencodedByteSequence length part is not present in the stream");
-        }
+        this.region = null;
+        this.fileRegion = null;
 
-        try {
-            final int sequenceLength = Integer.parseInt(sequenceLengthStrValue);
-            this.sequence = new byte[sequenceLength];
-            final int bytesRead = bsr.readByteSequence(this.sequence);
-            if (bytesRead != sequenceLength) {
-                throw new BencodeFormatException("Unexpected end of the byte sequence stream");
-            }
-        } catch (NumberFormatException nfe) {
-            throw new BencodeFormatException("BencodedByteSequence length cannot be converted to a numeric value");
-        }
+        this.sequence = bsr.readBytes(bsr.readLength(DELIMITER));
     }
 
     /**
@@ -57,6 +76,9 @@ public final class BencodedByteSequence extends BencodedObject implements Compar
      * @param sequence byte array to be used as source for byte sequence.
      */
     public BencodedByteSequence(byte[] sequence) {
+        this.region = null;
+        this.fileRegion = null;
+
         if ((sequence != null) && (sequence.length > 0)) {
             this.sequence = new byte[sequence.length];
             System.arraycopy(sequence, 0, this.sequence, 0, sequence.length);
@@ -71,6 +93,9 @@ public final class BencodedByteSequence extends BencodedObject implements Compar
      * @param string initial string to be used as source for byte sequence.
      */
     public BencodedByteSequence(String string) {
+        this.region = null;
+        this.fileRegion = null;
+
         if ((string != null) && (string.length() > 0)) {
             this.sequence = string.getBytes(StandardCharsets.UTF_8);
         } else {
@@ -79,15 +104,203 @@ public final class BencodedByteSequence extends BencodedObject implements Compar
     }
 
     /**
-     * Compares the current object with another instance of this class.
+     * Constructs class instance, copying remaining bytes of the buffer.
+     * The buffer position is not changed.
+     *
+     * @param buffer buffer to be used as source for byte sequence.
+     * @throws IllegalArgumentException if buffer is null.
+     */
+    public BencodedByteSequence(ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Null argument is not allowed for BencodedByteSequence constructor");
+        }
+
+        this.region = null;
+        this.fileRegion = null;
+        this.sequence = new byte[buffer.remaining()];
+        if (buffer.hasArray()) {
+            System.arraycopy(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    this.sequence, 0, this.sequence.length);
+        } else {
+            buffer.duplicate().get(this.sequence);
+        }
+    }
+
+    /**
+     * Constructs class instance using the provided body without copying it.
+     *
+     * @param sequence byte sequence body, or null if region is used.
+     * @param region   buffer region with the byte sequence body, or null if sequence is used.
+     */
+    private BencodedByteSequence(byte[] sequence, ByteBuffer region) {
+        this.sequence = sequence;
+        this.region = region;
+        this.fileRegion = null;
+    }
+
+    /**
+     * Constructs class instance, that refers to the file region.
+     *
+     * @param fileRegion file region with the byte sequence body.
+     */
+    private BencodedByteSequence(FileRegion fileRegion) {
+        this.sequence = null;
+        this.region = null;
+        this.fileRegion = fileRegion;
+    }
+
+    /**
+     * Constructs class instance that refers to the remaining bytes of the buffer instead of copying them.
+     * Works for heap, direct and memory-mapped buffers alike. The buffer position is not changed.
+     * <p>
+     * The instance shares the content with the buffer, so the buffer contents must not be modified
+     * while the instance is in use.
+     * </p>
+     *
+     * @param buffer buffer, whose remaining bytes are used as byte sequence body.
+     * @return class instance, referring to the buffer region.
+     * @throws IllegalArgumentException if buffer is null.
+     */
+    public static BencodedByteSequence wrap(ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Null argument is not allowed for BencodedByteSequence.wrap()");
+        }
+
+        return new BencodedByteSequence(null, buffer.slice());
+    }
+
+    /**
+     * Constructs class instance that refers to the region of the file channel instead of reading it.
+     * The body is read from the channel on demand with positional reads, so huge byte sequences, such as
+     * the pieces hashes of a multi-gigabyte torrent, are never held in the heap: the length is known
+     * without reading, and the body is compared, written and digested in chunks. Only the methods,
+     * that expose the body as a buffer, map the region to memory, and methods, that return a copy,
+     * read the whole region.
+     * <p>
+     * The channel is not closed by the instance, it should stay open and its region should not be modified
+     * while the instance is in use. Failed reads of the region are reported as {@link UncheckedIOException}
+     * by the methods, that cannot throw {@link IOException}.
+     * </p>
+     *
+     * @param channel file channel with the byte sequence body.
+     * @param offset  channel position of the byte sequence body.
+     * @param length  byte sequence length.
+     * @return class instance, referring to the file region.
+     * @throws IllegalArgumentException if channel is null, or offset or length is negative.
+     */
+    public static BencodedByteSequence wrap(FileChannel channel, long offset, int length) {
+        if (channel == null) {
+            throw new IllegalArgumentException("Null argument is not allowed for BencodedByteSequence.wrap()");
+        }
+
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Incorrect file region, offset: " + offset + ", length: " + length);
+        }
+
+        return new BencodedByteSequence(new FileRegion(channel, offset, length));
+    }
+
+    /**
+     * Compares the current object with another instance of this class. Byte sequences are compared
+     * lexicographically as unsigned bytes, that is the order of dictionary keys in bencoded data.
      *
      * @param anotherObject reference to another instance of this class.
-     * @return 1 if this object is greater than another object, -1 if it is less
+     * @return a positive value if this object is greater than another object, a negative value if it is less
      * than another object, and 0 if they are equal.
      */
     @Override
     public int compareTo(BencodedByteSequence anotherObject) {
-        return this.toUTF8String().compareTo(anotherObject.toUTF8String());
+        if (this.sequence != null && anotherObject.sequence != null) {
+            return compareUnsigned(this.sequence, anotherObject.sequence);
+        }
+
+        try {
+            return compareInChunks(anotherObject);
+        } catch (IOException e) {
+            throw new UncheckedIOException("File region cannot be read", e);
+        }
+    }
+
+    /**
+     * Compares the bodies lexicographically as unsigned bytes, chunk by chunk. File regions are read
+     * to the chunks, other bodies are compared in place.
+     *
+     * @param anotherObject reference to another instance of this class.
+     * @return see compareTo() method description.
+     * @throws IOException if there's an input/output error occurred upon reading the file region.
+     */
+    private int compareInChunks(BencodedByteSequence anotherObject) throws IOException {
+        final int length = Math.min(this.length(), anotherObject.length());
+        final ByteBuffer thisChunk = this.newChunk();
+        final ByteBuffer anotherChunk = anotherObject.newChunk();
+
+        for (int position = 0; position < length; position += FileRegion.CHUNK_SIZE) {
+            this.readChunk(position, thisChunk);
+            anotherObject.readChunk(position, anotherChunk);
+
+            final int chunkLength = Math.min(FileRegion.CHUNK_SIZE, length - position);
+            for (int i = 0; i < chunkLength; i++) {
+                final byte thisByte = thisChunk.get(thisChunk.position() + i);
+                final byte anotherByte = anotherChunk.get(anotherChunk.position() + i);
+                if (thisByte != anotherByte) {
+                    return (thisByte & 0xFF) - (anotherByte & 0xFF);
+                }
+            }
+        }
+
+        return this.length() - anotherObject.length();
+    }
+
+    /**
+     * Returns the chunk buffer for compareInChunks() method: a new buffer for the file region,
+     * or a view of the whole body otherwise.
+     *
+     * @return see method description above.
+     */
+    private ByteBuffer newChunk() {
+        return this.fileRegion != null ? ByteBuffer.allocate(Math.min(length(), FileRegion.CHUNK_SIZE)) :
+                asByteBuffer();
+    }
+
+    /**
+     * Positions the chunk buffer, returned by newChunk() method, at the body position: reads the file region
+     * chunk to the buffer, or moves the view of the whole body.
+     *
+     * @param position body position of the chunk.
+     * @param chunk    the chunk buffer.
+     * @throws IOException if there's an input/output error occurred upon reading the file region.
+     */
+    private void readChunk(int position, ByteBuffer chunk) throws IOException {
+        if (this.fileRegion != null) {
+            this.fileRegion.readChunk(position, chunk);
+        } else {
+            chunk.position(position);
+        }
+    }
+
+    /**
+     * Compares two byte arrays lexicographically as unsigned bytes, that is the order of dictionary keys
+     * in bencoded data.
+     *
+     * @param first  the first array.
+     * @param second the second array.
+     * @return a positive value if the first array is greater than the second one, a negative value if it is less
+     * than the second one, and 0 if they are equal.
+     * @throws IllegalArgumentException if one of the arrays is null.
+     */
+    public static int compareUnsigned(byte[] first, byte[] second) {
+        if (first == null || second == null) {
+            throw new IllegalArgumentException("Null arrays are not allowed for compareUnsigned() method");
+        }
+
+        final int length = Math.min(first.length, second.length);
+        for (int i = 0; i < length; i++) {
+            if (first[i] != second[i]) {
+                return (first[i] & 0xFF) - (second[i] & 0xFF);
+            }
+        }
+
+        return first.length - second.length;
     }
 
     /**
@@ -96,11 +309,44 @@ public final class BencodedByteSequence extends BencodedObject implements Compar
      * @return see method description above.
      */
     public byte[] getByteSequence() {
+        if (this.fileRegion != null) {
+            try {
+                return this.fileRegion.readAll();
+            } catch (IOException e) {
+                throw new UncheckedIOException("File region cannot be read", e);
+            }
+        }
+
+        if (this.sequence == null) {
+            final byte[] byteSequence = new byte[this.region.remaining()];
+            this.region.duplicate().get(byteSequence);
+            return byteSequence;
+        }
+
         final byte[] byteSequence = new byte[this.sequence.length];
         System.arraycopy(this.sequence, 0, byteSequence, 0, this.sequence.length);
         return byteSequence;
     }
 
+    /**
+     * Returns read-only buffer with the byte sequence body, no bytes are copied.
+     * File regions are mapped to memory.
+     *
+     * @return see method description above.
+     */
+    public ByteBuffer asByteBuffer() {
+        if (this.fileRegion != null) {
+            try {
+                return this.fileRegion.map().asReadOnlyBuffer();
+            } catch (IOException e) {
+                throw new UncheckedIOException("File region cannot be mapped", e);
+            }
+        }
+
+        return this.sequence != null ? ByteBuffer.wrap(this.sequence).asReadOnlyBuffer() :
+                this.region.asReadOnlyBuffer();
+    }
+
 
     /**
      * Compares the class instance with another instance of this class.
@@ -113,7 +359,19 @@ public final class BencodedByteSequence extends BencodedObject implements Compar
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         BencodedByteSequence that = (BencodedByteSequence) obj;
-        return Arrays.equals(sequence, that.sequence);
+        if (this.sequence != null && that.sequence != null) {
+            return Arrays.equals(sequence, that.sequence);
+        }
+
+        if (this.fileRegion == null && that.fileRegion == null) {
+            return this.asByteBuffer().equals(that.asByteBuffer());
+        }
+
+        try {
+            return this.length() == that.length() && compareInChunks(that) == 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("File region cannot be read", e);
+        }
     }
 
     /**
@@ -123,7 +381,26 @@ public final class BencodedByteSequence extends BencodedObject implements Compar
      */
     @Override
     public int hashCode() {
-        return Arrays.hashCode(sequence);
+        if (this.sequence != null) {
+            return Arrays.hashCode(sequence);
+        }
+
+        if (this.fileRegion != null) {
+            try {
+                return this.fileRegion.contentHashCode();
+            } catch (IOException e) {
+                throw new UncheckedIOException("File region cannot be read", e);
+            }
+        }
+
+        // the same algorithm as Arrays.hashCode() uses, to keep hash codes equal for equal instances
+        int result = 1;
+        final int length = this.region.remaining();
+        for (int i = 0; i < length; i++) {
+            result = 31 * result + this.region.get(i);
+        }
+
+        return result;
     }
 
     /**
@@ -132,7 +409,73 @@ public final class BencodedByteSequence extends BencodedObject implements Compar
      * @return see method description above.
      */
     public int length() {
-        return this.sequence.length;
+        if (this.fileRegion != null) {
+            return this.fileRegion.length();
+        }
+
+        return this.sequence != null ? this.sequence.length : this.region.remaining();
+    }
+
+    /**
+     * Returns the exact qty of bytes, that writeObject() method produces for the class instance.
+     *
+     * @return see method description above.
+     */
+    @Override
+    public long encodedLength() {
+        final int length = length();
+        return BencodeWriter.decimalLength(length) + 1L + length;
+    }
+
+    /**
+     * Updates the message digest with the byte sequence body. File regions are read in chunks.
+     *
+     * @param messageDigest message digest to be updated.
+     * @throws IOException              if there's an input/output error occurred upon reading the file region.
+     * @throws IllegalArgumentException if messageDigest is null.
+     */
+    public void updateDigest(MessageDigest messageDigest) throws IOException {
+        if (messageDigest == null) {
+            throw new IllegalArgumentException("Null argument is not allowed for updateDigest() method");
+        }
+
+        if (this.fileRegion != null) {
+            this.fileRegion.updateDigest(messageDigest);
+        } else if (this.sequence != null) {
+            messageDigest.update(this.sequence);
+        } else {
+            messageDigest.update(this.region.duplicate());
+        }
+    }
+
+    /**
+     * Writes the byte sequence body to the channel, until all bytes are written. File regions are read
+     * in chunks. Non-blocking channels are rejected, because the retried writes would spin until the channel
+     * gets ready.
+     *
+     * @param channel channel to write to.
+     * @throws IOException                  if there's an input/output error occurred.
+     * @throws IllegalArgumentException     if channel is null.
+     * @throws IllegalBlockingModeException if the channel is a selectable channel in non-blocking mode.
+     */
+    public void writeBody(WritableByteChannel channel) throws IOException {
+        if (channel == null) {
+            throw new IllegalArgumentException("Null argument is not allowed for writeBody() method");
+        }
+
+        if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking()) {
+            throw new IllegalBlockingModeException();
+        }
+
+        if (this.fileRegion != null) {
+            this.fileRegion.writeTo(channel);
+            return;
+        }
+
+        final ByteBuffer body = this.sequence != null ? ByteBuffer.wrap(this.sequence) : this.region.duplicate();
+        while (body.hasRemaining()) {
+            channel.write(body);
+        }
     }
 
     /**
@@ -142,7 +485,7 @@ public final class BencodedByteSequence extends BencodedObject implements Compar
      */
     @Override
     public String toString() {
-        return Arrays.toString(sequence);
+        return Arrays.toString(this.sequence != null ? this.sequence : getByteSequence());
     }
 
     /**
@@ -151,24 +494,55 @@ public final class BencodedByteSequence extends BencodedObject implements Compar
      * @return see method description above.
      */
     public String toUTF8String() {
-        return new String(this.sequence, StandardCharsets.UTF_8);
+        if (this.sequence != null) {
+            return new String(this.sequence, StandardCharsets.UTF_8);
+        }
+
+        if (this.fileRegion != null) {
+            return new String(getByteSequence(), StandardCharsets.UTF_8);
+        }
+
+        return StandardCharsets.UTF_8.decode(asByteBuffer()).toString();
     }
 
     /**
-     * Writes the class instance to the output stream.
+     * Writes the class instance to the output stream. Bodies, that are backed by an accessible array,
+     * are written right after the length, short ones are written together with it in a single call.
+     * Other bodies, such as direct buffers and file regions, are copied in chunks by {@link BencodeWriter}.
      *
      * @param os output stream instance.
      * @throws IOException if there's an input/output error occurred.
      */
     @Override
     public void writeObject(OutputStream os) throws IOException {
-
-        final char[] sequenceLengthCharArray = String.valueOf(this.sequence.length).toCharArray();
-        for (char oneChar : sequenceLengthCharArray) {
-            os.write(oneChar);
+        final byte[] bodyArray;
+        final int bodyOffset;
+        if (this.sequence != null) {
+            bodyArray = this.sequence;
+            bodyOffset = 0;
+        } else if (this.region != null && this.region.hasArray()) {
+            bodyArray = this.region.array();
+            bodyOffset = this.region.arrayOffset() + this.region.position();
+        } else {
+            final BencodeWriter writer = new BencodeWriter(os, WRITE_BUFFER_SIZE);
+            writer.write(this);
+            writer.drain();
+            return;
         }
 
-        os.write(DELIMITER);
-        os.write(this.sequence);
+        final int length = length();
+        final int headerLength = BencodeWriter.decimalLength(length) + 1;
+        final boolean inlineBody = length <= MAX_INLINE_BODY_LENGTH;
+        final byte[] encoded = new byte[inlineBody ? headerLength + length : headerLength];
+        BencodeWriter.encodeDecimal(length, encoded, 0);
+        encoded[headerLength - 1] = DELIMITER;
+
+        if (inlineBody) {
+            System.arraycopy(bodyArray, bodyOffset, encoded, headerLength, length);
+            os.write(encoded);
+        } else {
+            os.write(encoded);
+            os.write(bodyArray, bodyOffset, length);
+        }
     }
 }
\ No newline at end of file
@@ -1,12 +1,12 @@
 package com.github.cdefgah.bencoder4j.model;
 
 import com.github.cdefgah.bencoder4j.BencodeFormatException;
-import com.github.cdefgah.bencoder4j.CircularReferenceException;
 import com.github.cdefgah.bencoder4j.io.BencodeStreamIterator;
 import com.github.cdefgah.bencoder4j.io.BencodeStreamReader;
+import com.github.cdefgah.bencoder4j.io.BencodeValidator;
 
 import java.io.IOException;
-import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -19,6 +19,12 @@ import java.util.*;
  * and at least one of the threads modifies the object structurally,
  * it must be synchronized externally.
  * </p>
+ * <p>
+ * Values, that are kept in the encoded form (see {@link #putEncoded}), are decoded on access without
+ * modifying the dictionary, both by get() methods and by the methods, that visit all values, such as
+ * getValuesIterator(), containsValue(), equals(), hashCode() and toString(), so these methods can be called
+ * by several threads at a time. Frozen dictionaries have no encoded values.
+ * </p>
  */
 public final class BencodedDictionary extends BencodedObject {
 
@@ -28,9 +34,27 @@ public final class BencodedDictionary extends BencodedObject {
     public static final char SERIALIZED_PREFIX = 'd';
 
     /**
-     * Dictionary body.
+     * Max size of the array-backed dictionary body, to which a key can be inserted out of order.
+     * Upon such an insertion to a bigger body, it is converted to TreeMap, to avoid quadratic time of
+     * building big dictionaries in random key order.
      */
-    private final Map<BencodedByteSequence, BencodedObject> dictionary = new TreeMap<>();
+    private static final int MAX_OUT_OF_ORDER_INSERTION_SIZE = 1024;
+
+    /**
+     * Validator of the encoded values, it is not reconfigured, so it's shared between threads.
+     */
+    private static final BencodeValidator ENCODED_VALUE_VALIDATOR = new BencodeValidator();
+
+    /**
+     * Dictionary body, sorted by keys. It's backed by sorted arrays, and entries, that arrive in the key order,
+     * as they do in bencoded data, are appended in O(1) time.
+     */
+    private Map<BencodedByteSequence, BencodedObject> dictionary = new SortedArrayMap<>();
+
+    /**
+     * Qty of values, which are kept in the encoded form until the first access.
+     */
+    private int encodedValuesCount;
 
     /**
      * Constructs the class instance.
@@ -67,38 +91,16 @@ public final class BencodedDictionary extends BencodedObject {
     public BencodedDictionary(BencodeStreamReader bsr) throws BencodeFormatException, IOException {
         super();
 
-        if (bsr.read() != SERIALIZED_PREFIX) {
+        if (bsr.peek() != SERIALIZED_PREFIX) {
             throw new BencodeFormatException(
                     "Incorrect stream position, " +
                             "expected prefix character: " + SERIALIZED_PREFIX);
         }
 
-        final BencodeStreamIterator bsi = new BencodeStreamIterator(bsr);
-        while (bsi.hasNext()) {
-
-            BencodedObject bbsKeyObject = bsi.next();
-            if (bbsKeyObject instanceof BencodedByteSequence) {
-                BencodedByteSequence bbsKey = (BencodedByteSequence) bbsKeyObject;
-
-                if (bsi.hasNext()) {
-                    BencodedObject bencodedObject = bsi.next();
-
-                    this.dictionary.put(bbsKey, bencodedObject);
-
-                } else {
-                    throw new BencodeFormatException(
-                            "Unexpected end of the stream for dictionary. 'Key' object is present, " +
-                                    "but 'value' object is not.");
-                }
-            } else {
-                throw new BencodeFormatException("Incorrect object used as dictionary key. Expected: '"
-                        + BencodedByteSequence.class.getCanonicalName() + "' but get: '"
-                        + bbsKeyObject.getClass().getCanonicalName() + "'");
-            }
-        }
-
-        // reading suffix
-        bsr.read();
+        // the iterator registers the dictionary with the reader, so the decode limits are enforced
+        // for the whole dictionary, it also validates the keys
+        final BencodedDictionary decodedDictionary = (BencodedDictionary) new BencodeStreamIterator(bsr).next();
+        this.dictionary = decodedDictionary.dictionary;
     }
 
 
@@ -120,7 +122,7 @@ public final class BencodedDictionary extends BencodedObject {
      */
     public BencodedObject get(BencodedByteSequence keyObject) {
         checkNullKey(keyObject);
-        return this.dictionary.get(keyObject);
+        return decodeValue(this.dictionary.get(keyObject));
     }
 
     /**
@@ -133,7 +135,7 @@ public final class BencodedDictionary extends BencodedObject {
      */
     public BencodedObject get(String key) {
         checkNullKey(key);
-        return this.dictionary.get(new BencodedByteSequence(key));
+        return decodeValue(this.dictionary.get(new BencodedByteSequence(key)));
     }
 
     /**
@@ -147,11 +149,39 @@ public final class BencodedDictionary extends BencodedObject {
     }
 
     /**
-     * Returns the iterator over dictionary keys.
+     * Returns the total encoded length of dictionary keys.
+     *
+     * @return see method description above.
+     */
+    @Override
+    long encodedKeysLength() {
+        long length = 0;
+        for (BencodedByteSequence key : this.dictionary.keySet()) {
+            length += key.encodedLength();
+        }
+
+        return length;
+    }
+
+    /**
+     * Decodes all values, which are kept in the encoded form, and marks the dictionary as frozen.
+     */
+    @Override
+    void markFrozen() {
+        decodeAllValues();
+        super.markFrozen();
+    }
+
+    /**
+     * Returns the iterator over dictionary keys, the iterator of a frozen dictionary does not support removal.
      *
      * @return the iterator over dictionary keys.
      */
     public Iterator<BencodedByteSequence> getKeysIterator() {
+        if (isFrozen()) {
+            return Collections.unmodifiableSet(this.dictionary.keySet()).iterator();
+        }
+
         return this.dictionary.keySet().iterator();
     }
 
@@ -166,7 +196,22 @@ public final class BencodedDictionary extends BencodedObject {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         BencodedDictionary that = (BencodedDictionary) obj;
-        return Objects.equals(dictionary, that.dictionary);
+        if (this.dictionary.size() != that.dictionary.size()) {
+            return false;
+        }
+
+        // both bodies are sorted by keys, so the entries are compared pairwise
+        final Iterator<Map.Entry<BencodedByteSequence, BencodedObject>> thatEntries =
+                that.dictionary.entrySet().iterator();
+        for (Map.Entry<BencodedByteSequence, BencodedObject> entry : this.dictionary.entrySet()) {
+            final Map.Entry<BencodedByteSequence, BencodedObject> thatEntry = thatEntries.next();
+            if (!entry.getKey().equals(thatEntry.getKey())
+                    || !decodeValue(entry.getValue()).equals(decodeValue(thatEntry.getValue()))) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     /**
@@ -176,8 +221,13 @@ public final class BencodedDictionary extends BencodedObject {
      */
     @Override
     public int hashCode() {
+        // the same algorithm as Map.hashCode() uses, applied to the decoded values
+        int result = 0;
+        for (Map.Entry<BencodedByteSequence, BencodedObject> entry : this.dictionary.entrySet()) {
+            result += entry.getKey().hashCode() ^ decodeValue(entry.getValue()).hashCode();
+        }
 
-        return Objects.hash(dictionary);
+        return result;
     }
 
     /**
@@ -185,11 +235,43 @@ public final class BencodedDictionary extends BencodedObject {
      *
      * @param keyObject      key to be used to put the object to the dictionary.
      * @param bencodedObject object, to put to the dictionary.
-     * @throws IllegalArgumentException if either key or value is null.
+     * @throws IllegalArgumentException      if either key or value is null.
+     * @throws UnsupportedOperationException if the dictionary is frozen.
      */
     public void put(BencodedByteSequence keyObject, BencodedObject bencodedObject) {
+        checkNotFrozen();
         checkPutParameters(keyObject, bencodedObject);
-        this.dictionary.put(keyObject, bencodedObject);
+        onValueReplaced(putEntry(keyObject, bencodedObject));
+    }
+
+    /**
+     * Puts an encoded value to the dictionary. The value is kept in the encoded form and is decoded
+     * on the first access, byte sequences of the decoded value refer to the buffer regions
+     * (see {@link BencodedByteSequence#wrap(ByteBuffer)}), so the buffer contents must not be modified.
+     * <p>
+     * The buffer position is not changed. Encoded value is validated upon this call, so the dictionary
+     * is not modified, unless the remaining bytes contain exactly one well-formed bencoded object.
+     * </p>
+     *
+     * @param keyObject    key to be used to put the object to the dictionary.
+     * @param encodedValue buffer, whose remaining bytes contain the encoded value.
+     * @throws IllegalArgumentException      if either key or value is null.
+     * @throws UnsupportedOperationException if the dictionary is frozen.
+     * @throws BencodeFormatException        if the remaining bytes are not a single well-formed bencoded object.
+     */
+    public void putEncoded(BencodedByteSequence keyObject, ByteBuffer encodedValue) throws BencodeFormatException {
+        checkNotFrozen();
+        if (null == keyObject) {
+            throw new IllegalArgumentException("'keyObject' value for BencodedDictionary cannot be null!");
+        }
+
+        if (null == encodedValue) {
+            throw new IllegalArgumentException("'encodedValue' value for BencodedDictionary cannot be null!");
+        }
+
+        ENCODED_VALUE_VALIDATOR.validate(encodedValue);
+        onValueReplaced(putEntry(keyObject, new BencodedLazyValue(encodedValue)));
+        this.encodedValuesCount++;
     }
 
     /**
@@ -198,20 +280,26 @@ public final class BencodedDictionary extends BencodedObject {
      * @param key            key to be used to put the object to the dictionary, the string
      *                       will be converted to BencodedByteSequence instance.
      * @param bencodedObject object, to put to the dictionary.
-     * @throws IllegalArgumentException if either key or value is null.
+     * @throws IllegalArgumentException      if either key or value is null.
+     * @throws UnsupportedOperationException if the dictionary is frozen.
      */
     public void put(String key, BencodedObject bencodedObject) {
+        checkNotFrozen();
         checkPutParameters(key, bencodedObject);
 
         final BencodedByteSequence bbsKey = new BencodedByteSequence(key);
-        this.dictionary.put(bbsKey, bencodedObject);
+        onValueReplaced(putEntry(bbsKey, bencodedObject));
     }
 
     /**
      * Removes all of the mappings from this map. The map will be empty after this call returns.
+     *
+     * @throws UnsupportedOperationException if the dictionary is frozen.
      */
     public void clear() {
+        checkNotFrozen();
         this.dictionary.clear();
+        this.encodedValuesCount = 0;
     }
 
     /**
@@ -254,7 +342,13 @@ public final class BencodedDictionary extends BencodedObject {
             throw new IllegalArgumentException("Null values are not allowed for BencodedDictionary instances");
         }
 
-        return this.dictionary.containsValue(value);
+        for (BencodedObject dictionaryValue : this.dictionary.values()) {
+            if (decodeValue(dictionaryValue).equals(value)) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     /**
@@ -262,11 +356,13 @@ public final class BencodedDictionary extends BencodedObject {
      *
      * @param key key for which mapping should be removed.
      * @return the previous value associated with key, or null if there was no mapping for key.
-     * @throws IllegalArgumentException if key is null.
+     * @throws IllegalArgumentException      if key is null.
+     * @throws UnsupportedOperationException if the dictionary is frozen.
      */
     public BencodedObject remove(BencodedByteSequence key) {
+        checkNotFrozen();
         checkNullKey(key);
-        return this.dictionary.remove(key);
+        return decodeRemovedValue(this.dictionary.remove(key));
     }
 
     /**
@@ -274,11 +370,13 @@ public final class BencodedDictionary extends BencodedObject {
      *
      * @param key key for which mapping should be removed.
      * @return the previous value associated with key, or null if there was no mapping for key.
-     * @throws IllegalArgumentException if key is null.
+     * @throws IllegalArgumentException      if key is null.
+     * @throws UnsupportedOperationException if the dictionary is frozen.
      */
     public BencodedObject remove(String key) {
+        checkNotFrozen();
         checkNullKey(key);
-        return this.dictionary.remove(new BencodedByteSequence(key));
+        return decodeRemovedValue(this.dictionary.remove(new BencodedByteSequence(key)));
     }
 
     /**
@@ -291,12 +389,24 @@ public final class BencodedDictionary extends BencodedObject {
     }
 
     /**
-     * Returns the iterator over dictionary values.
+     * Returns the iterator over dictionary values, the iterator of a frozen dictionary does not support removal.
      *
      * @return the iterator over dictionary values.
      */
     public Iterator<BencodedObject> getValuesIterator() {
-        return this.dictionary.values().iterator();
+        return new DecodingValuesIterator(this.dictionary.values().iterator());
+    }
+
+    /**
+     * Returns the iterator over dictionary values for writing them. Unlike getValuesIterator(), values,
+     * that are kept in the encoded form, are not decoded: they are returned as placeholders, whose
+     * getFrozenForm() method returns the encoded bytes, so the writer copies them as they are.
+     * The iterator does not support removal.
+     *
+     * @return see method description above.
+     */
+    public Iterator<BencodedObject> getEncodedValuesIterator() {
+        return Collections.unmodifiableCollection(this.dictionary.values()).iterator();
     }
 
     /**
@@ -319,11 +429,9 @@ public final class BencodedDictionary extends BencodedObject {
         StringBuilder sb = new StringBuilder();
         sb.append("{\n");
 
-        Iterator<BencodedByteSequence> keysIterator = this.getKeysIterator();
-        while (keysIterator.hasNext()) {
-            BencodedByteSequence key = keysIterator.next();
-            BencodedObject value = dictionary.get(key);
-            sb.append("([").append(key.toString()).append("]:[").append(value.toString()).append("])\n");
+        for (Map.Entry<BencodedByteSequence, BencodedObject> entry : this.dictionary.entrySet()) {
+            sb.append("([").append(entry.getKey().toString()).append("]:[")
+                    .append(decodeValue(entry.getValue()).toString()).append("])\n");
         }
 
         sb.append("}");
@@ -332,26 +440,72 @@ public final class BencodedDictionary extends BencodedObject {
     }
 
     /**
-     * Writes the class instance to the output stream.
+     * Puts the entry to the dictionary body, converting the body to TreeMap, if a key is inserted
+     * out of order to a big array-backed body.
      *
-     * @param os output stream instance.
-     * @throws IOException                if there's an input/output error occurred.
-     * @throws CircularReferenceException if there's a circular reference found upon serializing the object.
+     * @param keyObject      the key.
+     * @param bencodedObject the value.
+     * @return the previous value, or null if there was no mapping for the key.
      */
-    @Override
-    public void writeObject(OutputStream os) throws IOException, CircularReferenceException {
-        super.writeObject(os);
+    private BencodedObject putEntry(BencodedByteSequence keyObject, BencodedObject bencodedObject) {
+        if (this.dictionary instanceof SortedArrayMap
+                && this.dictionary.size() >= MAX_OUT_OF_ORDER_INSERTION_SIZE
+                && !((SortedArrayMap<BencodedByteSequence, BencodedObject>) this.dictionary).isAppendable(keyObject)
+                && !this.dictionary.containsKey(keyObject)) {
+            this.dictionary = new TreeMap<>(this.dictionary);
+        }
+
+        return this.dictionary.put(keyObject, bencodedObject);
+    }
+
+    /**
+     * Decodes the value if it is kept in the encoded form. The dictionary is not modified, the decoded value
+     * is retained by the encoded form, and replaces it upon freezing the dictionary.
+     *
+     * @param value value from the dictionary, may be null.
+     * @return decoded value, or null if the value is null.
+     */
+    private static BencodedObject decodeValue(BencodedObject value) {
+        return value instanceof BencodedLazyValue ? ((BencodedLazyValue) value).decode() : value;
+    }
 
-        os.write(SERIALIZED_PREFIX);
+    /**
+     * Replaces all values, which are kept in the encoded form, with the decoded ones.
+     */
+    private void decodeAllValues() {
+        if (this.encodedValuesCount == 0) {
+            return;
+        }
 
-        Set<BencodedByteSequence> keySet = this.dictionary.keySet();
-        for (BencodedByteSequence key : keySet) {
-            BencodedObject value = this.dictionary.get(key);
-            key.writeObject(os);
-            value.writeObject(os);
+        for (Map.Entry<BencodedByteSequence, BencodedObject> entry : this.dictionary.entrySet()) {
+            if (entry.getValue() instanceof BencodedLazyValue) {
+                entry.setValue(((BencodedLazyValue) entry.getValue()).decode());
+            }
         }
 
-        os.write(SERIALIZED_SUFFIX);
+        this.encodedValuesCount = 0;
+    }
+
+    /**
+     * Decodes the value removed from the dictionary, if it is kept in the encoded form.
+     *
+     * @param removedValue removed value, may be null.
+     * @return decoded value, or null if the value is null.
+     */
+    private BencodedObject decodeRemovedValue(BencodedObject removedValue) {
+        onValueReplaced(removedValue);
+        return removedValue instanceof BencodedLazyValue ? ((BencodedLazyValue) removedValue).decode() : removedValue;
+    }
+
+    /**
+     * Updates the encoded values counter when a value is replaced or removed.
+     *
+     * @param previousValue previous value mapped to the key, may be null.
+     */
+    private void onValueReplaced(BencodedObject previousValue) {
+        if (previousValue instanceof BencodedLazyValue) {
+            this.encodedValuesCount--;
+        }
     }
 
     /**
@@ -381,4 +535,63 @@ public final class BencodedDictionary extends BencodedObject {
             throw new IllegalArgumentException("Null keys are not allowed for BencodedDictionary instances");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Iterator over dictionary values, that decodes the values, which are kept in the encoded form,
+     * without modifying the dictionary.
+     */
+    private final class DecodingValuesIterator implements Iterator<BencodedObject> {
+
+        /**
+         * Iterator over the dictionary body values.
+         */
+        private final Iterator<BencodedObject> values;
+
+        /**
+         * The last value returned by the body iterator, may be in the encoded form.
+         */
+        private BencodedObject lastValue;
+
+        /**
+         * Constructs the iterator.
+         *
+         * @param values iterator over the dictionary body values.
+         */
+        private DecodingValuesIterator(Iterator<BencodedObject> values) {
+            this.values = values;
+        }
+
+        /**
+         * Returns true, if the iteration has more values.
+         *
+         * @return see method description above.
+         */
+        @Override
+        public boolean hasNext() {
+            return this.values.hasNext();
+        }
+
+        /**
+         * Returns the next value, decoding it if it is kept in the encoded form.
+         *
+         * @return see method description above.
+         */
+        @Override
+        public BencodedObject next() {
+            this.lastValue = this.values.next();
+            return decodeValue(this.lastValue);
+        }
+
+        /**
+         * Removes the last returned value from the dictionary.
+         *
+         * @throws UnsupportedOperationException if the dictionary is frozen.
+         */
+        @Override
+        public void remove() {
+            checkNotFrozen();
+            this.values.remove();
+            onValueReplaced(this.lastValue);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.github.cdefgah.bencoder4j.model;
 
 import com.github.cdefgah.bencoder4j.BencodeFormatException;
 import com.github.cdefgah.bencoder4j.io.BencodeStreamReader;
+import com.github.cdefgah.bencoder4j.io.BencodeWriter;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -42,18 +43,7 @@ public final class BencodedInteger extends BencodedObject implements Comparable<
                             "expected prefix character: " + SERIALIZED_PREFIX);
         }
 
-        final String charSequenceBody = bsr.readCharSequence(SERIALIZED_SUFFIX);
-
-        try {
-            this.value = Long.parseLong(charSequenceBody);
-            String checkString = String.valueOf(this.value);
-            if (!charSequenceBody.equals(checkString)) {
-                throw new NumberFormatException();
-            }
-
-        } catch (NumberFormatException nfe) {
-            throw new BencodeFormatException("Incorrect character sequence for the value");
-        }
+        this.value = bsr.readLong(SERIALIZED_SUFFIX);
     }
 
     /**
@@ -139,6 +129,16 @@ public final class BencodedInteger extends BencodedObject implements Comparable<
         return this.value;
     }
 
+    /**
+     * Returns the exact qty of bytes, that writeObject() method produces for the class instance.
+     *
+     * @return see method description above.
+     */
+    @Override
+    public long encodedLength() {
+        return 2 + BencodeWriter.decimalLength(this.value);
+    }
+
     /**
      * Returns the string representation of the class instance.
      *
@@ -150,21 +150,19 @@ public final class BencodedInteger extends BencodedObject implements Comparable<
     }
 
     /**
-     * Writes the class instance to the output stream.
+     * Writes the class instance to the output stream with a single call, the encoded form is composed
+     * in the array of its exact length.
      *
      * @param os output stream instance.
      * @throws IOException if there's an input/output error occurred.
      */
     @Override
     public void writeObject(OutputStream os) throws IOException {
-
-        os.write(SERIALIZED_PREFIX);
-
-        final char[] contentsCharArray = String.valueOf(this.value).toCharArray();
-        for (char oneChar : contentsCharArray) {
-            os.write(oneChar);
-        }
-        os.write(SERIALIZED_SUFFIX);
+        final byte[] encoded = new byte[(int) encodedLength()];
+        encoded[0] = SERIALIZED_PREFIX;
+        BencodeWriter.encodeDecimal(this.value, encoded, 1);
+        encoded[encoded.length - 1] = SERIALIZED_SUFFIX;
+        os.write(encoded);
     }
 
     /**
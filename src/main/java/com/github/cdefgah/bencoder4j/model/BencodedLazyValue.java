@@ -0,0 +1,104 @@
+package com.github.cdefgah.bencoder4j.model;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.io.BencodeBufferDecoder;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Placeholder for a dictionary value, which is kept in the encoded form until the first access.
+ * The value is decoded once, and the decoded value is published safely, so the placeholder
+ * can be accessed by several threads at a time.
+ *
+ * @see BencodedDictionary#putEncoded(BencodedByteSequence, ByteBuffer)
+ */
+final class BencodedLazyValue extends BencodedObject {
+
+    /**
+     * Buffer region with the encoded value.
+     */
+    private final ByteBuffer encodedValue;
+
+    /**
+     * Decoded value, or null if the value is not decoded yet.
+     */
+    private volatile BencodedObject decodedValue;
+
+    /**
+     * Constructs the class instance.
+     *
+     * @param encodedValue buffer, whose remaining bytes contain the encoded value.
+     */
+    BencodedLazyValue(ByteBuffer encodedValue) {
+        super();
+        this.encodedValue = encodedValue.slice();
+    }
+
+    /**
+     * Returns the qty of bytes in the encoded value, the value is not decoded.
+     *
+     * @return see method description above.
+     */
+    @Override
+    public long encodedLength() {
+        return this.encodedValue.remaining();
+    }
+
+    /**
+     * Returns read-only buffer with the encoded value, so writers copy the value as it is, without decoding it.
+     *
+     * @return see method description above.
+     */
+    @Override
+    public ByteBuffer getFrozenForm() {
+        return this.encodedValue.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the decoded value, decoding it on the first call. Byte sequences of the decoded value
+     * refer to the buffer regions, and nested dictionaries are decoded lazily as well.
+     * All calls return the same instance.
+     *
+     * @return decoded value.
+     * @throws IllegalStateException if the value is not correctly bencoded.
+     */
+    BencodedObject decode() {
+        BencodedObject value = this.decodedValue;
+        if (value != null) {
+            return value;
+        }
+
+        synchronized (this) {
+            value = this.decodedValue;
+            if (value == null) {
+                value = decodeEncodedValue();
+                this.decodedValue = value;
+            }
+
+            return value;
+        }
+    }
+
+    /**
+     * Decodes the encoded value.
+     *
+     * @return decoded value.
+     * @throws IllegalStateException if the value is not correctly bencoded.
+     */
+    private BencodedObject decodeEncodedValue() {
+        final BencodeBufferDecoder decoder = new BencodeBufferDecoder(this.encodedValue);
+        decoder.setSliceByteSequences(true);
+        decoder.setLazyDictionaries(true);
+
+        try {
+            final BencodedObject value = decoder.next();
+            if (decoder.hasNext()) {
+                throw new IllegalStateException("Encoded dictionary value contains more than one bencoded object");
+            }
+
+            return value;
+        } catch (BencodeFormatException bfe) {
+            throw new IllegalStateException("Encoded dictionary value cannot be decoded", bfe);
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package com.github.cdefgah.bencoder4j.model;
 
 import com.github.cdefgah.bencoder4j.BencodeFormatException;
-import com.github.cdefgah.bencoder4j.CircularReferenceException;
 import com.github.cdefgah.bencoder4j.io.BencodeStreamIterator;
 import com.github.cdefgah.bencoder4j.io.BencodeStreamReader;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.util.*;
 
 /**
@@ -68,19 +66,15 @@ public final class BencodedList extends BencodedObject implements Iterable<Benco
             throws IOException, BencodeFormatException {
         super();
 
-        if (bsr.read() != SERIALIZED_PREFIX) {
+        if (bsr.peek() != SERIALIZED_PREFIX) {
             throw new BencodeFormatException(
                     "Incorrect stream position, " +
                             "expected prefix character: " + SERIALIZED_PREFIX);
         }
 
-        final BencodeStreamIterator bsi = new BencodeStreamIterator(bsr);
-        while (bsi.hasNext()) {
-            listContents.add(bsi.next());
-        }
-
-        // reading suffix
-        bsr.read();
+        // the iterator registers the list with the reader, so the decode limits are enforced for the whole list
+        final BencodedList decodedList = (BencodedList) new BencodeStreamIterator(bsr).next();
+        listContents.addAll(decodedList.listContents);
     }
 
     /**
@@ -92,31 +86,14 @@ public final class BencodedList extends BencodedObject implements Iterable<Benco
         return true;
     }
 
-    /**
-     * Writes the class instance to the output stream.
-     *
-     * @param os output stream instance.
-     * @throws IOException                if there's an input/output error occurred.
-     * @throws CircularReferenceException if there's a circular reference found
-     *                                    upon serializing the object.
-     */
-    @Override
-    public void writeObject(OutputStream os) throws IOException, CircularReferenceException {
-        super.writeObject(os);
-
-        os.write(SERIALIZED_PREFIX);
-        for (BencodedObject bencodedObject : listContents) {
-            bencodedObject.writeObject(os);
-        }
-        os.write(SERIALIZED_SUFFIX);
-    }
-
     /**
      * Adds an object to the list.
      *
      * @param bo the object to be added.
+     * @throws UnsupportedOperationException if the list is frozen.
      */
     public void add(BencodedObject bo) {
+        checkNotFrozen();
         checkObjectToBeAdded(bo);
         this.listContents.add(bo);
     }
@@ -126,8 +103,10 @@ public final class BencodedList extends BencodedObject implements Iterable<Benco
      *
      * @param index index to be used to add the object.
      * @param bo    the object to be added.
+     * @throws UnsupportedOperationException if the list is frozen.
      */
     public void add(int index, BencodedObject bo) {
+        checkNotFrozen();
         checkObjectToBeAdded(bo);
         this.listContents.add(index, bo);
     }
@@ -148,8 +127,10 @@ public final class BencodedList extends BencodedObject implements Iterable<Benco
      *
      * @param index index of the object to be removed.
      * @return reference to the removed object.
+     * @throws UnsupportedOperationException if the list is frozen.
      */
     public BencodedObject remove(int index) {
+        checkNotFrozen();
         checkListIndex(index);
         return listContents.remove(index);
     }
@@ -159,15 +140,20 @@ public final class BencodedList extends BencodedObject implements Iterable<Benco
      *
      * @param bencodedObject object to be removed.
      * @return true if object has been removed from the list.
+     * @throws UnsupportedOperationException if the list is frozen.
      */
     public boolean remove(BencodedObject bencodedObject) {
+        checkNotFrozen();
         return listContents.remove(bencodedObject);
     }
 
     /**
      * Clears the list contents.
+     *
+     * @throws UnsupportedOperationException if the list is frozen.
      */
     public void clear() {
+        checkNotFrozen();
         listContents.clear();
     }
 
@@ -201,12 +187,16 @@ public final class BencodedList extends BencodedObject implements Iterable<Benco
     }
 
     /**
-     * Returns the iterator over the list contents.
+     * Returns the iterator over the list contents, the iterator of a frozen list does not support removal.
      *
      * @return the iterator over the list contents.
      */
     @Override
     public Iterator<BencodedObject> iterator() {
+        if (isFrozen()) {
+            return Collections.unmodifiableList(listContents).iterator();
+        }
+
         return listContents.iterator();
     }
 
@@ -1,12 +1,14 @@
 package com.github.cdefgah.bencoder4j.model;
 
 import com.github.cdefgah.bencoder4j.CircularReferenceException;
+import com.github.cdefgah.bencoder4j.io.BencodeWriter;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.IdentityHashMap;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.*;
 
 /**
  * Abstract parent object for all bencoded objects.
@@ -20,6 +22,20 @@ public abstract class BencodedObject {
      */
     public static final char SERIALIZED_SUFFIX = 'e';
 
+    /**
+     * Max length of the encoded form, that can be cached upon freezing.
+     */
+    private static final long MAX_FROZEN_FORM_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * True, if the list or dictionary is frozen and cannot be modified.
+     */
+    private boolean frozen;
+
+    /**
+     * Cached encoded form of the frozen list or dictionary, null if it's not cached.
+     */
+    private byte[] frozenForm;
 
     /**
      * Returns true, if the class instance contains either list or dictionary.
@@ -32,7 +48,6 @@ public abstract class BencodedObject {
 
     /**
      * Returns the collection of composite object values (list or dictionary values).
-     * This collection is being used for checking on circular references.
      * <p>
      *     By default returns empty collection (for non-composite objects).
      *
@@ -44,56 +59,194 @@ public abstract class BencodedObject {
 
 
     /**
-     * Writes the class instance to the output stream, we're calling this method only from composite class instances,
-     * i.e from BencodedList and BencodedDictionary. Calling from BencodedInteger and from BencodedByteSequence does
-     * not make sense, because the circular reference verification method always returns false for
-     * non-composite classes.
+     * Returns the exact qty of bytes, that writeObject() method produces for the class instance, so the output
+     * can be allocated or announced before the object is written. Integers and byte sequences calculate it
+     * in O(1) time. Lists and dictionaries are traversed iteratively, and dictionary values, that are kept
+     * in the encoded form, are not decoded.
      *
-     * @param os output stream instance.
-     * @throws IOException                if there's an input/output error occurred.
-     * @throws CircularReferenceException if there's a circular reference detected upon writing to the stream.
+     * @return see method description above.
+     * @throws CircularReferenceException if there's a circular reference found in the list or dictionary.
      */
-    void writeObject(OutputStream os) throws IOException, CircularReferenceException {
+    public long encodedLength() throws CircularReferenceException {
+        if (this.frozenForm != null) {
+            return this.frozenForm.length;
+        }
 
-        // we're passing null to isCircularReferenceDetected() method, because we have no parent nodes list
-        // when we call this method. But we'll have this parent nodes list on subsequent recursive calls
-        // and we'll provide a non-null parameter in this case.
-        if (this.isCircularReferenceDetected(null)) {
-            throw new CircularReferenceException(
-                    "Upon writing to stream, circular reference found in " + this.getClass().getCanonicalName());
+        final Deque<BencodedObject> containers = new ArrayDeque<>();
+        final Deque<Iterator<BencodedObject>> values = new ArrayDeque<>();
+        final Set<BencodedObject> openContainers = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        long length = openContainer(this, containers, values, openContainers);
+        while (!values.isEmpty()) {
+            final Iterator<BencodedObject> iterator = values.peek();
+            if (!iterator.hasNext()) {
+                values.pop();
+                openContainers.remove(containers.pop());
+                continue;
+            }
+
+            final BencodedObject value = iterator.next();
+            if (value.isCompositeObject() && value.frozenForm == null) {
+                length += openContainer(value, containers, values, openContainers);
+            } else {
+                length += value.encodedLength();
+            }
         }
-    }
 
+        return length;
+    }
 
     /**
-     * Checks if a circular reference detected, and returns true if it is.
+     * Freezes the list or dictionary with all nested lists and dictionaries, and caches its encoded form,
+     * so every subsequent writing of the object, or of any object, that contains it, copies the cached bytes
+     * in bulk instead of encoding the object again. Methods, that modify a frozen object, throw
+     * UnsupportedOperationException, so the cached form cannot become stale. Dictionary values, that are
+     * kept in the encoded form, are decoded. The call has no effect on integers and byte sequences.
+     * <p>
+     * Nested objects are frozen, but their encoded forms are cached only if this method is called for them.
+     * Please note that byte sequences, that wrap a buffer or a file region, share its contents, so the
+     * contents must not be modified after freezing.
+     * </p>
      *
-     * @param parentNodes parent nodes map to track circular references, specify null for the top first call.
-     * @return true if a circular reference is detected.
+     * @throws CircularReferenceException if there's a circular reference found in the list or dictionary,
+     *                                    nothing is frozen in this case.
+     * @throws IllegalStateException      if the encoded form is too large to be cached.
      */
-    private boolean isCircularReferenceDetected(IdentityHashMap<BencodedObject, String> parentNodes) {
-        boolean foundCircularReference = false;
+    public void freeze() throws CircularReferenceException {
+        if (!isCompositeObject() || this.frozenForm != null) {
+            return;
+        }
 
-        if (parentNodes == null) {
-            parentNodes = new IdentityHashMap<>();
+        final long length = encodedLength();
+        if (length > MAX_FROZEN_FORM_LENGTH) {
+            throw new IllegalStateException("Encoded form is too large to be cached: " + length);
         }
 
-        parentNodes.put(this, "");
+        freezeNestedContainers();
 
-        final Collection<BencodedObject> values = getCompositeValues();
-        for (BencodedObject bencodedObject : values) {
-            if (bencodedObject.isCompositeObject()) {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream((int) length);
+        try {
+            final BencodeWriter writer = new BencodeWriter(baos);
+            writer.write(this);
+            writer.drain();
+        } catch (IOException e) {
+            // the object is written to memory, so the exception is not expected here
+            throw new UncheckedIOException("Frozen object cannot be encoded", e);
+        }
+
+        this.frozenForm = baos.toByteArray();
+    }
 
-                foundCircularReference = parentNodes.containsKey(bencodedObject)
-                        || bencodedObject.isCircularReferenceDetected(parentNodes);
-                if (foundCircularReference) {
-                    break;
+    /**
+     * Returns true, if the list or dictionary is frozen. Integers and byte sequences are never frozen.
+     *
+     * @return see method description above.
+     */
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Returns read-only buffer with the cached encoded form of the frozen list or dictionary.
+     *
+     * @return see method description above, or null if the encoded form is not cached.
+     */
+    public ByteBuffer getFrozenForm() {
+        return this.frozenForm != null ? ByteBuffer.wrap(this.frozenForm).asReadOnlyBuffer() : null;
+    }
+
+    /**
+     * Marks the list or dictionary as frozen.
+     */
+    void markFrozen() {
+        this.frozen = true;
+    }
+
+    /**
+     * Checks that the object is not frozen before it is modified.
+     *
+     * @throws UnsupportedOperationException if the object is frozen.
+     */
+    void checkNotFrozen() {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Frozen object cannot be modified");
+        }
+    }
+
+    /**
+     * Marks the class instance and all nested lists and dictionaries as frozen. Frozen nested objects
+     * are skipped, since their contents are frozen already.
+     */
+    private void freezeNestedContainers() {
+        final Deque<BencodedObject> pendingContainers = new ArrayDeque<>();
+        pendingContainers.push(this);
+        while (!pendingContainers.isEmpty()) {
+            final BencodedObject container = pendingContainers.pop();
+            if (container.frozen) {
+                continue;
+            }
+
+            container.markFrozen();
+            for (BencodedObject value : container.getCompositeValues()) {
+                if (value.isCompositeObject() && !value.frozen) {
+                    pendingContainers.push(value);
                 }
             }
         }
+    }
+
+    /**
+     * Returns the total encoded length of dictionary keys, by default returns zero (for non-dictionary objects).
+     *
+     * @return see method description above.
+     */
+    long encodedKeysLength() {
+        return 0; // by default, for non-dictionary objects
+    }
+
+    /**
+     * Pushes the list or dictionary and its values iterator to the stacks.
+     *
+     * @param container      list or dictionary.
+     * @param containers     stack of the open containers.
+     * @param values         stack of the open containers values iterators.
+     * @param openContainers identity set of the open containers.
+     * @return encoded length of the container prefix, suffix and dictionary keys.
+     * @throws CircularReferenceException if the container is open already.
+     */
+    private static long openContainer(BencodedObject container, Deque<BencodedObject> containers,
+                                      Deque<Iterator<BencodedObject>> values, Set<BencodedObject> openContainers)
+            throws CircularReferenceException {
+
+        if (!openContainers.add(container)) {
+            throw new CircularReferenceException(
+                    "Upon calculating encoded length, circular reference found in " +
+                            container.getClass().getCanonicalName());
+        }
 
-        parentNodes.remove(this);
+        containers.push(container);
+        values.push(container.getCompositeValues().iterator());
+        return 2 + container.encodedKeysLength();
+    }
+
+    /**
+     * Writes the class instance to the output stream. Nested objects are written iteratively in a single pass
+     * by {@link BencodeWriter}, that checks for circular references upon entering every list or dictionary,
+     * so each object is visited once. The cached encoded form of a frozen list or dictionary is passed
+     * to the output stream as it is. The output stream is not flushed.
+     *
+     * @param os output stream instance.
+     * @throws IOException                if there's an input/output error occurred.
+     * @throws CircularReferenceException if there's a circular reference detected upon writing to the stream.
+     */
+    public void writeObject(OutputStream os) throws IOException, CircularReferenceException {
+        if (this.frozenForm != null) {
+            os.write(this.frozenForm);
+            return;
+        }
 
-        return foundCircularReference;
+        final BencodeWriter writer = new BencodeWriter(os);
+        writer.write(this);
+        writer.drain();
     }
-}
\ No newline at end of file
+}
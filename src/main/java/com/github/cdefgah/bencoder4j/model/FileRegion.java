@@ -0,0 +1,166 @@
+package com.github.cdefgah.bencoder4j.model;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+
+/**
+ * Region of a file channel, that holds a byte sequence body. The bytes are read from the channel on demand
+ * with positional reads, so the channel position is never changed, and the region can be read concurrently.
+ */
+final class FileRegion {
+
+    /**
+     * Size of the chunk used to read the region.
+     */
+    static final int CHUNK_SIZE = 8192;
+
+    /**
+     * Channel with the region.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Channel position of the region start.
+     */
+    private final long offset;
+
+    /**
+     * Region length.
+     */
+    private final int length;
+
+    /**
+     * Constructs the class instance.
+     *
+     * @param channel channel with the region.
+     * @param offset  channel position of the region start.
+     * @param length  region length.
+     */
+    FileRegion(FileChannel channel, long offset, int length) {
+        this.channel = channel;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Returns the region length.
+     *
+     * @return see method description above.
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Reads the whole region to a new array.
+     *
+     * @return see method description above.
+     * @throws IOException if there's an input/output error occurred, or the region exceeds the file.
+     */
+    byte[] readAll() throws IOException {
+        final ByteBuffer body = ByteBuffer.allocate(length);
+        read(0, body);
+        return body.array();
+    }
+
+    /**
+     * Maps the region to memory in read-only mode.
+     *
+     * @return read-only buffer with the region contents.
+     * @throws IOException if there's an input/output error occurred, or the region exceeds the file.
+     */
+    ByteBuffer map() throws IOException {
+        // mapping beyond the file end would extend the file, if the channel is writable
+        if (offset + length > channel.size()) {
+            throw new EOFException("Unexpected end of the file region");
+        }
+
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+    }
+
+    /**
+     * Updates the message digest with the region contents.
+     *
+     * @param messageDigest message digest to be updated.
+     * @throws IOException if there's an input/output error occurred, or the region exceeds the file.
+     */
+    void updateDigest(MessageDigest messageDigest) throws IOException {
+        final ByteBuffer chunk = ByteBuffer.allocate(Math.min(length, CHUNK_SIZE));
+        for (long position = 0; position < length; position += chunk.limit()) {
+            readChunk(position, chunk);
+            messageDigest.update(chunk);
+        }
+    }
+
+    /**
+     * Writes the region contents to the channel in chunks, the channel should be in blocking mode.
+     *
+     * @param target channel to write to.
+     * @throws IOException if there's an input/output error occurred, or the region exceeds the file.
+     */
+    void writeTo(WritableByteChannel target) throws IOException {
+        final ByteBuffer chunk = ByteBuffer.allocate(Math.min(length, CHUNK_SIZE));
+        for (long position = 0; position < length; position += chunk.limit()) {
+            readChunk(position, chunk);
+            while (chunk.hasRemaining()) {
+                target.write(chunk);
+            }
+        }
+    }
+
+    /**
+     * Calculates the hash code of the region contents, using the same algorithm as Arrays.hashCode() does.
+     *
+     * @return see method description above.
+     * @throws IOException if there's an input/output error occurred, or the region exceeds the file.
+     */
+    int contentHashCode() throws IOException {
+        int result = 1;
+        final ByteBuffer chunk = ByteBuffer.allocate(Math.min(length, CHUNK_SIZE));
+        for (long position = 0; position < length; position += chunk.remaining()) {
+            readChunk(position, chunk);
+            for (int i = 0; i < chunk.remaining(); i++) {
+                result = 31 * result + chunk.get(i);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads the chunk of the region, starting at the position, to the buffer, and flips the buffer.
+     *
+     * @param position region position of the chunk.
+     * @param chunk    buffer to read to, its capacity is the max chunk length.
+     * @throws IOException if there's an input/output error occurred, or the region exceeds the file.
+     */
+    void readChunk(long position, ByteBuffer chunk) throws IOException {
+        chunk.clear();
+        chunk.limit((int) Math.min(chunk.capacity(), length - position));
+        read(position, chunk);
+        chunk.flip();
+    }
+
+    /**
+     * Fills the remaining bytes of the buffer with the region contents, starting at the position.
+     *
+     * @param position region position to read from.
+     * @param target   buffer to be filled.
+     * @throws IOException if there's an input/output error occurred, or the region exceeds the file.
+     */
+    private void read(long position, ByteBuffer target) throws IOException {
+        long channelPosition = offset + position;
+        while (target.hasRemaining()) {
+            final int bytesRead = channel.read(target, channelPosition);
+            if (bytesRead == -1) {
+                throw new EOFException("Unexpected end of the file region");
+            }
+
+            channelPosition += bytesRead;
+        }
+    }
+}
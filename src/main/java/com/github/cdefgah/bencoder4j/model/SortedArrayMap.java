@@ -0,0 +1,602 @@
+package com.github.cdefgah.bencoder4j.model;
+
+import java.util.*;
+
+/**
+ * Map, that keeps its entries in two parallel arrays of keys and values, sorted by the keys.
+ * <p>
+ * Bencoded dictionaries arrive with the keys already sorted, so the entries are appended to the arrays
+ * in O(1) time, and no per-entry nodes are allocated, as opposed to TreeMap. Lookups use binary search.
+ * Keys, that are put out of order, are inserted by shifting the tail of the arrays.
+ * </p>
+ *
+ * @param <K> type of keys.
+ * @param <V> type of values.
+ */
+final class SortedArrayMap<K extends Comparable<? super K>, V> extends AbstractMap<K, V> {
+
+    /**
+     * Initial capacity of the arrays.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Sorted keys.
+     */
+    private Object[] keys = new Object[INITIAL_CAPACITY];
+
+    /**
+     * Values, indexed the same way as the keys.
+     */
+    private Object[] values = new Object[INITIAL_CAPACITY];
+
+    /**
+     * Qty of entries.
+     */
+    private int size;
+
+    /**
+     * Qty of structural modifications, used to detect concurrent modifications upon iteration.
+     */
+    private int modCount;
+
+    /**
+     * Entry set view, created on the first access.
+     */
+    private EntrySet entrySet;
+
+    /**
+     * Key set view, created on the first access.
+     */
+    private KeySet keySetView;
+
+    /**
+     * Values view, created on the first access.
+     */
+    private Values valuesView;
+
+    /**
+     * Returns true, if the key is greater than all keys of the map, so putting it appends the entry.
+     *
+     * @param key the key.
+     * @return see method description above.
+     */
+    boolean isAppendable(K key) {
+        return size == 0 || key.compareTo(keyAt(size - 1)) > 0;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return see method description above.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if this map contains a mapping for the specified key.
+     *
+     * @param key the key.
+     * @return see method description above.
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Returns the value, mapped to the key.
+     *
+     * @param key the key.
+     * @return the value, or null if there's no mapping for the key.
+     */
+    @Override
+    public V get(Object key) {
+        final int index = indexOf(key);
+        return index >= 0 ? valueAt(index) : null;
+    }
+
+    /**
+     * Maps the value to the key, appending the entry if the key is greater than all keys of the map.
+     *
+     * @param key   the key.
+     * @param value the value.
+     * @return the previous value, or null if there was no mapping for the key.
+     */
+    @Override
+    public V put(K key, V value) {
+        if (isAppendable(key)) {
+            insertAt(size, key, value);
+            return null;
+        }
+
+        final int index = binarySearch(key);
+        if (index >= 0) {
+            final V previousValue = valueAt(index);
+            values[index] = value;
+            return previousValue;
+        }
+
+        insertAt(-(index + 1), key, value);
+        return null;
+    }
+
+    /**
+     * Removes the mapping for the key if present.
+     *
+     * @param key the key.
+     * @return the previous value, or null if there was no mapping for the key.
+     */
+    @Override
+    public V remove(Object key) {
+        final int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+
+        final V previousValue = valueAt(index);
+        removeAt(index);
+        return previousValue;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns the set view of the mappings, iterated in the key order.
+     *
+     * @return see method description above.
+     */
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+
+        return entrySet;
+    }
+
+    /**
+     * Returns the set view of the keys, iterated in their order.
+     *
+     * @return see method description above.
+     */
+    @Override
+    public Set<K> keySet() {
+        if (keySetView == null) {
+            keySetView = new KeySet();
+        }
+
+        return keySetView;
+    }
+
+    /**
+     * Returns the collection view of the values, iterated in the key order.
+     *
+     * @return see method description above.
+     */
+    @Override
+    public Collection<V> values() {
+        if (valuesView == null) {
+            valuesView = new Values();
+        }
+
+        return valuesView;
+    }
+
+    /**
+     * Returns the index of the key.
+     *
+     * @param key the key, may be of any type.
+     * @return the index, or a negative value if the key is absent.
+     */
+    @SuppressWarnings("unchecked")
+    private int indexOf(Object key) {
+        if (key == null || size == 0) {
+            return -1;
+        }
+
+        try {
+            return binarySearch((K) key);
+        } catch (ClassCastException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Searches the key among the sorted keys.
+     *
+     * @param key the key.
+     * @return the key index, or (-(insertion point) - 1) if the key is absent.
+     */
+    private int binarySearch(K key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int comparison = keyAt(middle).compareTo(key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    /**
+     * Inserts the entry at the index, shifting the following entries.
+     *
+     * @param index index of the new entry.
+     * @param key   the key.
+     * @param value the value.
+     */
+    private void insertAt(int index, K key, V value) {
+        if (size == keys.length) {
+            final int capacity = size + (size >>> 1);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(values, index, values, index + 1, size - index);
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Removes the entry at the index, shifting the following entries.
+     *
+     * @param index index of the entry.
+     */
+    private void removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        modCount++;
+    }
+
+    /**
+     * Returns the key at the index.
+     *
+     * @param index the index.
+     * @return see method description above.
+     */
+    @SuppressWarnings("unchecked")
+    private K keyAt(int index) {
+        return (K) keys[index];
+    }
+
+    /**
+     * Returns the value at the index.
+     *
+     * @param index the index.
+     * @return see method description above.
+     */
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    /**
+     * Set view of the mappings.
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        /**
+         * Returns the iterator over the mappings in the key order.
+         *
+         * @return see method description above.
+         */
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        /**
+         * Returns the number of mappings.
+         *
+         * @return see method description above.
+         */
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Removes all of the mappings.
+         */
+        @Override
+        public void clear() {
+            SortedArrayMap.this.clear();
+        }
+    }
+
+    /**
+     * Set view of the keys.
+     */
+    private final class KeySet extends AbstractSet<K> {
+
+        /**
+         * Returns the iterator over the keys in their order.
+         *
+         * @return see method description above.
+         */
+        @Override
+        public Iterator<K> iterator() {
+            return new IndexIterator<K>() {
+                @Override
+                public K next() {
+                    return keyAt(nextEntryIndex());
+                }
+            };
+        }
+
+        /**
+         * Returns true, if the map contains the key.
+         *
+         * @param key the key.
+         * @return see method description above.
+         */
+        @Override
+        public boolean contains(Object key) {
+            return containsKey(key);
+        }
+
+        /**
+         * Returns the number of keys.
+         *
+         * @return see method description above.
+         */
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Removes all of the mappings.
+         */
+        @Override
+        public void clear() {
+            SortedArrayMap.this.clear();
+        }
+    }
+
+    /**
+     * Collection view of the values.
+     */
+    private final class Values extends AbstractCollection<V> {
+
+        /**
+         * Returns the iterator over the values in the key order.
+         *
+         * @return see method description above.
+         */
+        @Override
+        public Iterator<V> iterator() {
+            return new IndexIterator<V>() {
+                @Override
+                public V next() {
+                    return valueAt(nextEntryIndex());
+                }
+            };
+        }
+
+        /**
+         * Returns the number of values.
+         *
+         * @return see method description above.
+         */
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Removes all of the mappings.
+         */
+        @Override
+        public void clear() {
+            SortedArrayMap.this.clear();
+        }
+    }
+
+    /**
+     * Iterator over the entry indexes, that supports removal and detects concurrent modifications.
+     *
+     * @param <E> type of the iterated elements.
+     */
+    private abstract class IndexIterator<E> implements Iterator<E> {
+
+        /**
+         * Index of the next entry.
+         */
+        private int nextIndex;
+
+        /**
+         * Index of the last returned entry, or -1 if there's no such one.
+         */
+        int lastIndex = -1;
+
+        /**
+         * Expected qty of structural modifications of the map.
+         */
+        private int expectedModCount = modCount;
+
+        /**
+         * Returns true, if there are more entries.
+         *
+         * @return see method description above.
+         */
+        @Override
+        public boolean hasNext() {
+            return nextIndex < size;
+        }
+
+        /**
+         * Removes the last returned entry.
+         */
+        @Override
+        public void remove() {
+            if (lastIndex < 0) {
+                throw new IllegalStateException();
+            }
+
+            checkForModification();
+            removeAt(lastIndex);
+            nextIndex = lastIndex;
+            lastIndex = -1;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Advances the iterator.
+         *
+         * @return index of the next entry.
+         * @throws NoSuchElementException          if there are no more entries.
+         * @throws ConcurrentModificationException if the map has been modified.
+         */
+        int nextEntryIndex() {
+            checkForModification();
+            if (nextIndex >= size) {
+                throw new NoSuchElementException();
+            }
+
+            lastIndex = nextIndex++;
+            return lastIndex;
+        }
+
+        /**
+         * Checks that the map has not been structurally modified bypassing the iterator.
+         *
+         * @throws ConcurrentModificationException if the map has been modified.
+         */
+        void checkForModification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Iterator over the mappings. It returns the same entry, which refers to the last returned mapping,
+     * so no entry is allocated per mapping, and the entry writes values through to the map.
+     * The entry is valid until the next call of next() or remove() method.
+     */
+    private final class EntryIterator extends IndexIterator<Map.Entry<K, V>> implements Map.Entry<K, V> {
+
+        /**
+         * Returns the entry, which refers to the next mapping.
+         *
+         * @return see method description above.
+         */
+        @Override
+        public Map.Entry<K, V> next() {
+            nextEntryIndex();
+            return this;
+        }
+
+        /**
+         * Returns the key of the current mapping.
+         *
+         * @return see method description above.
+         */
+        @Override
+        public K getKey() {
+            return keyAt(currentIndex());
+        }
+
+        /**
+         * Returns the value of the current mapping.
+         *
+         * @return see method description above.
+         */
+        @Override
+        public V getValue() {
+            return valueAt(currentIndex());
+        }
+
+        /**
+         * Replaces the value of the current mapping.
+         *
+         * @param value new value.
+         * @return the previous value.
+         */
+        @Override
+        public V setValue(V value) {
+            final int index = currentIndex();
+            final V previousValue = valueAt(index);
+            values[index] = value;
+            return previousValue;
+        }
+
+        /**
+         * Compares the current mapping with another entry, as specified by Map.Entry.
+         *
+         * @param obj another entry.
+         * @return true, if the entries are equal.
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Map.Entry)) {
+                return false;
+            }
+
+            final Map.Entry<?, ?> that = (Map.Entry<?, ?>) obj;
+            return Objects.equals(getKey(), that.getKey()) && Objects.equals(getValue(), that.getValue());
+        }
+
+        /**
+         * Calculates the hashcode of the current mapping, as specified by Map.Entry.
+         *
+         * @return see method description above.
+         */
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        /**
+         * Returns the string representation of the current mapping.
+         *
+         * @return see method description above.
+         */
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+
+        /**
+         * Returns the index of the current mapping.
+         *
+         * @return see method description above.
+         * @throws IllegalStateException           if there's no current mapping.
+         * @throws ConcurrentModificationException if the map has been modified.
+         */
+        private int currentIndex() {
+            if (lastIndex < 0) {
+                throw new IllegalStateException();
+            }
+
+            checkForModification();
+            return lastIndex;
+        }
+    }
+}
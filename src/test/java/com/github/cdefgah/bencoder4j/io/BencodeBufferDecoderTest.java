@@ -0,0 +1,440 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.CircularReferenceException;
+import com.github.cdefgah.bencoder4j.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BencodeBufferDecoderTest {
+
+    @Test
+    void tryingToGetNextElementOnExhaustedDecoder() {
+        BencodeBufferDecoder decoder = new BencodeBufferDecoder(ByteBuffer.allocate(0));
+
+        assertFalse(decoder.hasNext());
+        assertThrows(NoSuchElementException.class, decoder::next,
+                "Decoder behaves incorrectly upon getting the next element when it is exhausted");
+    }
+
+    @Test
+    void decodingVariousObjectsFromHeapBuffer() throws BencodeFormatException {
+        BencodeBufferDecoder decoder = new BencodeBufferDecoder(toBuffer("i-15e3:123li2eed3:abci5ee"));
+
+        BencodedObject bencodedObject1 = decoder.next();
+        BencodedObject bencodedObject2 = decoder.next();
+        BencodedObject bencodedObject3 = decoder.next();
+        BencodedObject bencodedObject4 = decoder.next();
+
+        assertAll("Validating decoded objects",
+                () -> assertEquals(-15, ((BencodedInteger) bencodedObject1).getValue()),
+                () -> assertEquals("123", ((BencodedByteSequence) bencodedObject2).toUTF8String()),
+                () -> assertEquals(new BencodedInteger(2), ((BencodedList) bencodedObject3).get(0)),
+                () -> assertEquals(new BencodedInteger(5), ((BencodedDictionary) bencodedObject4).get("abc")),
+                () -> assertFalse(decoder.hasNext())
+        );
+    }
+
+    @Test
+    void decodingDoesNotChangeBufferPosition() throws BencodeFormatException {
+        ByteBuffer buffer = toBuffer("xxi42e");
+        buffer.position(2);
+
+        BencodeBufferDecoder decoder = new BencodeBufferDecoder(buffer);
+        assertEquals(new BencodedInteger(42), decoder.next());
+
+        assertAll("Validating buffer and decoder positions",
+                () -> assertEquals(2, buffer.position()),
+                () -> assertEquals(6, decoder.getPosition())
+        );
+    }
+
+    @Test
+    void decodingFromDirectBufferWithSlicing() throws BencodeFormatException {
+        byte[] contents = "d4:name5:value5:piecei7ee".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(contents.length);
+        buffer.put(contents);
+        buffer.flip();
+
+        BencodeBufferDecoder decoder = new BencodeBufferDecoder(buffer);
+        decoder.setSliceByteSequences(true);
+
+        BencodedDictionary dictionary = (BencodedDictionary) decoder.next();
+        BencodedByteSequence name = (BencodedByteSequence) dictionary.get("name");
+
+        assertAll("Validating sliced byte sequence",
+                () -> assertTrue(decoder.isSliceByteSequences()),
+                () -> assertEquals("value", name.toUTF8String()),
+                () -> assertEquals(new BencodedByteSequence("value"), name),
+                () -> assertTrue(name.asByteBuffer().isDirect()),
+                () -> assertEquals(new BencodedInteger(7), dictionary.get("piece"))
+        );
+    }
+
+    @Test
+    void slicedByteSequencesShareBufferContents() throws BencodeFormatException {
+        ByteBuffer buffer = toBuffer("3:abc");
+
+        BencodeBufferDecoder slicingDecoder = new BencodeBufferDecoder(buffer);
+        slicingDecoder.setSliceByteSequences(true);
+        BencodedByteSequence sliced = (BencodedByteSequence) slicingDecoder.next();
+        BencodedByteSequence copied = (BencodedByteSequence) new BencodeBufferDecoder(buffer).next();
+
+        buffer.put(3, (byte) 'x');
+
+        assertAll("Validating byte sequence contents after the buffer modification",
+                () -> assertEquals("axc", sliced.toUTF8String()),
+                () -> assertEquals("abc", copied.toUTF8String())
+        );
+    }
+
+    @Test
+    void decodingFromMemoryMappedFile() throws IOException, BencodeFormatException {
+        Path path = Files.createTempFile("bencoder4j", ".torrent");
+        try {
+            Files.write(path, "d8:announce3:url4:infod4:name4:fileee".getBytes(StandardCharsets.UTF_8));
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+                BencodeBufferDecoder decoder = new BencodeBufferDecoder(mappedBuffer);
+                decoder.setSliceByteSequences(true);
+
+                BencodedDictionary dictionary = (BencodedDictionary) decoder.next();
+                BencodedDictionary info = (BencodedDictionary) dictionary.get("info");
+
+                assertAll("Validating objects decoded from mapped file",
+                        () -> assertEquals("url", ((BencodedByteSequence) dictionary.get("announce")).toUTF8String()),
+                        () -> assertEquals(new BencodedByteSequence("file"), info.get("name"))
+                );
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void decodingIntegerLimits() throws BencodeFormatException {
+        BencodeBufferDecoder decoder =
+                new BencodeBufferDecoder(toBuffer("i9223372036854775807ei-9223372036854775808ei0e"));
+
+        assertAll("Validating integer limits",
+                () -> assertEquals(new BencodedInteger(Long.MAX_VALUE), decoder.next()),
+                () -> assertEquals(new BencodedInteger(Long.MIN_VALUE), decoder.next()),
+                () -> assertEquals(new BencodedInteger(0), decoder.next())
+        );
+    }
+
+    @Test
+    void decodingIncorrectIntegers() {
+        String[] incorrectIntegers = {"i03e", "i-0e", "ie", "i-e", "i1xe", "i9223372036854775808e",
+                "i-9223372036854775809e"};
+
+        for (String incorrectInteger : incorrectIntegers) {
+            BencodeFormatException exception = assertThrows(BencodeFormatException.class, () ->
+                            new BencodeBufferDecoder(toBuffer(incorrectInteger)).next(),
+                    "Decoder behaves incorrectly on incorrect integer: " + incorrectInteger);
+
+            assertEquals("Incorrect character sequence for the value",
+                    exception.getMessage(),
+                    "Unexpected message in correctly thrown exception");
+        }
+    }
+
+    @Test
+    void decodingIntegerWithMissingSuffix() {
+        assertDecodingFails("i3", "Stop symbol: 'e' was not reached");
+    }
+
+    @Test
+    void decodingByteSequenceWithIncorrectLength() {
+        assertDecodingFails("5:1234", "Unexpected end of the byte sequence stream");
+        assertDecodingFails("03:abc", "BencodedByteSequence length cannot be converted to a numeric value");
+        assertDecodingFails("5x:1234", "BencodedByteSequence length cannot be converted to a numeric value");
+        assertDecodingFails("12", "Stop symbol: ':' was not reached");
+    }
+
+    @Test
+    void decodingIncorrectContainers() {
+        assertDecodingFails("x", "Unexpected character in the stream: x");
+        assertDecodingFails("li1e", "Unexpected end of the stream");
+        assertDecodingFails("d3:aaai3e", "Unexpected end of the stream");
+        assertDecodingFails("d2:aae",
+                "Unexpected end of the stream for dictionary. 'Key' object is present, but 'value' object is not.");
+        assertDecodingFails("di1ei2ee", "Incorrect object used as dictionary key. Expected: '" +
+                BencodedByteSequence.class.getCanonicalName() + "' but get: '" +
+                BencodedInteger.class.getCanonicalName() + "'");
+    }
+
+    @Test
+    void lazyDictionaryDecodesValuesOnFirstAccess() throws BencodeFormatException {
+        ByteBuffer buffer = toBuffer("d8:announcei1e4:infod6:pieces4:abcdee");
+
+        BencodeBufferDecoder decoder = new BencodeBufferDecoder(buffer);
+        decoder.setLazyDictionaries(true);
+        BencodedDictionary dictionary = (BencodedDictionary) decoder.next();
+
+        // the value is still in the encoded form, so the change is visible upon the first access
+        buffer.put(12, (byte) '7');
+
+        BencodedDictionary info = (BencodedDictionary) dictionary.get("info");
+
+        assertAll("Validating lazily decoded values",
+                () -> assertTrue(decoder.isLazyDictionaries()),
+                () -> assertEquals(new BencodedInteger(7), dictionary.get("announce")),
+                () -> assertEquals(new BencodedByteSequence("abcd"), info.get("pieces")),
+                () -> assertEquals(2, dictionary.size()),
+                () -> assertFalse(decoder.hasNext())
+        );
+    }
+
+    @Test
+    void lazyDictionaryEqualsEagerlyDecodedOne() throws IOException, BencodeFormatException,
+            CircularReferenceException {
+        String contents = "d1:ali1e2:bce1:bd1:xi-3ee1:c3:xyze";
+
+        BencodeBufferDecoder lazyDecoder = new BencodeBufferDecoder(toBuffer(contents));
+        lazyDecoder.setLazyDictionaries(true);
+        BencodedDictionary lazyDictionary = (BencodedDictionary) lazyDecoder.next();
+        BencodedDictionary eagerDictionary = (BencodedDictionary) new BencodeBufferDecoder(toBuffer(contents)).next();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        lazyDictionary.writeObject(baos);
+
+        assertAll("Comparing lazily and eagerly decoded dictionaries",
+                () -> assertEquals(eagerDictionary, lazyDictionary),
+                () -> assertEquals(eagerDictionary.hashCode(), lazyDictionary.hashCode()),
+                () -> assertEquals(eagerDictionary.toString(), lazyDictionary.toString()),
+                () -> assertEquals(contents, new String(baos.toByteArray(), StandardCharsets.UTF_8))
+        );
+    }
+
+    @Test
+    void lazyDictionaryValidatesValuesUponDecoding() {
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class, () -> {
+            BencodeBufferDecoder decoder = new BencodeBufferDecoder(toBuffer("d1:ali03eee"));
+            decoder.setLazyDictionaries(true);
+            decoder.next();
+        }, "Lazy decoder behaves incorrectly on incorrect dictionary value");
+
+        assertEquals("Incorrect character sequence for the value",
+                exception.getMessage(),
+                "Unexpected message in correctly thrown exception");
+
+        assertLazyDecodingFails("d1:ad1:ae1:be",
+                "Unexpected end of the stream for dictionary. 'Key' object is present, but 'value' object is not.");
+        assertLazyDecodingFails("d1:ad1:ai1eli1eei1eee", "Incorrect object used as dictionary key. Expected: '" +
+                BencodedByteSequence.class.getCanonicalName() + "' but get: '" +
+                BencodedList.class.getCanonicalName() + "'");
+        assertLazyDecodingFails("d1:a5:abce", "Unexpected end of the byte sequence stream");
+    }
+
+    @Test
+    void decodingListInParallel() throws BencodeFormatException {
+        StringBuilder sb = new StringBuilder("l");
+        for (int i = 0; i < 10000; i++) {
+            sb.append("d2:idi").append(i).append("e4:name").append(String.valueOf(i).length() + 1)
+                    .append(":n").append(i).append("e");
+        }
+
+        String streamContents = sb.append("ei7e").toString();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BencodeBufferDecoder decoder = new BencodeBufferDecoder(toBuffer(streamContents));
+            decoder.setSliceByteSequences(true);
+            BencodedList parallelList = decoder.nextList(pool);
+
+            BencodedList sequentialList = (BencodedList) new BencodeBufferDecoder(toBuffer(streamContents)).next();
+
+            assertAll("Validating list decoded in parallel",
+                    () -> assertEquals(sequentialList, parallelList),
+                    () -> assertEquals(9999,
+                            ((BencodedInteger) ((BencodedDictionary) parallelList.get(9999)).get("id")).getValue()),
+                    () -> assertEquals(7, ((BencodedInteger) decoder.next()).getValue()),
+                    () -> assertFalse(decoder.hasNext())
+            );
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void decodingIncorrectListInParallel() {
+        String[][] incorrectContents = {
+                {"i1e", "Incorrect stream position, expected prefix character: l"},
+                {"li1ei2e", "Unexpected end of the stream"},
+                {"li1ei2xe", "Incorrect character sequence for the value"}
+        };
+
+        for (String[] incorrectContent : incorrectContents) {
+            BencodeFormatException exception = assertThrows(BencodeFormatException.class, () ->
+                            new BencodeBufferDecoder(toBuffer(incorrectContent[0])).nextList(ForkJoinPool.commonPool()),
+                    "Decoder behaves incorrectly on incorrect contents: " + incorrectContent[0]);
+
+            assertEquals(incorrectContent[1], exception.getMessage(),
+                    "Unexpected message in correctly thrown exception");
+        }
+
+        assertThrows(NoSuchElementException.class, () ->
+                        new BencodeBufferDecoder(toBuffer("")).nextList(ForkJoinPool.commonPool()),
+                "Decoder behaves incorrectly upon decoding the list when it is exhausted");
+    }
+
+    /**
+     * Checks that lazy decoding of the provided contents fails with the expected message.
+     *
+     * @param contents        contents to decode.
+     * @param expectedMessage expected exception message.
+     */
+    private static void assertLazyDecodingFails(String contents, String expectedMessage) {
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class, () -> {
+            BencodeBufferDecoder decoder = new BencodeBufferDecoder(toBuffer(contents));
+            decoder.setLazyDictionaries(true);
+            decoder.next();
+        }, "Lazy decoder behaves incorrectly on incorrect contents: " + contents);
+
+        assertEquals(expectedMessage, exception.getMessage(), "Unexpected message in correctly thrown exception");
+    }
+
+    /**
+     * Checks that decoding of the provided contents fails with the expected message.
+     *
+     * @param contents        contents to decode.
+     * @param expectedMessage expected exception message.
+     */
+    private static void assertDecodingFails(String contents, String expectedMessage) {
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class, () ->
+                        new BencodeBufferDecoder(toBuffer(contents)).next(),
+                "Decoder behaves incorrectly on incorrect contents: " + contents);
+
+        assertEquals(expectedMessage, exception.getMessage(), "Unexpected message in correctly thrown exception");
+    }
+
+    /**
+     * Wraps string bytes into a buffer.
+     *
+     * @param contents string contents.
+     * @return buffer with string bytes.
+     */
+    private static ByteBuffer toBuffer(String contents) {
+        return ByteBuffer.wrap(contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exceedingDecodeLimits() {
+        DecodeLimits decodeLimits = new DecodeLimits(3, 5, 2, 4);
+
+        assertAll("Exceeding decode limits is processed incorrectly",
+                () -> assertLimitExceeded("4:abcd", decodeLimits, "Byte sequence length exceeds the limit: 3"),
+                () -> assertLimitExceeded("l3:abc3:defe", decodeLimits,
+                        "Total byte sequences length exceeds the limit: 5"),
+                () -> assertLimitExceeded("llli1eeee", decodeLimits, "Nesting depth exceeds the limit: 2"),
+                () -> assertLimitExceeded("li1ei2ei3ei4ee", decodeLimits, "Elements count exceeds the limit: 4")
+        );
+    }
+
+    @Test
+    void decodeLimitsAreAppliedToEveryTopLevelObject() throws BencodeFormatException {
+        BencodeBufferDecoder decoder = new BencodeBufferDecoder(toBuffer("l3:abc2:dee" + "l3:abc2:dee"));
+        decoder.setDecodeLimits(new DecodeLimits(3, 5, 1, 3));
+
+        assertAll("Decode limits are applied incorrectly to top-level objects",
+                () -> assertEquals(2, ((BencodedList) decoder.next()).size()),
+                () -> assertEquals(2, ((BencodedList) decoder.next()).size()),
+                () -> assertThrows(IllegalArgumentException.class, () -> decoder.setDecodeLimits(null))
+        );
+    }
+
+    @Test
+    void decodeLimitsAreEnforcedForLazyValuesAndParallelLists() {
+        DecodeLimits decodeLimits = new DecodeLimits(10, 100, 2, 100);
+
+        BencodeBufferDecoder lazyDecoder = new BencodeBufferDecoder(toBuffer("d1:alli1eeee"));
+        lazyDecoder.setLazyDictionaries(true);
+        lazyDecoder.setDecodeLimits(decodeLimits);
+
+        BencodeBufferDecoder parallelDecoder = new BencodeBufferDecoder(toBuffer("li1elli1eeee"));
+        parallelDecoder.setDecodeLimits(decodeLimits);
+
+        assertAll("Decode limits are enforced incorrectly",
+                () -> assertEquals("Nesting depth exceeds the limit: 2",
+                        assertThrows(BencodeFormatException.class, lazyDecoder::next).getMessage()),
+                () -> assertEquals("Nesting depth exceeds the limit: 2",
+                        assertThrows(BencodeFormatException.class,
+                                () -> parallelDecoder.nextList(ForkJoinPool.commonPool())).getMessage())
+        );
+    }
+
+    @Test
+    void decodingDeeplyNestedObjects() throws BencodeFormatException {
+        final int depth = 300000;
+        String streamContents = "l" + composeDeeplyNestedObject(depth) + "i7ee";
+
+        BencodedList eagerList = (BencodedList) new BencodeBufferDecoder(toBuffer(streamContents)).next();
+
+        BencodeBufferDecoder lazyDecoder = new BencodeBufferDecoder(toBuffer(streamContents));
+        lazyDecoder.setLazyDictionaries(true);
+        BencodedList lazyList = (BencodedList) lazyDecoder.next();
+
+        BencodedList parallelList = new BencodeBufferDecoder(toBuffer(streamContents))
+                .nextList(ForkJoinPool.commonPool());
+
+        BencodedObject bencodedObject = eagerList.get(0);
+        int decodedDepth = 0;
+        while (bencodedObject.isCompositeObject()) {
+            bencodedObject = bencodedObject instanceof BencodedList ?
+                    ((BencodedList) bencodedObject).get(0) : ((BencodedDictionary) bencodedObject).get("a");
+            decodedDepth++;
+        }
+
+        final BencodedObject innermostObject = bencodedObject;
+        final int innermostDepth = decodedDepth;
+        assertAll("Validating deeply nested objects",
+                () -> assertEquals(depth, innermostDepth, "Deeply nested object is decoded incorrectly"),
+                () -> assertEquals(new BencodedInteger(42), innermostObject),
+                () -> assertEquals(new BencodedInteger(7), lazyList.get(1), "Lazy decoding is incorrect"),
+                () -> assertEquals(new BencodedInteger(7), parallelList.get(1), "Parallel decoding is incorrect")
+        );
+    }
+
+    /**
+     * Composes the object, that consists of lists and dictionaries nested in each other.
+     *
+     * @param depth qty of nested lists and dictionaries.
+     * @return see method description above.
+     */
+    static String composeDeeplyNestedObject(int depth) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            sb.append(i % 2 == 0 ? "l" : "d1:a");
+        }
+        sb.append("i42e");
+        for (int i = 0; i < depth; i++) {
+            sb.append('e');
+        }
+
+        return sb.toString();
+    }
+
+    private static void assertLimitExceeded(String contents, DecodeLimits decodeLimits, String expectedMessage) {
+        BencodeBufferDecoder decoder = new BencodeBufferDecoder(toBuffer(contents));
+        decoder.setDecodeLimits(decodeLimits);
+
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class, decoder::next,
+                "Exceeded limit is not detected for: " + contents);
+        assertEquals(expectedMessage, exception.getMessage());
+    }
+}
@@ -0,0 +1,159 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.BencodedByteSequence;
+import com.github.cdefgah.bencoder4j.model.BencodedDictionary;
+import com.github.cdefgah.bencoder4j.model.BencodedInteger;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BencodeDigestDecoderTest {
+
+    // keys of the info dictionary are not sorted, so serializing it back would change the digest
+    private static final String INFO_VALUE = "d4:name4:test6:lengthi42e12:piece lengthi16384ee";
+
+    private static final String STREAM_CONTENTS = "d8:announce3:url4:info" + INFO_VALUE + "7:comment2:abe";
+
+    @Test
+    void digestingValueFromStream() throws IOException, BencodeFormatException, NoSuchAlgorithmException {
+        BencodeDigestDecoder decoder = new BencodeDigestDecoder("info", "SHA-1", "SHA-256");
+        BencodeDigestResult result = decoder.decode(
+                new ByteArrayInputStream(STREAM_CONTENTS.getBytes(StandardCharsets.UTF_8)));
+
+        assertDigestResult(result);
+    }
+
+    @Test
+    void digestingValueFromBuffer() throws BencodeFormatException, NoSuchAlgorithmException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(STREAM_CONTENTS.length() + 2);
+        buffer.put((byte) 'x').put(STREAM_CONTENTS.getBytes(StandardCharsets.UTF_8)).put((byte) 'x');
+        buffer.position(1);
+
+        BencodeDigestDecoder decoder = new BencodeDigestDecoder("info", "SHA-1", "SHA-256");
+        BencodeDigestResult result = decoder.decode(buffer);
+
+        assertDigestResult(result);
+        assertEquals(1, buffer.position(), "Buffer position should not be changed");
+    }
+
+    @Test
+    void decodingWithinDecodeLimits() throws IOException, BencodeFormatException, NoSuchAlgorithmException {
+        // the longest byte sequence is "piece length", the whole dictionary holds 13 objects
+        DecodeLimits decodeLimits = new DecodeLimits(12, 50, 2, 13);
+        BencodeDigestDecoder decoder = new BencodeDigestDecoder("info", decodeLimits, "SHA-1", "SHA-256");
+        byte[] contents = STREAM_CONTENTS.getBytes(StandardCharsets.UTF_8);
+
+        assertDigestResult(decoder.decode(new ByteArrayInputStream(contents)));
+        assertDigestResult(decoder.decode(ByteBuffer.wrap(contents)));
+
+        DecodeLimits[] exceededLimits = {
+                new DecodeLimits(11, 50, 2, 13),
+                new DecodeLimits(12, 49, 2, 13),
+                new DecodeLimits(12, 50, 1, 13),
+                new DecodeLimits(12, 50, 2, 12)
+        };
+
+        for (DecodeLimits exceededLimit : exceededLimits) {
+            BencodeDigestDecoder limitedDecoder = new BencodeDigestDecoder("info", exceededLimit, "SHA-1");
+            assertAll("Validating exceeded decode limits",
+                    () -> assertThrows(BencodeFormatException.class,
+                            () -> limitedDecoder.decode(new ByteArrayInputStream(contents))),
+                    () -> assertThrows(BencodeFormatException.class,
+                            () -> limitedDecoder.decode(ByteBuffer.wrap(contents)))
+            );
+        }
+    }
+
+    @Test
+    void decodingWithoutDigestedKey() throws IOException, BencodeFormatException {
+        BencodeDigestDecoder decoder = new BencodeDigestDecoder("missing", "SHA-1");
+        BencodeDigestResult result = decoder.decode(
+                new ByteArrayInputStream(STREAM_CONTENTS.getBytes(StandardCharsets.UTF_8)));
+
+        assertAll("Validating result without digested key",
+                () -> assertFalse(result.isDigested()),
+                () -> assertNull(result.getDigest()),
+                () -> assertEquals(3, result.getDictionary().size())
+        );
+    }
+
+    @Test
+    void incorrectArgumentsAreNotAllowed() {
+        assertThrows(IllegalArgumentException.class, () -> new BencodeDigestDecoder(null, "SHA-1"),
+                "Decoder constructor behaves incorrectly on null key");
+        assertThrows(IllegalArgumentException.class, () -> new BencodeDigestDecoder("info"),
+                "Decoder constructor behaves incorrectly on absent algorithms");
+        assertThrows(IllegalArgumentException.class,
+                () -> new BencodeDigestDecoder("info", (DecodeLimits) null, "SHA-1"),
+                "Decoder constructor behaves incorrectly on null decode limits");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                        new BencodeDigestDecoder("info", "NO-SUCH-DIGEST"),
+                "Decoder constructor behaves incorrectly on unsupported algorithm");
+
+        assertEquals("Unsupported digest algorithm: NO-SUCH-DIGEST",
+                exception.getMessage(),
+                "Unexpected message in correctly thrown exception");
+    }
+
+    @Test
+    void decodingIncorrectContents() {
+        String[][] incorrectContents = {
+                {"li1ee", "Incorrect stream position, expected prefix character: d"},
+                {"d4:info", "Unexpected end of the stream"},
+                {"d4:infoe", "Unexpected end of the stream for dictionary. 'Key' object is present, " +
+                        "but 'value' object is not."},
+        };
+
+        for (String[] incorrectContent : incorrectContents) {
+            BencodeDigestDecoder decoder = new BencodeDigestDecoder("info", "SHA-1");
+            byte[] contents = incorrectContent[0].getBytes(StandardCharsets.UTF_8);
+
+            BencodeFormatException streamException = assertThrows(BencodeFormatException.class, () ->
+                            decoder.decode(new ByteArrayInputStream(contents)),
+                    "Decoder behaves incorrectly on incorrect stream contents: " + incorrectContent[0]);
+
+            BencodeFormatException bufferException = assertThrows(BencodeFormatException.class, () ->
+                            decoder.decode(ByteBuffer.wrap(contents)),
+                    "Decoder behaves incorrectly on incorrect buffer contents: " + incorrectContent[0]);
+
+            assertEquals(incorrectContent[1], streamException.getMessage(),
+                    "Unexpected message in correctly thrown exception");
+            assertEquals(incorrectContent[1], bufferException.getMessage(),
+                    "Unexpected message in correctly thrown exception");
+        }
+    }
+
+    /**
+     * Checks the decoded dictionary and digests of the reference contents.
+     *
+     * @param result result to check.
+     * @throws NoSuchAlgorithmException if digest algorithm is not supported.
+     */
+    private static void assertDigestResult(BencodeDigestResult result) throws NoSuchAlgorithmException {
+        byte[] infoBytes = INFO_VALUE.getBytes(StandardCharsets.UTF_8);
+        byte[] expectedSha1 = MessageDigest.getInstance("SHA-1").digest(infoBytes);
+        byte[] expectedSha256 = MessageDigest.getInstance("SHA-256").digest(infoBytes);
+
+        BencodedDictionary dictionary = result.getDictionary();
+        BencodedDictionary info = (BencodedDictionary) dictionary.get("info");
+
+        assertAll("Validating decoded dictionary and digests",
+                () -> assertTrue(result.isDigested()),
+                () -> assertArrayEquals(expectedSha1, result.getDigest()),
+                () -> assertArrayEquals(expectedSha1, result.getDigest("SHA-1")),
+                () -> assertArrayEquals(expectedSha256, result.getDigest("SHA-256")),
+                () -> assertThrows(IllegalArgumentException.class, () -> result.getDigest("MD5")),
+                () -> assertEquals("url", ((BencodedByteSequence) dictionary.get("announce")).toUTF8String()),
+                () -> assertEquals(42, ((BencodedInteger) info.get("length")).getValue())
+        );
+    }
+}
@@ -0,0 +1,181 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BencodeFeedDecoderTest {
+
+    private static final String STREAM_CONTENTS =
+            "d1:ad2:id20:abcdefghij0123456789e1:q4:ping1:t2:aa1:y1:qei-1234567890eli0e0:le3:xyzdee";
+
+    @Test
+    void decodingWholeFragment() throws BencodeFormatException {
+        BencodeFeedDecoder decoder = new BencodeFeedDecoder();
+        List<BencodedObject> decodedObjects = decoder.feed(toBuffer(STREAM_CONTENTS));
+
+        assertAll("Validating objects decoded from the whole fragment",
+                () -> assertEquals(decodeReference(), decodedObjects),
+                () -> assertFalse(decoder.hasIncompleteObject())
+        );
+    }
+
+    @Test
+    void decodingFragmentsOfAnySize() throws BencodeFormatException {
+        List<BencodedObject> referenceObjects = decodeReference();
+        byte[] contents = STREAM_CONTENTS.getBytes(StandardCharsets.UTF_8);
+
+        for (int fragmentSize = 1; fragmentSize <= contents.length; fragmentSize++) {
+            BencodeFeedDecoder decoder = new BencodeFeedDecoder();
+            List<BencodedObject> decodedObjects = new ArrayList<>();
+
+            for (int offset = 0; offset < contents.length; offset += fragmentSize) {
+                ByteBuffer fragment = ByteBuffer.wrap(contents, offset, Math.min(fragmentSize, contents.length - offset));
+                decodedObjects.addAll(decoder.feed(fragment));
+                assertFalse(fragment.hasRemaining());
+            }
+
+            assertEquals(referenceObjects, decodedObjects, "Unexpected objects for fragment size: " + fragmentSize);
+            assertFalse(decoder.hasIncompleteObject());
+        }
+    }
+
+    @Test
+    void incompleteObjectIsRetained() throws BencodeFormatException {
+        BencodeFeedDecoder decoder = new BencodeFeedDecoder();
+
+        assertTrue(decoder.feed(toBuffer("li12")).isEmpty());
+        assertTrue(decoder.hasIncompleteObject());
+
+        assertTrue(decoder.feed(toBuffer("3e4:ab")).isEmpty());
+        assertTrue(decoder.hasIncompleteObject());
+
+        List<BencodedObject> decodedObjects = decoder.feed(toBuffer("cde"));
+
+        BencodedList expectedList = new BencodedList();
+        expectedList.add(new BencodedInteger(123));
+        expectedList.add(new BencodedByteSequence("abcd"));
+
+        assertAll("Validating object completed by the last fragment",
+                () -> assertEquals(1, decodedObjects.size()),
+                () -> assertEquals(expectedList, decodedObjects.get(0)),
+                () -> assertFalse(decoder.hasIncompleteObject())
+        );
+    }
+
+    @Test
+    void decodingIncorrectIntegers() {
+        String[] incorrectIntegers = {"i03e", "i-0e", "ie", "i-e", "i1-e", "i--1e", "i1xe",
+                "i9223372036854775808e", "i-9223372036854775809e"};
+
+        for (String incorrectInteger : incorrectIntegers) {
+            assertDecodingFails(incorrectInteger, "Incorrect character sequence for the value");
+        }
+    }
+
+    @Test
+    void decodingIncorrectByteSequences() {
+        assertDecodingFails("03:abc", "BencodedByteSequence length cannot be converted to a numeric value");
+        assertDecodingFails("5x:1234", "BencodedByteSequence length cannot be converted to a numeric value");
+        assertDecodingFails("2147483648:", "BencodedByteSequence length cannot be converted to a numeric value");
+    }
+
+    @Test
+    void decodingIncorrectContainers() {
+        assertDecodingFails("x", "Unexpected character in the stream: x");
+        assertDecodingFails("e", "Unexpected character in the stream: e");
+        assertDecodingFails("d2:aae",
+                "Unexpected end of the stream for dictionary. 'Key' object is present, but 'value' object is not.");
+        assertDecodingFails("dli1eei2ee", "Incorrect object used as dictionary key. Expected: '" +
+                BencodedByteSequence.class.getCanonicalName() + "' but get: '" +
+                BencodedList.class.getCanonicalName() + "'");
+    }
+
+    /**
+     * Checks that decoding of the provided contents fails with the expected message.
+     *
+     * @param contents        contents to decode.
+     * @param expectedMessage expected exception message.
+     */
+    private static void assertDecodingFails(String contents, String expectedMessage) {
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class, () ->
+                        new BencodeFeedDecoder().feed(toBuffer(contents)),
+                "Decoder behaves incorrectly on incorrect contents: " + contents);
+
+        assertEquals(expectedMessage, exception.getMessage(), "Unexpected message in correctly thrown exception");
+    }
+
+    /**
+     * Decodes the reference stream contents using buffer decoder.
+     *
+     * @return decoded objects.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private static List<BencodedObject> decodeReference() throws BencodeFormatException {
+        BencodeBufferDecoder decoder = new BencodeBufferDecoder(toBuffer(STREAM_CONTENTS));
+        List<BencodedObject> referenceObjects = new ArrayList<>();
+        while (decoder.hasNext()) {
+            referenceObjects.add(decoder.next());
+        }
+
+        return referenceObjects;
+    }
+
+    /**
+     * Wraps string bytes into a buffer.
+     *
+     * @param contents string contents.
+     * @return buffer with string bytes.
+     */
+    private static ByteBuffer toBuffer(String contents) {
+        return ByteBuffer.wrap(contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void hostileLengthDoesNotAllocateClaimedBody() throws BencodeFormatException {
+        BencodeFeedDecoder decoder = new BencodeFeedDecoder();
+
+        assertAll("Truncated byte sequence with huge length is processed incorrectly",
+                () -> assertTrue(decoder.feed(toBuffer("2000000000:abc")).isEmpty()),
+                () -> assertTrue(decoder.hasIncompleteObject())
+        );
+    }
+
+    @Test
+    void exceedingDecodeLimits() {
+        DecodeLimits decodeLimits = new DecodeLimits(3, 5, 2, 4);
+
+        assertAll("Exceeding decode limits is processed incorrectly",
+                () -> assertLimitExceeded("4:abcd", decodeLimits, "Byte sequence length exceeds the limit: 3"),
+                () -> assertLimitExceeded("l3:abc3:defe", decodeLimits,
+                        "Total byte sequences length exceeds the limit: 5"),
+                () -> assertLimitExceeded("llli1eeee", decodeLimits, "Nesting depth exceeds the limit: 2"),
+                () -> assertLimitExceeded("li1ei2ei3ei4ee", decodeLimits, "Elements count exceeds the limit: 4")
+        );
+    }
+
+    @Test
+    void decodeLimitsAreAppliedToEveryTopLevelObject() throws BencodeFormatException {
+        BencodeFeedDecoder decoder = new BencodeFeedDecoder();
+        decoder.setDecodeLimits(new DecodeLimits(3, 5, 1, 3));
+
+        assertEquals(2, decoder.feed(toBuffer("l3:abc2:dee" + "l3:abc2:dee")).size(),
+                "Decode limits are applied incorrectly to top-level objects");
+    }
+
+    private static void assertLimitExceeded(String contents, DecodeLimits decodeLimits, String expectedMessage) {
+        BencodeFeedDecoder decoder = new BencodeFeedDecoder();
+        decoder.setDecodeLimits(decodeLimits);
+
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class,
+                () -> decoder.feed(toBuffer(contents)), "Exceeded limit is not detected for: " + contents);
+        assertEquals(expectedMessage, exception.getMessage());
+    }
+}
@@ -0,0 +1,215 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.CircularReferenceException;
+import com.github.cdefgah.bencoder4j.model.BencodedByteSequence;
+import com.github.cdefgah.bencoder4j.model.BencodedDictionary;
+import com.github.cdefgah.bencoder4j.model.BencodedInteger;
+import com.github.cdefgah.bencoder4j.model.BencodedList;
+import com.github.cdefgah.bencoder4j.model.BencodedObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BencodeGatheringEncoderTest {
+
+    @Test
+    void largeByteSequencesAreReferencedWithoutCopying() throws IOException, CircularReferenceException {
+        byte[] pieces = new byte[5000];
+        new Random(3).nextBytes(pieces);
+
+        BencodedDictionary dictionary = new BencodedDictionary();
+        dictionary.put("name", new BencodedByteSequence("small"));
+        dictionary.put("pieces", BencodedByteSequence.wrap(ByteBuffer.wrap(pieces)));
+        dictionary.put("piece length", new BencodedInteger(262144));
+
+        ByteBuffer[] buffers = new BencodeGatheringEncoder().encode(dictionary);
+
+        assertAll("Ensuring large byte sequence is referenced as a separate buffer",
+                () -> assertArrayEquals(writeToArray(dictionary), concatenate(buffers)),
+                () -> assertEquals(3, buffers.length),
+                () -> assertEquals(ByteBuffer.wrap(pieces), buffers[1]),
+                () -> assertTrue(buffers[1].isReadOnly())
+        );
+
+        pieces[0]++;
+        assertEquals(pieces[0], buffers[1].get(0), "Referenced buffer does not share the byte sequence contents");
+    }
+
+    @Test
+    void smallByteSequencesAreCopiedToScratchBuffers() throws CircularReferenceException, IOException {
+        BencodedList list = new BencodedList();
+        for (int i = 0; i < 500; i++) {
+            list.add(new BencodedByteSequence("item" + i));
+            list.add(new BencodedInteger(-i));
+        }
+
+        ByteBuffer[] buffers = new BencodeGatheringEncoder(64).encode(list);
+
+        assertAll("Ensuring small objects are collected to scratch buffers",
+                () -> assertArrayEquals(writeToArray(list), concatenate(buffers)),
+                () -> assertTrue(buffers.length > 1)
+        );
+    }
+
+    @Test
+    void objectIsWrittenToGatheringChannel() throws IOException, CircularReferenceException {
+        byte[] peers = new byte[3000];
+        new Random(5).nextBytes(peers);
+
+        BencodedDictionary dictionary = new BencodedDictionary();
+        dictionary.put("interval", new BencodedInteger(1800));
+        dictionary.put("peers", new BencodedByteSequence(peers));
+        dictionary.put("peers6", BencodedByteSequence.wrap(ByteBuffer.allocateDirect(2000)));
+
+        byte[] expected = writeToArray(dictionary);
+        BencodeGatheringEncoder encoder = new BencodeGatheringEncoder(128);
+
+        TricklingChannel tricklingChannel = new TricklingChannel();
+        long bytesWritten = encoder.write(dictionary, tricklingChannel);
+
+        Path file = Files.createTempFile("bencoder4j", ".bencode");
+        try {
+            try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                encoder.write(dictionary, fileChannel);
+            }
+
+            byte[] fileContents = Files.readAllBytes(file);
+            assertAll("Ensuring the object is written completely",
+                    () -> assertEquals(expected.length, bytesWritten),
+                    () -> assertArrayEquals(expected, tricklingChannel.bytes.toByteArray()),
+                    () -> assertArrayEquals(expected, fileContents)
+            );
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void circularReferenceIsDetected() {
+        BencodedList list = new BencodedList();
+        list.add(list);
+
+        assertThrows(CircularReferenceException.class, () -> new BencodeGatheringEncoder().encode(list),
+                "Encoder should throw circular reference exception, but it does not");
+    }
+
+    @Test
+    void nonBlockingChannelsAreRejected() throws IOException {
+        Pipe pipe = Pipe.open();
+        try {
+            Pipe.SinkChannel sink = pipe.sink();
+            sink.configureBlocking(false);
+
+            BencodedByteSequence byteSequence = new BencodedByteSequence("example");
+            BencodeWriter writer = new BencodeWriter(sink);
+            writer.write(byteSequence);
+
+            assertAll("Ensuring non-blocking channels are not written in a busy loop",
+                    () -> assertThrows(IllegalBlockingModeException.class,
+                            () -> new BencodeGatheringEncoder().write(byteSequence, sink)),
+                    () -> assertThrows(IllegalBlockingModeException.class, writer::flush),
+                    () -> assertThrows(IllegalBlockingModeException.class, () -> byteSequence.writeBody(sink))
+            );
+        } finally {
+            pipe.sink().close();
+            pipe.source().close();
+        }
+    }
+
+    @Test
+    void incorrectArgumentsAreNotAllowed() {
+        assertAll("Ensuring incorrect arguments are not allowed",
+                () -> assertThrows(IllegalArgumentException.class, () -> new BencodeGatheringEncoder(31)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new BencodeGatheringEncoder().encode(null)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new BencodeGatheringEncoder().write(new BencodedInteger(1), null))
+        );
+    }
+
+    /**
+     * Writes the object with writeObject() method.
+     *
+     * @param bencodedObject object to be written.
+     * @return written bytes.
+     * @throws IOException                if there's an input/output error occurred.
+     * @throws CircularReferenceException if there's a circular reference found.
+     */
+    private static byte[] writeToArray(BencodedObject bencodedObject) throws IOException, CircularReferenceException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BencodeWriter writer = new BencodeWriter(baos);
+        writer.write(bencodedObject);
+        writer.flush();
+        return baos.toByteArray();
+    }
+
+    /**
+     * Concatenates the remaining bytes of the buffers.
+     *
+     * @param buffers the buffers.
+     * @return see method description above.
+     */
+    private static byte[] concatenate(ByteBuffer[] buffers) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        for (ByteBuffer buffer : buffers) {
+            ByteBuffer duplicate = buffer.duplicate();
+            while (duplicate.hasRemaining()) {
+                baos.write(duplicate.get());
+            }
+        }
+
+        return baos.toByteArray();
+    }
+
+    /**
+     * Gathering channel, that writes at most 100 bytes per call.
+     */
+    private static final class TricklingChannel implements GatheringByteChannel {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            long bytesWritten = 0;
+            for (int i = offset; i < offset + length && bytesWritten < 100; i++) {
+                while (srcs[i].hasRemaining() && bytesWritten < 100) {
+                    bytes.write(srcs[i].get());
+                    bytesWritten++;
+                }
+            }
+
+            return bytesWritten;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs) {
+            return write(srcs, 0, srcs.length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            return (int) write(new ByteBuffer[]{src});
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
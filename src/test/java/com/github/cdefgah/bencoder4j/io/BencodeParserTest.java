@@ -0,0 +1,217 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.BencodedByteSequence;
+import com.github.cdefgah.bencoder4j.model.BencodedInteger;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BencodeParserTest {
+
+    @Test
+    void tryingToGetNextTokenOnExhaustedParser() throws IOException {
+        BencodeParser parser = createParser("");
+
+        assertFalse(parser.hasNext());
+        assertThrows(NoSuchElementException.class, parser::next,
+                "Parser behaves incorrectly upon getting the next token when it is exhausted");
+    }
+
+    @Test
+    void parsingVariousTokens() throws IOException, BencodeFormatException {
+        BencodeParser parser = createParser("d4:listli-42e3:abce3:numi7ee0:");
+
+        assertEquals(BencodeToken.START_DICT, parser.next());
+        assertEquals(1, parser.getDepth());
+
+        assertEquals(BencodeToken.BYTES, parser.next());
+        assertTrue(parser.isDictionaryKey());
+        assertEquals("list", currentBytes(parser));
+
+        assertEquals(BencodeToken.START_LIST, parser.next());
+        assertEquals(2, parser.getDepth());
+
+        assertEquals(BencodeToken.INTEGER, parser.next());
+        assertEquals(-42, parser.getLongValue());
+
+        assertEquals(BencodeToken.BYTES, parser.next());
+        assertFalse(parser.isDictionaryKey());
+        assertEquals("abc", currentBytes(parser));
+
+        assertEquals(BencodeToken.END, parser.next());
+        assertEquals(1, parser.getDepth());
+
+        assertEquals(BencodeToken.BYTES, parser.next());
+        assertTrue(parser.isDictionaryKey());
+        assertEquals("num", currentBytes(parser));
+
+        assertEquals(BencodeToken.INTEGER, parser.next());
+        assertEquals(7, parser.getLongValue());
+
+        assertEquals(BencodeToken.END, parser.next());
+        assertEquals(0, parser.getDepth());
+
+        assertTrue(parser.hasNext());
+        assertEquals(BencodeToken.BYTES, parser.next());
+        assertEquals(0, parser.getBytesLength());
+
+        assertFalse(parser.hasNext());
+    }
+
+    @Test
+    void parsingByteSequenceLargerThanInternalBuffer() throws IOException, BencodeFormatException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+
+        String longSequence = sb.toString();
+        BencodeParser parser = new BencodeParser(new BencodeStreamReader(
+                toInputStream(longSequence.length() + ":" + longSequence + "2:xy"), 16));
+
+        assertEquals(BencodeToken.BYTES, parser.next());
+        assertEquals(longSequence, currentBytes(parser));
+
+        assertEquals(BencodeToken.BYTES, parser.next());
+        assertEquals("xy", currentBytes(parser));
+    }
+
+    @Test
+    void parsingIntegerLimits() throws IOException, BencodeFormatException {
+        BencodeParser parser = createParser("i9223372036854775807ei-9223372036854775808e");
+
+        parser.next();
+        assertEquals(Long.MAX_VALUE, parser.getLongValue());
+
+        parser.next();
+        assertEquals(Long.MIN_VALUE, parser.getLongValue());
+    }
+
+    @Test
+    void parsingIncorrectIntegers() {
+        String[] incorrectIntegers = {"i03e", "i-0e", "ie", "i-e", "i1xe", "i9223372036854775808e"};
+
+        for (String incorrectInteger : incorrectIntegers) {
+            assertParsingFails(incorrectInteger, "Incorrect character sequence for the value");
+        }
+
+        assertParsingFails("i3", "Stop symbol: 'e' was not reached");
+    }
+
+    @Test
+    void parsingIncorrectByteSequences() {
+        assertParsingFails("5:1234", "Unexpected end of the byte sequence stream");
+        assertParsingFails("03:abc", "BencodedByteSequence length cannot be converted to a numeric value");
+        assertParsingFails("5x:1234", "BencodedByteSequence length cannot be converted to a numeric value");
+        assertParsingFails("12", "Stop symbol: ':' was not reached");
+    }
+
+    @Test
+    void parsingIncorrectContainers() {
+        assertParsingFails("x", "Unexpected character in the stream: x");
+        assertParsingFails("e", "Unexpected character in the stream: e");
+        assertParsingFails("li1e", "Unexpected end of the stream");
+        assertParsingFails("d2:aae",
+                "Unexpected end of the stream for dictionary. 'Key' object is present, but 'value' object is not.");
+        assertParsingFails("di1ei2ee", "Incorrect object used as dictionary key. Expected: '" +
+                BencodedByteSequence.class.getCanonicalName() + "' but get: '" +
+                BencodedInteger.class.getCanonicalName() + "'");
+    }
+
+    /**
+     * Checks that parsing of the provided contents fails with the expected message.
+     *
+     * @param contents        contents to parse.
+     * @param expectedMessage expected exception message.
+     */
+    private static void assertParsingFails(String contents, String expectedMessage) {
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class, () -> {
+            BencodeParser parser = createParser(contents);
+            while (parser.hasNext()) {
+                parser.next();
+            }
+        }, "Parser behaves incorrectly on incorrect contents: " + contents);
+
+        assertEquals(expectedMessage, exception.getMessage(), "Unexpected message in correctly thrown exception");
+    }
+
+    /**
+     * Returns the current byte sequence of the parser as a string.
+     *
+     * @param parser the parser.
+     * @return see method description above.
+     */
+    private static String currentBytes(BencodeParser parser) {
+        return new String(parser.getBytes(), 0, parser.getBytesLength(),
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates the parser over the string contents.
+     *
+     * @param contents string contents.
+     * @return the parser.
+     */
+    private static BencodeParser createParser(String contents) {
+        return new BencodeParser(toInputStream(contents));
+    }
+
+    /**
+     * Creates input stream over the string contents.
+     *
+     * @param contents string contents.
+     * @return input stream.
+     */
+    private static InputStream toInputStream(String contents) {
+        return new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void parsingWithDecodeLimits() throws IOException, BencodeFormatException {
+        BencodeStreamReader bsr = new BencodeStreamReader(toInputStream("l3:abc4:defgelleel"));
+        bsr.setDecodeLimits(new DecodeLimits(3, 0, 1, 0));
+        BencodeParser parser = new BencodeParser(bsr);
+
+        assertEquals(BencodeToken.START_LIST, parser.next());
+        assertEquals(BencodeToken.BYTES, parser.next());
+        assertEquals("abc", currentBytes(parser));
+
+        BencodeFormatException lengthException = assertThrows(BencodeFormatException.class, parser::next,
+                "Byte sequence length limit is not enforced");
+        assertEquals("Byte sequence length exceeds the limit: 3", lengthException.getMessage());
+    }
+
+    @Test
+    void parsingBeyondDepthLimit() throws IOException, BencodeFormatException {
+        BencodeStreamReader bsr = new BencodeStreamReader(toInputStream("llee"));
+        bsr.setDecodeLimits(new DecodeLimits(0, 0, 1, 0));
+        BencodeParser parser = new BencodeParser(bsr);
+
+        assertEquals(BencodeToken.START_LIST, parser.next());
+        BencodeFormatException depthException = assertThrows(BencodeFormatException.class, parser::next,
+                "Depth limit is not enforced");
+        assertEquals("Nesting depth exceeds the limit: 1", depthException.getMessage());
+    }
+
+    @Test
+    void parsingLongByteSequence() throws IOException, BencodeFormatException {
+        StringBuilder sequence = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sequence.append((char) ('a' + i % 26));
+        }
+
+        BencodeParser parser = createParser("1000:" + sequence + "2:xy");
+
+        assertEquals(BencodeToken.BYTES, parser.next());
+        assertEquals(sequence.toString(), currentBytes(parser));
+        assertEquals(BencodeToken.BYTES, parser.next());
+        assertEquals("xy", currentBytes(parser));
+    }
+}
@@ -0,0 +1,162 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BencodePathQueryTest {
+
+    private static final String STREAM_CONTENTS = "d8:announce3:url4:infod5:filesld6:lengthi10e4:pathl1:aeed" +
+            "6:lengthi20e4:pathl1:beee4:name4:test12:piece lengthi16384eee";
+
+    @Test
+    void extractingValuesByPaths() throws IOException, BencodeFormatException {
+        BencodePathQuery query = BencodePathQuery.compile("info.name", "info.piece length",
+                "info.files[*].length", "info.files[1].path[0]", "missing", "announce.x");
+
+        Map<String, List<BencodedObject>> values = query.execute(toInputStream(STREAM_CONTENTS));
+
+        assertAll("Validating values extracted by paths",
+                () -> assertEquals(query.getPaths(), new ArrayList<>(values.keySet())),
+                () -> assertEquals("test", ((BencodedByteSequence) values.get("info.name").get(0)).toUTF8String()),
+                () -> assertEquals(16384, ((BencodedInteger) values.get("info.piece length").get(0)).getValue()),
+                () -> assertEquals(2, values.get("info.files[*].length").size()),
+                () -> assertEquals(10, ((BencodedInteger) values.get("info.files[*].length").get(0)).getValue()),
+                () -> assertEquals(20, ((BencodedInteger) values.get("info.files[*].length").get(1)).getValue()),
+                () -> assertEquals("b",
+                        ((BencodedByteSequence) values.get("info.files[1].path[0]").get(0)).toUTF8String()),
+                () -> assertTrue(values.get("missing").isEmpty()),
+                () -> assertTrue(values.get("announce.x").isEmpty())
+        );
+    }
+
+    @Test
+    void extractingNestedPathsOfBuiltValue() throws IOException, BencodeFormatException {
+        BencodePathQuery query = BencodePathQuery.compile("info.files", "info.files[0].length");
+        Map<String, List<BencodedObject>> values = query.execute(toInputStream(STREAM_CONTENTS));
+
+        BencodedList files = (BencodedList) values.get("info.files").get(0);
+
+        assertAll("Validating nested path values of the built value",
+                () -> assertEquals(2, files.size()),
+                () -> assertSame(((BencodedDictionary) files.get(0)).get("length"),
+                        values.get("info.files[0].length").get(0))
+        );
+    }
+
+    @Test
+    void executingQueryOnSequentialObjects() throws IOException, BencodeFormatException {
+        BencodePathQuery query = BencodePathQuery.compile("[1]");
+        BencodeStreamReader bsr = new BencodeStreamReader(toInputStream("li1ei2eeli3ei4ee"), 3);
+
+        assertEquals(2, ((BencodedInteger) query.execute(bsr).get("[1]").get(0)).getValue());
+        assertEquals(4, ((BencodedInteger) query.execute(bsr).get("[1]").get(0)).getValue());
+        assertEquals(-1, bsr.read());
+    }
+
+    @Test
+    void skippingDeeplyNestedValues() throws IOException, BencodeFormatException {
+        final int depth = 300000;
+        StringBuilder streamContents = new StringBuilder("d4:deepl");
+        for (int i = 0; i < depth; i++) {
+            streamContents.append(i % 2 == 0 ? "l" : "d1:a");
+        }
+        streamContents.append("i42e");
+        for (int i = 0; i < depth; i++) {
+            streamContents.append('e');
+        }
+        streamContents.append("i1ee4:namel4:testee");
+
+        BencodePathQuery query = BencodePathQuery.compile("name[0]", "deep[1]");
+        Map<String, List<BencodedObject>> values = query.execute(toInputStream(streamContents.toString()));
+
+        assertAll("Validating values next to deeply nested value",
+                () -> assertEquals("test", ((BencodedByteSequence) values.get("name[0]").get(0)).toUTF8String()),
+                () -> assertEquals(1, ((BencodedInteger) values.get("deep[1]").get(0)).getValue())
+        );
+    }
+
+    @Test
+    void walkingWithinDecodeLimits() throws IOException, BencodeFormatException {
+        BencodePathQuery query = BencodePathQuery.compile("a.b[1]");
+        String contents = "d1:ad1:bli1ei2eeee";
+
+        BencodeStreamReader bsr = new BencodeStreamReader(toInputStream(contents));
+        bsr.setDecodeLimits(new DecodeLimits(1, 2, 3, 7));
+        assertEquals(2, ((BencodedInteger) query.execute(bsr).get("a.b[1]").get(0)).getValue());
+
+        DecodeLimits[] exceededLimits = {
+                new DecodeLimits(1, 2, 2, 7),
+                new DecodeLimits(1, 2, 3, 6),
+                new DecodeLimits(0, 2, 3, 7),
+                new DecodeLimits(1, 1, 3, 7)
+        };
+
+        for (DecodeLimits decodeLimits : exceededLimits) {
+            BencodeStreamReader limitedReader = new BencodeStreamReader(toInputStream(contents));
+            limitedReader.setDecodeLimits(decodeLimits);
+            assertThrows(BencodeFormatException.class, () -> query.execute(limitedReader),
+                    "Walked containers are not counted against decode limits");
+        }
+    }
+
+    @Test
+    void compilingIncorrectPaths() {
+        String[] incorrectPaths = {"", ".a", "a.", "a..b", "a[", "a[x]", "a[-1]", "a[1]b"};
+
+        for (String incorrectPath : incorrectPaths) {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                            BencodePathQuery.compile(incorrectPath),
+                    "Query compilation behaves incorrectly on incorrect path: " + incorrectPath);
+
+            assertEquals("Incorrect path: " + incorrectPath, exception.getMessage(),
+                    "Unexpected message in correctly thrown exception");
+        }
+
+        assertThrows(IllegalArgumentException.class, BencodePathQuery::compile,
+                "Query compilation behaves incorrectly on absent paths");
+    }
+
+    @Test
+    void executingQueryOnIncorrectContents() {
+        String[][] incorrectContents = {
+                {"d4:infod4:name", "Unexpected end of the stream"},
+                {"d4:infoi1x2ee", "Incorrect character sequence for the value"},
+                {"d4:infod4:namee", "Unexpected end of the stream for dictionary. 'Key' object is present, " +
+                        "but 'value' object is not."},
+                {"di1ei2ee", "Incorrect object used as dictionary key. Expected: '" +
+                        BencodedByteSequence.class.getCanonicalName() + "' but get: '" +
+                        BencodedInteger.class.getCanonicalName() + "'"}
+        };
+
+        BencodePathQuery query = BencodePathQuery.compile("info.name");
+        for (String[] incorrectContent : incorrectContents) {
+            BencodeFormatException exception = assertThrows(BencodeFormatException.class, () ->
+                            query.execute(toInputStream(incorrectContent[0])),
+                    "Query behaves incorrectly on incorrect contents: " + incorrectContent[0]);
+
+            assertEquals(incorrectContent[1], exception.getMessage(),
+                    "Unexpected message in correctly thrown exception");
+        }
+    }
+
+    /**
+     * Creates input stream over the string contents.
+     *
+     * @param contents string contents.
+     * @return input stream.
+     */
+    private static InputStream toInputStream(String contents) {
+        return new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,203 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BencodePipelinedIteratorTest {
+
+    private static final int OBJECTS_COUNT = 1000;
+
+    @Test
+    void decodingObjectsInStreamOrder() throws IOException, BencodeFormatException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (BencodePipelinedIterator iterator =
+                     new BencodePipelinedIterator(toInputStream(composeObjects()), executor, 8, true)) {
+
+            assertEquals(referenceObjects(), readAll(iterator));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void decodingObjectsInCompletionOrder() throws IOException, BencodeFormatException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (BencodePipelinedIterator iterator =
+                     new BencodePipelinedIterator(toInputStream(composeObjects()), executor, 8, false)) {
+
+            List<BencodedObject> decodedObjects = readAll(iterator);
+            assertEquals(OBJECTS_COUNT, decodedObjects.size());
+            assertEquals(new HashSet<>(referenceObjects()), new HashSet<>(decodedObjects));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void formatErrorIsThrownAfterPrecedingObjects() throws IOException, BencodeFormatException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (BencodePipelinedIterator iterator =
+                     new BencodePipelinedIterator(toInputStream("i1ed1:ai2ee3:abcx"), executor, 1, true)) {
+
+            assertEquals(1, ((BencodedInteger) iterator.next()).getValue());
+            assertTrue(iterator.next() instanceof BencodedDictionary);
+            assertEquals("abc", ((BencodedByteSequence) iterator.next()).toUTF8String());
+
+            assertTrue(iterator.hasNext());
+            BencodeFormatException exception = assertThrows(BencodeFormatException.class, iterator::next,
+                    "Iterator behaves incorrectly on incorrect stream contents");
+
+            assertEquals("Unexpected character in the stream: x",
+                    exception.getMessage(),
+                    "Unexpected message in correctly thrown exception");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void tryingToGetNextElementOnExhaustedIterator() throws IOException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (BencodePipelinedIterator iterator =
+                     new BencodePipelinedIterator(toInputStream(""), executor, 1, true)) {
+
+            assertFalse(iterator.hasNext());
+            assertThrows(NoSuchElementException.class, iterator::next,
+                    "Iterator behaves incorrectly upon getting the next element when it is exhausted");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void decodingDeeplyNestedObjects() throws IOException, BencodeFormatException {
+        String nestedObject = BencodeBufferDecoderTest.composeDeeplyNestedObject(300000);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (BencodePipelinedIterator iterator =
+                     new BencodePipelinedIterator(toInputStream(nestedObject + "i7e"), executor, 1, true)) {
+
+            assertAll("Validating deeply nested object decoded by the pipeline",
+                    () -> assertTrue(iterator.next() instanceof BencodedList),
+                    () -> assertEquals(7, ((BencodedInteger) iterator.next()).getValue()),
+                    () -> assertFalse(iterator.hasNext())
+            );
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void closingWakesUpWaitingConsumer() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (PipedOutputStream pos = new PipedOutputStream();
+             PipedInputStream pis = new PipedInputStream(pos)) {
+
+            BencodePipelinedIterator iterator = new BencodePipelinedIterator(pis, executor, 1, true);
+            Future<Boolean> hasNext = executor.submit(iterator::hasNext);
+
+            iterator.close();
+            assertFalse(hasNext.get(10, TimeUnit.SECONDS), "Consumer is not woken up upon closing the iterator");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void framingErrorIsThrownByNext() throws IOException {
+        InputStream failingStream = new InputStream() {
+            @Override
+            public int read() {
+                throw new OutOfMemoryError("Test framing error");
+            }
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (BencodePipelinedIterator iterator = new BencodePipelinedIterator(failingStream, executor, 1, true)) {
+            assertTrue(iterator.hasNext());
+            OutOfMemoryError error = assertThrows(OutOfMemoryError.class, iterator::next,
+                    "Iterator behaves incorrectly upon framing thread error");
+            assertEquals("Test framing error", error.getMessage());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Composes the stream of concatenated objects.
+     *
+     * @return see method description above.
+     */
+    private static String composeObjects() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < OBJECTS_COUNT; i++) {
+            sb.append("d1:ti").append(i).append("e1:yl1:q4:pingee");
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Decodes the composed objects sequentially.
+     *
+     * @return see method description above.
+     * @throws IOException            if there's an input/output error occurred.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private static List<BencodedObject> referenceObjects() throws IOException, BencodeFormatException {
+        BencodeStreamIterator bsi = new BencodeStreamIterator(toInputStream(composeObjects()));
+        List<BencodedObject> referenceObjects = new ArrayList<>();
+        while (bsi.hasNext()) {
+            referenceObjects.add(bsi.next());
+        }
+
+        return referenceObjects;
+    }
+
+    /**
+     * Reads all objects from the iterator.
+     *
+     * @param iterator the iterator.
+     * @return read objects.
+     * @throws IOException            if there's an input/output error occurred.
+     * @throws BencodeFormatException if there's a bencoding format error occurred.
+     */
+    private static List<BencodedObject> readAll(BencodePipelinedIterator iterator)
+            throws IOException, BencodeFormatException {
+
+        List<BencodedObject> decodedObjects = new ArrayList<>();
+        while (iterator.hasNext()) {
+            decodedObjects.add(iterator.next());
+        }
+
+        return decodedObjects;
+    }
+
+    /**
+     * Creates input stream over the string contents.
+     *
+     * @param contents string contents.
+     * @return input stream.
+     */
+    private static InputStream toInputStream(String contents) {
+        return new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -5,9 +5,12 @@ import com.github.cdefgah.bencoder4j.model.*;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -90,4 +93,216 @@ class BencodeStreamIteratorTest {
                 "Unexpected message in correctly thrown exception");
 
     }
-}
\ No newline at end of file
+
+
+    @Test
+    void skippingObjectsViaIterator() throws IOException, BencodeFormatException {
+        String streamContents = "d3:abcli1ei2eee5:12345i3e";
+        InputStream is = new ByteArrayInputStream(streamContents.getBytes(StandardCharsets.UTF_8));
+        BencodeStreamIterator bsi = new BencodeStreamIterator(is);
+
+        bsi.skip();
+        bsi.skip();
+        assertEquals(3, ((BencodedInteger) bsi.next()).getValue());
+
+        assertFalse(bsi.hasNext());
+        assertThrows(NoSuchElementException.class, bsi::skip,
+                "Iterator behaves incorrectly upon skipping the next element when it is exhausted");
+    }
+
+    @Test
+    void hostileLengthDoesNotAllocateClaimedBody() {
+        InputStream is = new ByteArrayInputStream("2000000000:abc".getBytes(StandardCharsets.UTF_8));
+        BencodeStreamIterator bsi = new BencodeStreamIterator(is);
+
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class, bsi::next,
+                "Truncated byte sequence with huge length is processed incorrectly");
+        assertEquals("Unexpected end of the byte sequence stream", exception.getMessage());
+    }
+
+    @Test
+    void decodingWithinLimits() throws IOException, BencodeFormatException {
+        DecodeLimits decodeLimits = new DecodeLimits(3, 5, 2, 5);
+        String streamContents = "l3:abc2:dee" + "ll1:aee" + "d1:ai1ee";
+        InputStream is = new ByteArrayInputStream(streamContents.getBytes(StandardCharsets.UTF_8));
+        BencodeStreamIterator bsi = new BencodeStreamIterator(is, decodeLimits);
+
+        assertAll("Objects within the limits are decoded incorrectly",
+                () -> assertEquals(2, ((BencodedList) bsi.next()).size()),
+                () -> assertEquals(1, ((BencodedList) bsi.next()).size()),
+                () -> assertEquals(1, ((BencodedDictionary) bsi.next()).size()),
+                () -> assertFalse(bsi.hasNext())
+        );
+    }
+
+    @Test
+    void exceedingDecodeLimits() {
+        DecodeLimits decodeLimits = new DecodeLimits(3, 5, 2, 4);
+
+        assertAll("Exceeding decode limits is processed incorrectly",
+                () -> assertLimitExceeded("4:abcd", decodeLimits, "Byte sequence length exceeds the limit: 3"),
+                () -> assertLimitExceeded("l3:abc3:defe", decodeLimits,
+                        "Total byte sequences length exceeds the limit: 5"),
+                () -> assertLimitExceeded("llli1eeee", decodeLimits, "Nesting depth exceeds the limit: 2"),
+                () -> assertLimitExceeded("ld1:alleee", decodeLimits, "Nesting depth exceeds the limit: 2"),
+                () -> assertLimitExceeded("li1ei2ei3ei4ee", decodeLimits, "Elements count exceeds the limit: 4")
+        );
+    }
+
+    @Test
+    void skippingWithinDepthLimit() {
+        InputStream is = new ByteArrayInputStream("lleei1e".getBytes(StandardCharsets.UTF_8));
+        BencodeStreamIterator bsi = new BencodeStreamIterator(is, new DecodeLimits(0, 0, 1, 10));
+
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class, bsi::skip,
+                "Skipping too deep object is processed incorrectly");
+        assertEquals("Nesting depth exceeds the limit: 1", exception.getMessage());
+    }
+
+    @Test
+    void skippingWithinElementCountAndStringLengthLimits() {
+        DecodeLimits decodeLimits = new DecodeLimits(3, 0, 10, 4);
+
+        assertAll("Exceeding decode limits upon skipping is processed incorrectly",
+                () -> assertSkippingLimitExceeded("4:abcd", decodeLimits, "Byte sequence length exceeds the limit: 3"),
+                () -> assertSkippingLimitExceeded("li1ei2ei3ei4ee", decodeLimits,
+                        "Elements count exceeds the limit: 4"),
+                () -> assertSkippingLimitExceeded("d1:ai1e1:bi2ee", decodeLimits,
+                        "Elements count exceeds the limit: 4")
+        );
+    }
+
+    @Test
+    void skippingDictionaryWithoutValue() {
+        InputStream is = new ByteArrayInputStream("ld1:ai1e1:bee".getBytes(StandardCharsets.UTF_8));
+        BencodeStreamIterator bsi = new BencodeStreamIterator(is);
+
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class, bsi::skip,
+                "Skipping dictionary without value is processed incorrectly");
+        assertEquals("Unexpected end of the stream for dictionary. 'Key' object is present, " +
+                "but 'value' object is not.", exception.getMessage());
+    }
+
+    @Test
+    void creatingIncorrectDecodeLimits() {
+        assertAll("Incorrect decode limits are processed incorrectly",
+                () -> assertThrows(IllegalArgumentException.class, () -> new DecodeLimits(-1, 0, 0, 0)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new DecodeLimits(0, -1, 0, 0)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new DecodeLimits(0, 0, -1, 0)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new DecodeLimits(0, 0, 0, -1)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new BencodeStreamIterator(new ByteArrayInputStream(new byte[0]), null))
+        );
+    }
+
+    private static void assertSkippingLimitExceeded(String streamContents, DecodeLimits decodeLimits,
+                                                    String expectedMessage) {
+        InputStream is = new ByteArrayInputStream(streamContents.getBytes(StandardCharsets.UTF_8));
+        BencodeStreamIterator bsi = new BencodeStreamIterator(is, decodeLimits);
+
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class, bsi::skip,
+                "Exceeded limit is not detected upon skipping: " + streamContents);
+        assertEquals(expectedMessage, exception.getMessage());
+    }
+
+    private static void assertLimitExceeded(String streamContents, DecodeLimits decodeLimits,
+                                            String expectedMessage) {
+        InputStream is = new ByteArrayInputStream(streamContents.getBytes(StandardCharsets.UTF_8));
+        BencodeStreamIterator bsi = new BencodeStreamIterator(is, decodeLimits);
+
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class, bsi::next,
+                "Exceeded limit is not detected for: " + streamContents);
+        assertEquals(expectedMessage, exception.getMessage());
+    }
+
+    @Test
+    void decodingDeeplyNestedObjects() throws IOException, BencodeFormatException {
+        final int depth = 300000;
+        StringBuilder streamContents = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            streamContents.append(i % 2 == 0 ? "l" : "d1:a");
+        }
+        streamContents.append("i42e");
+        for (int i = 0; i < depth; i++) {
+            streamContents.append('e');
+        }
+
+        InputStream is = new ByteArrayInputStream(streamContents.toString().getBytes(StandardCharsets.UTF_8));
+        BencodeStreamIterator bsi = new BencodeStreamIterator(is);
+
+        BencodedObject bencodedObject = bsi.next();
+        int decodedDepth = 0;
+        while (bencodedObject.isCompositeObject()) {
+            bencodedObject = bencodedObject instanceof BencodedList ?
+                    ((BencodedList) bencodedObject).get(0) : ((BencodedDictionary) bencodedObject).get("a");
+            decodedDepth++;
+        }
+
+        assertEquals(depth, decodedDepth, "Deeply nested object is decoded incorrectly");
+        assertEquals(new BencodedInteger(42), bencodedObject);
+        assertFalse(bsi.hasNext());
+    }
+
+    @Test
+    void skippingDeeplyNestedObjects() throws IOException, BencodeFormatException {
+        final int depth = 300000;
+        StringBuilder streamContents = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            streamContents.append(i % 2 == 0 ? "l" : "d1:a");
+        }
+        streamContents.append("i42e");
+        for (int i = 0; i < depth; i++) {
+            streamContents.append('e');
+        }
+        streamContents.append("i7e");
+
+        InputStream is = new ByteArrayInputStream(streamContents.toString().getBytes(StandardCharsets.UTF_8));
+        BencodeStreamIterator bsi = new BencodeStreamIterator(is);
+
+        bsi.skip();
+        assertEquals(new BencodedInteger(7), bsi.next(), "Deeply nested object is skipped incorrectly");
+        assertFalse(bsi.hasNext());
+    }
+
+    @Test
+    void decodingNestedDictionaryWithIncorrectKey() {
+        InputStream is = new ByteArrayInputStream("lldi1ei2eeee".getBytes(StandardCharsets.UTF_8));
+        BencodeStreamIterator bsi = new BencodeStreamIterator(is, new DecodeLimits(10, 10, 10, 10));
+
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class, bsi::next,
+                "Incorrect key of nested dictionary is processed incorrectly");
+        assertEquals("Incorrect object used as dictionary key. Expected: '"
+                + BencodedByteSequence.class.getCanonicalName() + "' but get: '"
+                + BencodedInteger.class.getCanonicalName() + "'", exception.getMessage());
+    }
+
+
+    @Test
+    void skippingTruncatedByteSequenceInFileFails() throws IOException, BencodeFormatException {
+        Path file = Files.createTempFile("bencoder4j", ".bencode");
+        try {
+            Files.write(file, "i1e100000:abc".getBytes(StandardCharsets.US_ASCII));
+
+            try (InputStream is = new FileInputStream(file.toFile())) {
+                BencodeStreamIterator bsi = new BencodeStreamIterator(is);
+                bsi.skip();
+
+                BencodeFormatException exception = assertThrows(BencodeFormatException.class, bsi::skip,
+                        "Truncated byte sequence in the file should not be skipped as a complete one");
+
+                assertEquals("Unexpected end of the byte sequence stream",
+                        exception.getMessage(),
+                        "Unexpected message in correctly thrown exception");
+            }
+
+            try (InputStream is = new FileInputStream(file.toFile())) {
+                BencodeStreamIterator bsi = new BencodeStreamIterator(is);
+                bsi.skip();
+                assertThrows(BencodeFormatException.class, bsi::next,
+                        "Truncated byte sequence in the file should not be decoded");
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -1,12 +1,27 @@
 package com.github.cdefgah.bencoder4j.io;
 
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.CircularReferenceException;
+import com.github.cdefgah.bencoder4j.model.BencodedByteSequence;
+import com.github.cdefgah.bencoder4j.model.BencodedDictionary;
+import com.github.cdefgah.bencoder4j.model.BencodedInteger;
+import com.github.cdefgah.bencoder4j.model.BencodedList;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
-import static org.junit.jupiter.api.Assertions.assertAll;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class BencodeStreamReaderTest {
 
@@ -20,4 +35,326 @@ class BencodeStreamReaderTest {
                 () -> assertEquals(0, bsr.readByteSequence(new byte[0]))
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void incorrectBufferSizeIsNotAllowed() {
+        InputStream is = new ByteArrayInputStream(new byte[0]);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                        new BencodeStreamReader(is, 0),
+                "BencodeStreamReader constructor behaves incorrectly on zero buffer size");
+
+        assertEquals("Incorrect buffer size: 0",
+                exception.getMessage(),
+                "Unexpected message in correctly thrown exception");
+    }
+
+    @Test
+    void peekDoesNotConsumeBytes() throws IOException {
+        InputStream is = new ByteArrayInputStream("ab".getBytes(StandardCharsets.UTF_8));
+        BencodeStreamReader bsr = new BencodeStreamReader(is, 1);
+
+        assertAll("Ensuring peek returns the next byte without consuming it",
+                () -> assertEquals('a', bsr.peek()),
+                () -> assertEquals('a', bsr.read()),
+                () -> assertEquals('b', bsr.peek()),
+                () -> assertEquals('b', bsr.read()),
+                () -> assertEquals(-1, bsr.peek()),
+                () -> assertEquals(-1, bsr.read())
+        );
+    }
+
+    @Test
+    void unreadBytesAreReadAgain() throws IOException {
+        InputStream is = new ByteArrayInputStream("xy".getBytes(StandardCharsets.UTF_8));
+        BencodeStreamReader bsr = new BencodeStreamReader(is, 1);
+
+        bsr.unread('b');
+        bsr.unread('a');
+        bsr.unread(-1);
+
+        assertAll("Ensuring pushed back bytes are read before the stream bytes",
+                () -> assertEquals('a', bsr.read()),
+                () -> assertEquals('b', bsr.read()),
+                () -> assertEquals('x', bsr.read()),
+                () -> assertEquals('y', bsr.read()),
+                () -> assertEquals(-1, bsr.read())
+        );
+    }
+
+    @Test
+    void readingByteSequenceLargerThanBuffer() throws IOException {
+        InputStream is = new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.UTF_8));
+        BencodeStreamReader bsr = new BencodeStreamReader(is, 4);
+
+        assertEquals('0', bsr.read());
+
+        byte[] sequence = new byte[8];
+        assertEquals(8, bsr.readByteSequence(sequence));
+        assertEquals("12345678", new String(sequence, StandardCharsets.UTF_8));
+        assertEquals('9', bsr.read());
+        assertEquals(-1, bsr.readByteSequence(sequence));
+    }
+
+    @Test
+    void readingCharSequenceSpanningSeveralBufferRefills() throws IOException, BencodeFormatException {
+        InputStream is = new ByteArrayInputStream("1234567890:x".getBytes(StandardCharsets.UTF_8));
+        BencodeStreamReader bsr = new BencodeStreamReader(is, 3);
+
+        assertEquals("1234567890", bsr.readCharSequence(':'));
+        assertEquals('x', bsr.read());
+    }
+
+    @Test
+    void readingNumericValues() throws IOException, BencodeFormatException {
+        String streamContents = "-9223372036854775808e9223372036854775807e0e2147483647:";
+        InputStream is = new ByteArrayInputStream(streamContents.getBytes(StandardCharsets.UTF_8));
+        BencodeStreamReader bsr = new BencodeStreamReader(is, 2);
+
+        assertAll("Validating numeric values read from the stream",
+                () -> assertEquals(Long.MIN_VALUE, bsr.readLong('e')),
+                () -> assertEquals(Long.MAX_VALUE, bsr.readLong('e')),
+                () -> assertEquals(0, bsr.readLong('e')),
+                () -> assertEquals(Integer.MAX_VALUE, bsr.readLength(':')),
+                () -> assertEquals(-1, bsr.read())
+        );
+    }
+
+    @Test
+    void readingIncorrectNumericValues() {
+        String[][] incorrectValues = {
+                {"9223372036854775808e", "Incorrect character sequence for the value"},
+                {"99999999999999999999999", "Stop symbol: 'e' was not reached"},
+                {"1x2e", "Incorrect character sequence for the value"},
+                {"-e", "Incorrect character sequence for the value"},
+                {"-", "Stop symbol: 'e' was not reached"},
+                {"", "Unexpected end of the stream"}
+        };
+
+        for (String[] incorrectValue : incorrectValues) {
+            InputStream is = new ByteArrayInputStream(incorrectValue[0].getBytes(StandardCharsets.UTF_8));
+            BencodeStreamReader bsr = new BencodeStreamReader(is);
+
+            BencodeFormatException exception = assertThrows(BencodeFormatException.class, () ->
+                    bsr.readLong('e'), "Reader behaves incorrectly on incorrect value: " + incorrectValue[0]);
+
+            assertEquals(incorrectValue[1], exception.getMessage(),
+                    "Unexpected message in correctly thrown exception");
+        }
+    }
+
+    @Test
+    void decodingWithTinyBufferWorksProperly() throws IOException, BencodeFormatException {
+        String streamContents = "d3:abci123e4:listli1ei-2e3:xyzee";
+        InputStream is = new ByteArrayInputStream(streamContents.getBytes(StandardCharsets.UTF_8));
+        BencodeStreamReader bsr = new BencodeStreamReader(is, 1);
+
+        BencodedDictionary dictionary = new BencodedDictionary(bsr);
+        BencodedList list = (BencodedList) dictionary.get("list");
+
+        assertAll("Validating objects decoded with one byte buffer",
+                () -> assertEquals(123, ((BencodedInteger) dictionary.get("abc")).getValue()),
+                () -> assertEquals(3, list.size()),
+                () -> assertEquals(-2, ((BencodedInteger) list.get(1)).getValue()),
+                () -> assertEquals(-1, bsr.read())
+        );
+    }
+
+
+    @Test
+    void skippingValuesWithoutBuildingThem() throws IOException, BencodeFormatException {
+        String streamContents = "d4:infod5:filesld6:lengthi42eeee4:name10:0123456789e3:xyzi-7e";
+        InputStream is = new ByteArrayInputStream(streamContents.getBytes(StandardCharsets.UTF_8));
+        BencodeStreamReader bsr = new BencodeStreamReader(is, 2);
+
+        bsr.skipValue();
+        assertEquals("xyz", new BencodedByteSequence(bsr).toUTF8String());
+        bsr.skipValue();
+        assertEquals(-1, bsr.read());
+    }
+
+    @Test
+    void skippingByteSequenceOnStreamWithoutSkipSupport() throws IOException, BencodeFormatException {
+        InputStream is = new ByteArrayInputStream("20:01234567890123456789i1e".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized long skip(long n) {
+                return 0;
+            }
+        };
+
+        BencodeStreamReader bsr = new BencodeStreamReader(is, 4);
+        bsr.skipValue();
+        assertEquals(1, new BencodedInteger(bsr).getValue());
+    }
+
+    @Test
+    void skippingIncorrectValues() {
+        String[][] incorrectValues = {
+                {"", "Unexpected end of the stream"},
+                {"e", "Unexpected character in the stream: e"},
+                {"li1e", "Unexpected end of the stream"},
+                {"i03e", "Incorrect character sequence for the value"},
+                {"5:1234", "Unexpected end of the byte sequence stream"},
+                {"03:abc", "BencodedByteSequence length cannot be converted to a numeric value"},
+                {"d2:aae", "Unexpected end of the stream for dictionary. 'Key' object is present, " +
+                        "but 'value' object is not."},
+                {"dli1eei2ee", "Incorrect object used as dictionary key. Expected: '" +
+                        BencodedByteSequence.class.getCanonicalName() + "' but get: '" +
+                        BencodedList.class.getCanonicalName() + "'"}
+        };
+
+        for (String[] incorrectValue : incorrectValues) {
+            InputStream is = new ByteArrayInputStream(incorrectValue[0].getBytes(StandardCharsets.UTF_8));
+            BencodeStreamReader bsr = new BencodeStreamReader(is);
+
+            BencodeFormatException exception = assertThrows(BencodeFormatException.class, bsr::skipValue,
+                    "Reader behaves incorrectly on skipping incorrect value: " + incorrectValue[0]);
+
+            assertEquals(incorrectValue[1], exception.getMessage(),
+                    "Unexpected message in correctly thrown exception");
+        }
+    }
+
+
+    @Test
+    void digestingConsumedBytes() throws IOException, BencodeFormatException, NoSuchAlgorithmException {
+        String digestedContents = "li1e30:012345678901234567890123456789d1:a3:xyzee";
+        String streamContents = "i0e" + digestedContents + "i1e";
+        InputStream is = new ByteArrayInputStream(streamContents.getBytes(StandardCharsets.UTF_8));
+        BencodeStreamReader bsr = new BencodeStreamReader(is, 4);
+        MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        MessageDigest skipDigest = MessageDigest.getInstance("SHA-1");
+
+        bsr.skipValue();
+        bsr.startDigest(digest);
+        assertEquals(3, new BencodedList(bsr).size());
+        bsr.stopDigest();
+        bsr.skipValue();
+
+        is = new ByteArrayInputStream(streamContents.getBytes(StandardCharsets.UTF_8));
+        BencodeStreamReader skippingReader = new BencodeStreamReader(is, 4);
+        skippingReader.skipValue();
+        skippingReader.startDigest(skipDigest);
+        skippingReader.skipValue();
+        skippingReader.stopDigest();
+
+        byte[] expectedDigest = MessageDigest.getInstance("SHA-1")
+                .digest(digestedContents.getBytes(StandardCharsets.UTF_8));
+
+        assertAll("Validating digests of consumed bytes",
+                () -> assertArrayEquals(expectedDigest, digest.digest()),
+                () -> assertArrayEquals(expectedDigest, skipDigest.digest()),
+                () -> assertEquals(1, new BencodedInteger(skippingReader).getValue())
+        );
+    }
+
+
+    @Test
+    void capturingConsumedBytes() throws IOException, BencodeFormatException {
+        String capturedContents = "d1:a40:0123456789012345678901234567890123456789e";
+        InputStream is = new ByteArrayInputStream(("i1e" + capturedContents + "i2e").getBytes(StandardCharsets.UTF_8));
+        BencodeStreamReader bsr = new BencodeStreamReader(is, 4);
+
+        bsr.skipValue();
+        bsr.startCapture();
+        assertThrows(IllegalStateException.class, bsr::startCapture,
+                "Reader behaves incorrectly on starting capture twice");
+        bsr.skipValue();
+
+        assertAll("Validating captured bytes",
+                () -> assertEquals(capturedContents, new String(bsr.stopCapture(), StandardCharsets.UTF_8)),
+                () -> assertThrows(IllegalStateException.class, bsr::stopCapture),
+                () -> assertEquals(2, new BencodedInteger(bsr).getValue())
+        );
+    }
+
+
+    @Test
+    void readerHasNoSynchronizedMethods() {
+        for (Method method : BencodeStreamReader.class.getDeclaredMethods()) {
+            assertFalse(Modifier.isSynchronized(method.getModifiers()),
+                    "Reader method should not be synchronized: " + method.getName());
+        }
+    }
+
+    @Test
+    void readingByteSequencesFromStreamWithShortReads()
+            throws IOException, BencodeFormatException, CircularReferenceException {
+        byte[] body = new byte[100000];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) (i * 31);
+        }
+
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        new BencodedList(Arrays.asList(new BencodedByteSequence(body), new BencodedByteSequence("tail")))
+                .writeObject(encoded);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(encoded.toByteArray());
+        }
+
+        BencodedList tricklingList = new BencodedList(
+                new BencodeStreamReader(new TricklingInputStream(encoded.toByteArray())));
+        BencodedList gzipList = new BencodedList(new BencodeStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))));
+
+        assertAll("Byte sequences are read incorrectly from stream with short reads",
+                () -> assertArrayEquals(body, ((BencodedByteSequence) tricklingList.get(0)).getByteSequence()),
+                () -> assertEquals(new BencodedByteSequence("tail"), tricklingList.get(1)),
+                () -> assertArrayEquals(body, ((BencodedByteSequence) gzipList.get(0)).getByteSequence()),
+                () -> assertEquals(new BencodedByteSequence("tail"), gzipList.get(1))
+        );
+    }
+
+    @Test
+    void readingByteSequenceUntilEndOfStream() throws IOException {
+        BencodeStreamReader bsr = new BencodeStreamReader(new TricklingInputStream(new byte[20000]), 16);
+        byte[] sequence = new byte[30000];
+
+        assertAll("Bulk read is processed incorrectly",
+                () -> assertEquals(15000, bsr.readByteSequence(sequence, 0, 15000)),
+                () -> assertEquals(5000, bsr.readByteSequence(sequence, 15000, 15000)),
+                () -> assertEquals(-1, bsr.readByteSequence(sequence, 0, 10)),
+                () -> assertEquals(0, bsr.readByteSequence(sequence, 0, 0))
+        );
+    }
+
+    @Test
+    void truncatedByteSequenceOnStreamWithShortReads() {
+        BencodeStreamReader bsr = new BencodeStreamReader(
+                new TricklingInputStream("20000:abc".getBytes(StandardCharsets.UTF_8)));
+
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class,
+                () -> new BencodedByteSequence(bsr), "Truncated byte sequence is processed incorrectly");
+        assertEquals("Unexpected end of the byte sequence stream", exception.getMessage());
+    }
+
+    /**
+     * Stream, that returns at most 3 bytes per read, like a slow network stream does.
+     */
+    private static final class TricklingInputStream extends ByteArrayInputStream {
+
+        /**
+         * Constructs the stream.
+         *
+         * @param contents stream contents.
+         */
+        TricklingInputStream(byte[] contents) {
+            super(contents);
+        }
+
+        /**
+         * Reads at most 3 bytes.
+         *
+         * @param b   target array.
+         * @param off target offset.
+         * @param len max qty of bytes to read.
+         * @return qty of bytes read, or -1 at the end of the stream.
+         */
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 3));
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.CircularReferenceException;
+import com.github.cdefgah.bencoder4j.model.BencodedByteSequence;
+import com.github.cdefgah.bencoder4j.model.BencodedDictionary;
+import com.github.cdefgah.bencoder4j.model.BencodedInteger;
+import com.github.cdefgah.bencoder4j.model.BencodedList;
+import com.github.cdefgah.bencoder4j.model.BencodedObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BencodeStreamWriterTest {
+
+    @Test
+    void nestedObjectsAreWrittenCorrectly() throws IOException, CircularReferenceException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BencodeStreamWriter writer = new BencodeStreamWriter(baos);
+        writer.setVerifyKeyOrder(true);
+
+        BencodedList peers = new BencodedList();
+        peers.add(new BencodedByteSequence("peer"));
+
+        writer.beginDictionary();
+        writer.key("files");
+        writer.beginDictionary();
+        writer.key(new byte[]{1, 2});
+        writer.beginList();
+        writer.value(Long.MIN_VALUE);
+        writer.value(new byte[0]);
+        writer.end();
+        writer.key(new byte[]{(byte) 0xFF});
+        writer.value(0);
+        writer.end();
+        writer.key("interval");
+        writer.value(1800);
+        writer.key("peers");
+        writer.value(peers);
+        writer.end();
+        writer.value("next");
+        writer.flush();
+
+        assertAll("Ensuring nested objects are written correctly",
+                () -> assertEquals("d5:filesd2:\u0001\u0002li-9223372036854775808e0:e1:\u00FFi0ee" +
+                                "8:intervali1800e5:peersl4:peeree4:next",
+                        new String(baos.toByteArray(), StandardCharsets.ISO_8859_1)),
+                () -> assertEquals(0, writer.getDepth())
+        );
+    }
+
+    @Test
+    void writtenDictionaryCanBeDecoded() throws IOException, BencodeFormatException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BencodeStreamWriter writer = new BencodeStreamWriter(Channels.newChannel(baos), 64);
+        writer.setVerifyKeyOrder(true);
+
+        int entriesCount = 10000;
+        writer.beginDictionary();
+        for (int i = 0; i < entriesCount; i++) {
+            writer.key(String.format("%08d", i));
+            writer.beginList();
+            writer.value(i);
+            writer.end();
+        }
+        writer.end();
+        writer.flush();
+
+        BencodedDictionary dictionary = new BencodedDictionary(
+                new BencodeStreamReader(new ByteArrayInputStream(baos.toByteArray())));
+
+        assertAll("Ensuring written dictionary is decoded correctly",
+                () -> assertEquals(entriesCount, dictionary.size()),
+                () -> assertEquals(new BencodedInteger(1234), ((BencodedList) dictionary.get("00001234")).get(0))
+        );
+    }
+
+    @Test
+    void incorrectNestingIsNotAllowed() throws IOException {
+        BencodeStreamWriter writer = new BencodeStreamWriter(new ByteArrayOutputStream());
+
+        assertThrows(IllegalStateException.class, writer::end, "End without open object should not be allowed");
+        assertThrows(IllegalStateException.class, () -> writer.key("key"),
+                "Key outside of a dictionary should not be allowed");
+
+        writer.beginList();
+        assertThrows(IllegalStateException.class, () -> writer.key("key"),
+                "Key in a list should not be allowed");
+
+        writer.beginDictionary();
+        assertThrows(IllegalStateException.class, () -> writer.value(1),
+                "Dictionary value without a key should not be allowed");
+        assertThrows(IllegalStateException.class, writer::beginList,
+                "Dictionary value without a key should not be allowed");
+
+        writer.key("key");
+        assertThrows(IllegalStateException.class, () -> writer.key("another"),
+                "Two keys in a row should not be allowed");
+        assertThrows(IllegalStateException.class, writer::end,
+                "Dictionary key without a value should not be allowed");
+
+        writer.value("value");
+        writer.end();
+        writer.end();
+        assertEquals(0, writer.getDepth(), "Incorrect depth after all objects are ended");
+    }
+
+    @Test
+    void keyOrderSettingIsTakenWhenDictionaryIsBegun() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BencodeStreamWriter writer = new BencodeStreamWriter(baos);
+
+        writer.beginDictionary();
+        writer.setVerifyKeyOrder(true);
+        writer.key("b");
+        writer.value(1);
+        writer.key("a");
+        writer.value(2);
+
+        writer.key("c");
+        writer.beginDictionary();
+        writer.setVerifyKeyOrder(false);
+        writer.key("y");
+        writer.value(3);
+
+        assertThrows(IllegalArgumentException.class, () -> writer.key("x"),
+                "Key order should be verified in the dictionary, begun while verification was enabled");
+
+        writer.key("z");
+        writer.value(4);
+        writer.end();
+        writer.end();
+        writer.flush();
+
+        assertEquals("d1:bi1e1:ai2e1:cd1:yi3e1:zi4eee", new String(baos.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void keyOrderIsVerifiedIfEnabled() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BencodeStreamWriter writer = new BencodeStreamWriter(baos);
+
+        writer.beginDictionary();
+        writer.key("b");
+        writer.value(1);
+        writer.key("a");
+        writer.value(2);
+        writer.end();
+
+        writer.setVerifyKeyOrder(true);
+        writer.beginDictionary();
+        writer.key(new byte[]{0x7F});
+        writer.value(1);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> writer.key("\u007F"),
+                "Duplicate key should not be allowed if key order verification is enabled");
+
+        assertAll("Ensuring key order is verified",
+                () -> assertEquals("Dictionary key is not greater than the previous key: \u007F",
+                        exception.getMessage(), "Unexpected message in correctly thrown exception"),
+                () -> assertThrows(IllegalArgumentException.class, () -> writer.key("\u0001")),
+                () -> assertFalse(new BencodeStreamWriter(baos).isVerifyKeyOrder())
+        );
+
+        writer.key(new byte[]{(byte) 0x80});
+        writer.value(2);
+        writer.end();
+        writer.flush();
+
+        assertEquals("d1:bi1e1:ai2eed1:\u007Fi1e1:\u0080i2ee",
+                new String(baos.toByteArray(), StandardCharsets.ISO_8859_1),
+                "Incorrect output of the writer");
+    }
+
+    @Test
+    void deepNestingIsSupported() throws IOException {
+        int depth = 1000;
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BencodeStreamWriter writer = new BencodeStreamWriter(baos);
+        for (int i = 0; i < depth; i++) {
+            writer.beginList();
+        }
+
+        assertEquals(depth, writer.getDepth(), "Incorrect depth of the open lists");
+        for (int i = 0; i < depth; i++) {
+            writer.end();
+        }
+        writer.flush();
+
+        assertEquals(depth * 2, baos.size(), "Incorrect qty of written bytes");
+    }
+
+    @Test
+    void nullArgumentsAreNotAllowed() throws IOException {
+        BencodeStreamWriter writer = new BencodeStreamWriter(new ByteArrayOutputStream());
+        writer.beginDictionary();
+
+        assertAll("Ensuring null arguments are not allowed",
+                () -> assertThrows(IllegalArgumentException.class, () -> writer.key((String) null)),
+                () -> assertThrows(IllegalArgumentException.class, () -> writer.key((byte[]) null)),
+                () -> assertThrows(IllegalArgumentException.class, () -> writer.value((String) null)),
+                () -> assertThrows(IllegalArgumentException.class, () -> writer.value((byte[]) null)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> writer.value((BencodedObject) null))
+        );
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.BencodedByteSequence;
+import com.github.cdefgah.bencoder4j.model.BencodedDictionary;
+import com.github.cdefgah.bencoder4j.model.BencodedInteger;
+import com.github.cdefgah.bencoder4j.model.BencodedList;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BencodeSyntaxTest {
+
+    @Test
+    void accumulatingCanonicalIntegers() {
+        String[] integers = {"0", "7", "-7", "1234567890", "9223372036854775807", "-9223372036854775808"};
+
+        for (String integer : integers) {
+            BencodeSyntax.DecimalAccumulator decimal = accumulateInteger(integer);
+
+            assertAll("Validating accumulated integer: " + integer,
+                    () -> assertTrue(decimal.isCanonical(), "Canonical integer is rejected"),
+                    () -> assertEquals(Long.parseLong(integer), decimal.getValue(), "Unexpected integer value")
+            );
+        }
+    }
+
+    @Test
+    void rejectingNonCanonicalIntegers() {
+        String[] integers = {"", "-", "00", "01", "-0", "-01", "9223372036854775808"};
+
+        for (String integer : integers) {
+            assertFalse(accumulateInteger(integer).isCanonical(), "Non-canonical integer is accepted: " + integer);
+        }
+    }
+
+    @Test
+    void stoppingOnIntegerOverflow() {
+        BencodeSyntax.DecimalAccumulator decimal = new BencodeSyntax.DecimalAccumulator();
+        decimal.startInteger();
+
+        ByteBuffer buffer = toBuffer("92233720368547758070e");
+        assertAll("Validating integer overflow detection",
+                () -> assertEquals(19, decimal.append(buffer, 0, buffer.limit())),
+                () -> assertEquals(19, decimal.getDigitsCount()),
+                () -> assertEquals(Long.MAX_VALUE, decimal.getValue(), "Overflowing digit is appended")
+        );
+    }
+
+    @Test
+    void accumulatingLengths() {
+        BencodeSyntax.DecimalAccumulator decimal = new BencodeSyntax.DecimalAccumulator();
+
+        decimal.startLength();
+        ByteBuffer maxLength = toBuffer("2147483647:");
+        assertAll("Validating max length accumulation",
+                () -> assertEquals(10, decimal.append(maxLength, 0, maxLength.limit())),
+                () -> assertTrue(decimal.isCanonical(), "Max length is rejected"),
+                () -> assertEquals(Integer.MAX_VALUE, decimal.getValue())
+        );
+
+        decimal.startLength();
+        ByteBuffer tooLong = toBuffer("2147483648:");
+        assertEquals(9, decimal.append(tooLong, 0, tooLong.limit()), "Length overflow is not detected");
+
+        decimal.startLength();
+        ByteBuffer leadingZero = toBuffer("012:");
+        assertAll("Validating length with leading zero",
+                () -> assertEquals(3, decimal.append(leadingZero, 0, leadingZero.limit())),
+                () -> assertTrue(decimal.hasLeadingZero()),
+                () -> assertFalse(decimal.isCanonical(), "Length with leading zero is accepted")
+        );
+    }
+
+    @Test
+    void checkingDictionaryKeyPrefixes() throws BencodeFormatException {
+        BencodeSyntax.checkDictionaryKeyPrefix('4');
+        BencodeSyntax.checkDictionaryKeyPrefix('x');
+
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class,
+                () -> BencodeSyntax.checkDictionaryKeyPrefix(BencodedInteger.SERIALIZED_PREFIX));
+
+        assertEquals("Incorrect object used as dictionary key. Expected: '" +
+                BencodedByteSequence.class.getCanonicalName() + "' but get: '" +
+                BencodedInteger.class.getCanonicalName() + "'", exception.getMessage());
+
+        assertAll("Validating container prefixes used as dictionary keys",
+                () -> assertThrows(BencodeFormatException.class,
+                        () -> BencodeSyntax.checkDictionaryKeyPrefix(BencodedList.SERIALIZED_PREFIX)),
+                () -> assertThrows(BencodeFormatException.class,
+                        () -> BencodeSyntax.checkDictionaryKeyPrefix(BencodedDictionary.SERIALIZED_PREFIX))
+        );
+    }
+
+    private static BencodeSyntax.DecimalAccumulator accumulateInteger(String integer) {
+        BencodeSyntax.DecimalAccumulator decimal = new BencodeSyntax.DecimalAccumulator();
+        decimal.startInteger();
+
+        int index = 0;
+        if (integer.startsWith("-")) {
+            decimal.setNegative();
+            index++;
+        }
+
+        for (; index < integer.length(); index++) {
+            if (!decimal.append(integer.charAt(index) - '0')) {
+                break;
+            }
+        }
+
+        return decimal;
+    }
+
+    private static ByteBuffer toBuffer(String contents) {
+        return ByteBuffer.wrap(contents.getBytes(StandardCharsets.US_ASCII));
+    }
+}
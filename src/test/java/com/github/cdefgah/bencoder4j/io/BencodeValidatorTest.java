@@ -0,0 +1,112 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.BencodedByteSequence;
+import com.github.cdefgah.bencoder4j.model.BencodedList;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BencodeValidatorTest {
+
+    @Test
+    void validatingWellFormedObjects() throws BencodeFormatException {
+        BencodeValidator validator = new BencodeValidator();
+        String[] wellFormedObjects = {"i0e", "i-42e", "i9223372036854775807e", "i-9223372036854775808e", "0:",
+                "3:abc", "le", "de", "llleee", "d1:ali1e2:xyd1:bdeee1:c0:e", "d1:bi1e1:ai2ee"};
+
+        for (String wellFormedObject : wellFormedObjects) {
+            validator.validate(wellFormedObject.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void validatingMalformedObjects() {
+        String keyTypeMessage = "Incorrect object used as dictionary key. Expected: '" +
+                BencodedByteSequence.class.getCanonicalName() + "' but get: '" +
+                BencodedList.class.getCanonicalName() + "'";
+
+        Object[][] malformedObjects = {
+                {"", "Unexpected end of the stream", 0},
+                {"x", "Unexpected character in the stream: x", 0},
+                {"e", "Unexpected character in the stream: e", 0},
+                {"i03e", "Incorrect character sequence for the value", 1},
+                {"i-0e", "Incorrect character sequence for the value", 2},
+                {"i1x2e", "Incorrect character sequence for the value", 2},
+                {"ie", "Incorrect character sequence for the value", 1},
+                {"i12", "Stop symbol: 'e' was not reached", 3},
+                {"i9223372036854775808e", "Incorrect character sequence for the value", 1},
+                {"l03:abce", "BencodedByteSequence length cannot be converted to a numeric value", 1},
+                {"l5:abce", "Unexpected end of the byte sequence stream", 3},
+                {"l1:a", "Unexpected end of the stream", 4},
+                {"d1:ae", "Unexpected end of the stream for dictionary. 'Key' object is present, " +
+                        "but 'value' object is not.", 4},
+                {"d1:ai1elee", keyTypeMessage, 7},
+                {"i1ei2e", "Unexpected data after the end of the object", 3}
+        };
+
+        BencodeValidator validator = new BencodeValidator();
+        for (Object[] malformedObject : malformedObjects) {
+            BencodeFormatException exception = assertThrows(BencodeFormatException.class, () ->
+                            validator.validate(((String) malformedObject[0]).getBytes(StandardCharsets.UTF_8)),
+                    "Validator behaves incorrectly on malformed object: " + malformedObject[0]);
+
+            assertEquals(malformedObject[1], exception.getMessage(),
+                    "Unexpected message in correctly thrown exception for: " + malformedObject[0]);
+            assertEquals(((Integer) malformedObject[2]).longValue(), exception.getOffset(),
+                    "Unexpected offset in correctly thrown exception for: " + malformedObject[0]);
+        }
+    }
+
+    @Test
+    void validatingKeyOrder() throws BencodeFormatException {
+        BencodeValidator validator = new BencodeValidator();
+        validator.setSortedKeysRequired(true);
+        assertTrue(validator.isSortedKeysRequired());
+
+        validator.validate("d1:ad1:xi1e1:yi2ee2:aai3e1:bi4ee".getBytes(StandardCharsets.UTF_8));
+
+        BencodeFormatException unsortedException = assertThrows(BencodeFormatException.class, () ->
+                validator.validate("d1:ai1e1:bd1:yi1e1:xi2eee".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("Dictionary keys are not sorted", unsortedException.getMessage());
+        assertEquals(17, unsortedException.getOffset());
+
+        BencodeFormatException duplicateException = assertThrows(BencodeFormatException.class, () ->
+                validator.validate("d1:ai1e1:ai2ee".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("Duplicate dictionary key", duplicateException.getMessage());
+        assertEquals(7, duplicateException.getOffset());
+    }
+
+    @Test
+    void validatingBufferRegion() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(16);
+        buffer.put("xxli1e4:ab".getBytes(StandardCharsets.UTF_8));
+        buffer.flip().position(2);
+
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class, () ->
+                new BencodeValidator().validate(buffer));
+
+        assertAll("Validating buffer region validation",
+                () -> assertEquals("Unexpected end of the byte sequence stream", exception.getMessage()),
+                () -> assertEquals(6, exception.getOffset()),
+                () -> assertEquals(2, buffer.position())
+        );
+    }
+
+    @Test
+    void validatingDeeplyNestedObject() throws BencodeFormatException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            sb.append('l');
+        }
+
+        for (int i = 0; i < 100000; i++) {
+            sb.append('e');
+        }
+
+        new BencodeValidator().validate(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
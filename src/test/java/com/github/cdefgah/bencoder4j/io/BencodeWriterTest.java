@@ -0,0 +1,297 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.CircularReferenceException;
+import com.github.cdefgah.bencoder4j.model.BencodedByteSequence;
+import com.github.cdefgah.bencoder4j.model.BencodedDictionary;
+import com.github.cdefgah.bencoder4j.model.BencodedInteger;
+import com.github.cdefgah.bencoder4j.model.BencodedList;
+import com.github.cdefgah.bencoder4j.model.BencodedObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BencodeWriterTest {
+
+    @Test
+    void integersAreWrittenCorrectly() throws IOException, CircularReferenceException {
+        long[] values = {0, 1, -1, 9, 10, 99, 100, -100, 12345, 1000000007L, -999999999999L,
+                Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1};
+
+        for (long value : values) {
+            BencodedInteger bencodedInteger = new BencodedInteger(value);
+            assertEquals("i" + value + "e", new String(writeToArray(bencodedInteger), StandardCharsets.US_ASCII),
+                    "Integer is written incorrectly: " + value);
+        }
+    }
+
+    @Test
+    void nestedObjectsAreWrittenCorrectly() throws IOException, CircularReferenceException {
+        BencodedDictionary dictionary = new BencodedDictionary();
+        dictionary.put("name", new BencodedByteSequence("example"));
+        dictionary.put("length", new BencodedInteger(-42));
+        dictionary.put("empty", new BencodedByteSequence(new byte[0]));
+
+        BencodedList list = new BencodedList();
+        list.add(new BencodedInteger(7));
+        list.add(new BencodedList());
+        list.add(new BencodedDictionary());
+        list.add(dictionary);
+        dictionary.put("files", new BencodedList());
+
+        BencodedDictionary root = new BencodedDictionary();
+        root.put("info", dictionary);
+        root.put("list", list);
+
+        String info = "d5:empty0:5:filesle6:lengthi-42e4:name7:examplee";
+        String expected = "d4:info" + info + "4:listli7elede" + info + "ee";
+
+        assertEquals(expected, new String(writeToArray(root), StandardCharsets.US_ASCII),
+                "Nested objects are written incorrectly");
+    }
+
+    @Test
+    void encodedDictionaryValuesAreWrittenAsTheyAre() throws IOException, CircularReferenceException,
+            BencodeFormatException {
+        // keys of the encoded value are out of order, so decoding and encoding it again would reorder them
+        String encodedValue = "d1:bi1e1:ai2ee";
+        BencodedDictionary dictionary = new BencodedDictionary();
+        dictionary.putEncoded(new BencodedByteSequence("encoded"),
+                ByteBuffer.wrap(encodedValue.getBytes(StandardCharsets.US_ASCII)));
+        dictionary.put("plain", new BencodedInteger(3));
+
+        assertEquals("d7:encoded" + encodedValue + "5:plaini3ee",
+                new String(writeToArray(dictionary), StandardCharsets.US_ASCII),
+                "Encoded dictionary value is not written as it is");
+    }
+
+    @Test
+    void largeByteSequencesBypassTheBuffer() throws IOException, CircularReferenceException {
+        byte[] body = new byte[100000];
+        new Random(17).nextBytes(body);
+
+        ByteBuffer directBody = ByteBuffer.allocateDirect(body.length);
+        directBody.put(body);
+        directBody.flip();
+
+        BencodedList list = new BencodedList();
+        list.add(new BencodedByteSequence(body));
+        list.add(BencodedByteSequence.wrap(directBody));
+        list.add(new BencodedByteSequence(Arrays.copyOf(body, 40)));
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        list.writeObject(expected);
+
+        ByteArrayOutputStream channelOutput = new ByteArrayOutputStream();
+        BencodeWriter channelWriter = new BencodeWriter(Channels.newChannel(channelOutput), 64);
+        channelWriter.write(list);
+        channelWriter.flush();
+
+        assertAll("Ensuring large byte sequences are written correctly",
+                () -> assertArrayEquals(expected.toByteArray(), writeToArray(list)),
+                () -> assertArrayEquals(expected.toByteArray(), channelOutput.toByteArray())
+        );
+    }
+
+    @Test
+    void outputStreamIsAccessedInChunks() throws IOException, CircularReferenceException {
+        BencodedList list = new BencodedList();
+        for (int i = 0; i < 1000; i++) {
+            list.add(new BencodedInteger(i));
+            list.add(new BencodedByteSequence("item" + i));
+        }
+
+        CountingOutputStream os = new CountingOutputStream();
+        BencodeWriter writer = new BencodeWriter(os);
+        writer.write(list);
+        writer.flush();
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        list.writeObject(expected);
+
+        assertAll("Ensuring the output stream is accessed in large chunks",
+                () -> assertArrayEquals(expected.toByteArray(), os.bytes.toByteArray()),
+                () -> assertEquals(0, os.singleByteWrites, "Output stream is accessed per byte"),
+                () -> assertTrue(os.arrayWrites <= expected.size() / BencodeWriter.DEFAULT_BUFFER_SIZE + 1,
+                        "Output stream is accessed too often: " + os.arrayWrites)
+        );
+    }
+
+    @Test
+    void encodedDecimalMatchesWrittenDigits() {
+        long[] values = {0, 7, -7, 10, -10, 99, -100, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE};
+
+        for (long value : values) {
+            byte[] target = new byte[BencodeWriter.decimalLength(value) + 2];
+            int end = BencodeWriter.encodeDecimal(value, target, 1);
+
+            assertAll("Validating encoded decimal: " + value,
+                    () -> assertEquals(target.length - 1, end, "Unexpected end of the encoded digits"),
+                    () -> assertEquals(String.valueOf(value),
+                            new String(target, 1, end - 1, StandardCharsets.US_ASCII))
+            );
+        }
+
+        assertAll("Ensuring incorrect targets are not allowed",
+                () -> assertThrows(IllegalArgumentException.class, () -> BencodeWriter.encodeDecimal(1, null, 0)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> BencodeWriter.encodeDecimal(100, new byte[3], 1)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> BencodeWriter.encodeDecimal(1, new byte[3], -1))
+        );
+    }
+
+    @Test
+    void decimalLengthMatchesWrittenDigits() {
+        long[] values = {0, 9, 10, -1, -9, -10, 99, 100, 999_999_999_999L, 1_000_000_000_000L,
+                Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1};
+
+        for (long value : values) {
+            assertEquals(String.valueOf(value).length(), BencodeWriter.decimalLength(value),
+                    "Incorrect decimal length of " + value);
+        }
+    }
+
+    @Test
+    void readOnlyAndDirectBuffersAreWrittenInBulk() throws IOException, CircularReferenceException {
+        byte[] body = new byte[100000];
+        new Random(11).nextBytes(body);
+
+        ByteBuffer directBody = ByteBuffer.allocateDirect(body.length);
+        directBody.put(body);
+        directBody.flip();
+
+        BencodedByteSequence[] sequences = {BencodedByteSequence.wrap(ByteBuffer.wrap(body)),
+                BencodedByteSequence.wrap(directBody)};
+
+        for (BencodedByteSequence sequence : sequences) {
+            CountingOutputStream os = new CountingOutputStream();
+            BencodeWriter writer = new BencodeWriter(os);
+            writer.write(sequence);
+            writer.flush();
+
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            expected.write("100000:".getBytes(StandardCharsets.US_ASCII));
+            expected.write(body);
+
+            assertAll("Ensuring the byte sequence body is written in bulk",
+                    () -> assertArrayEquals(expected.toByteArray(), os.bytes.toByteArray()),
+                    () -> assertEquals(2, os.arrayWrites, "Byte sequence body is not written in bulk")
+            );
+        }
+    }
+
+    @Test
+    void deeplyNestedListIsWritten() throws IOException, CircularReferenceException {
+        int depth = 100000;
+        BencodedList root = new BencodedList();
+        BencodedList current = root;
+        for (int i = 1; i < depth; i++) {
+            BencodedList nested = new BencodedList();
+            current.add(nested);
+            current = nested;
+        }
+
+        byte[] encoded = writeToArray(root);
+
+        assertAll("Ensuring deeply nested list is written",
+                () -> assertEquals(depth * 2, encoded.length),
+                () -> assertEquals('l', encoded[depth - 1]),
+                () -> assertEquals('e', encoded[depth])
+        );
+    }
+
+    @Test
+    void circularReferenceIsDetected() {
+        BencodedList list = new BencodedList();
+        BencodedDictionary dictionary = new BencodedDictionary();
+        dictionary.put("list", list);
+        list.add(new BencodedInteger(1));
+        list.add(dictionary);
+
+        CircularReferenceException exception = assertThrows(CircularReferenceException.class, () ->
+                        writeToArray(list),
+                "BencodeWriter should throw circular reference exception, but it does not");
+
+        assertEquals("Upon writing to stream, circular reference found in " + BencodedList.class.getCanonicalName(),
+                exception.getMessage(),
+                "Unexpected message in correctly thrown exception");
+    }
+
+    @Test
+    void sameObjectCanBeWrittenTwiceInOneTree() throws IOException, CircularReferenceException {
+        BencodedList shared = new BencodedList();
+        shared.add(new BencodedInteger(5));
+
+        BencodedList root = new BencodedList();
+        root.add(shared);
+        root.add(shared);
+
+        assertEquals("lli5eeli5eee", new String(writeToArray(root), StandardCharsets.US_ASCII),
+                "Shared object is written incorrectly");
+    }
+
+    @Test
+    void incorrectArgumentsAreNotAllowed() {
+        assertAll("Ensuring incorrect arguments are not allowed",
+                () -> assertThrows(IllegalArgumentException.class, () -> new BencodeWriter((OutputStream) null)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new BencodeWriter(new ByteArrayOutputStream(), 31)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new BencodeWriter(new ByteArrayOutputStream()).write((BencodedObject) null)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new BencodeWriter(new ByteArrayOutputStream()).write((BencodedInteger) null)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new BencodeWriter(new ByteArrayOutputStream()).write((BencodedByteSequence) null))
+        );
+    }
+
+    /**
+     * Writes the object with a new writer.
+     *
+     * @param bencodedObject object to be written.
+     * @return written bytes.
+     * @throws IOException                if there's an input/output error occurred.
+     * @throws CircularReferenceException if there's a circular reference found.
+     */
+    private static byte[] writeToArray(BencodedObject bencodedObject) throws IOException, CircularReferenceException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BencodeWriter writer = new BencodeWriter(baos);
+        writer.write(bencodedObject);
+        writer.flush();
+        return baos.toByteArray();
+    }
+
+    /**
+     * Output stream, that counts its accesses.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private int singleByteWrites;
+
+        private int arrayWrites;
+
+        @Override
+        public void write(int b) {
+            singleByteWrites++;
+            bytes.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            arrayWrites++;
+            bytes.write(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.cdefgah.bencoder4j.io;
+
+import com.github.cdefgah.bencoder4j.BencodeFormatException;
+import com.github.cdefgah.bencoder4j.model.BencodedInteger;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwarScannerTest {
+
+    @Test
+    void findingDigitRuns() {
+        String[][] runs = {
+                {"12345678e1234567", "8"},
+                {"1234567e12345678", "7"},
+                {"e1234567", "0"},
+                {"/9:;0123", "0"},
+                {"9/012345", "1"},
+                {"123456789012345e", "15"},
+                {"1234567890123456e", "-1"},
+                {"12345678", "-1"},
+                {"1234567", "-1"}
+        };
+
+        for (String[] run : runs) {
+            assertEquals(Integer.parseInt(run[1]),
+                    SwarScanner.digitRunLength(toBuffer(run[0]), 0, run[0].length()),
+                    "Unexpected digit run length for: " + run[0]);
+        }
+    }
+
+    @Test
+    void parsingDigitRuns() {
+        StringBuilder digits = new StringBuilder();
+        for (int length = 1; length <= SwarScanner.MAX_RUN_LENGTH; length++) {
+            digits.append((char) ('0' + (length * 7) % 10));
+            String contents = digits + "e-------------------";
+
+            assertEquals(Long.parseLong(digits.toString()),
+                    SwarScanner.parseDigitRun(toBuffer(contents), 0, length),
+                    "Unexpected value of digit run: " + digits);
+        }
+    }
+
+    @Test
+    void checkingCanonicalRuns() {
+        assertAll("Validating canonical digit run detection",
+                () -> assertEquals(3, canonicalRunLength("123:xxxx", ':', false)),
+                () -> assertEquals(1, canonicalRunLength("0:xxxxxx", ':', false)),
+                () -> assertEquals(-1, canonicalRunLength("0e", 'e', true)),
+                () -> assertEquals(-1, canonicalRunLength("012:xxxx", ':', false)),
+                () -> assertEquals(-1, canonicalRunLength("123exxxx", ':', false)),
+                () -> assertEquals(-1, canonicalRunLength(":xxxxxxx", ':', false))
+        );
+    }
+
+    @Test
+    void findingStopSymbol() {
+        assertAll("Validating stop symbol search",
+                () -> assertEquals(3, SwarScanner.indexOf(toBuffer("abc:d:ef").getLong(0), (byte) ':')),
+                () -> assertEquals(0, SwarScanner.indexOf(toBuffer("eeeeeeee").getLong(0), (byte) 'e')),
+                () -> assertEquals(6, SwarScanner.indexOf(toBuffer("\u0001\u0000abcdee").getLong(0), (byte) 'e')),
+                () -> assertEquals(8, SwarScanner.indexOf(toBuffer("abcdefgh").getLong(0), (byte) ':'))
+        );
+    }
+
+    @Test
+    void decodingIntegersOfAllLengths() throws IOException, BencodeFormatException {
+        long value = 1;
+        for (int length = 1; length <= 19; length++) {
+            for (long integer : new long[]{value, -value, value * 9 + (value - 1)}) {
+                if (integer < 0 && integer > -value) {
+                    continue;
+                }
+
+                String contents = "i" + integer + "e3:abc";
+                BencodeBufferDecoder decoder = new BencodeBufferDecoder(
+                        ByteBuffer.wrap(contents.getBytes(StandardCharsets.UTF_8)));
+                BencodeStreamReader bsr = new BencodeStreamReader(
+                        new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8)));
+
+                assertEquals(integer, ((BencodedInteger) decoder.next()).getValue(),
+                        "Buffer decoder returns unexpected value for: " + contents);
+                assertEquals(integer, new BencodedInteger(bsr).getValue(),
+                        "Stream reader returns unexpected value for: " + contents);
+            }
+
+            value = value < Long.MAX_VALUE / 10 ? value * 10 : value;
+        }
+    }
+
+    /**
+     * Returns the canonical run length for the contents.
+     *
+     * @param contents   contents to scan.
+     * @param stopSymbol expected stop symbol.
+     * @param negative   true, if the run is preceded by the minus sign.
+     * @return see method description above.
+     */
+    private static int canonicalRunLength(String contents, char stopSymbol, boolean negative) {
+        return SwarScanner.canonicalRunLength(toBuffer(contents + "xxxxxxxx"), 0, contents.length() + 8,
+                stopSymbol, negative, SwarScanner.MAX_RUN_LENGTH);
+    }
+
+    /**
+     * Wraps string bytes into a little-endian buffer.
+     *
+     * @param contents string contents.
+     * @return buffer with string bytes.
+     */
+    private static ByteBuffer toBuffer(String contents) {
+        return SwarScanner.littleEndianView(contents.getBytes(StandardCharsets.ISO_8859_1));
+    }
+}
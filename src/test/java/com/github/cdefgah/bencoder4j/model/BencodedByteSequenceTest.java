@@ -2,15 +2,30 @@ package com.github.cdefgah.bencoder4j.model;
 
 import com.github.cdefgah.bencoder4j.BencodeFormatException;
 import com.github.cdefgah.bencoder4j.io.BencodeStreamReader;
+import com.github.cdefgah.bencoder4j.io.BencodeWriter;
 
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-
+import java.io.UncheckedIOException;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -456,6 +471,87 @@ class BencodedByteSequenceTest {
     }
 
 
+    @Test
+    void instantiationFromBufferCopiesRemainingBytes() {
+        ByteBuffer buffer = ByteBuffer.wrap("xxabc".getBytes(StandardCharsets.UTF_8));
+        buffer.position(2);
+
+        BencodedByteSequence bbs = new BencodedByteSequence(buffer);
+        buffer.put(2, (byte) 'z');
+
+        assertAll("Validating byte sequence copied from the buffer",
+                () -> assertEquals("abc", bbs.toUTF8String()),
+                () -> assertEquals(2, buffer.position())
+        );
+    }
+
+    @Test
+    void wrappedBufferBehavesAsByteArray() throws IOException {
+        byte[] referenceByteSequence = "Некая последовательность".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(referenceByteSequence.length);
+        directBuffer.put(referenceByteSequence);
+        directBuffer.flip();
+
+        BencodedByteSequence wrapped = BencodedByteSequence.wrap(directBuffer);
+        BencodedByteSequence reference = new BencodedByteSequence(referenceByteSequence);
+
+        ByteArrayOutputStream wrappedBaos = new ByteArrayOutputStream();
+        wrapped.writeObject(wrappedBaos);
+        ByteArrayOutputStream referenceBaos = new ByteArrayOutputStream();
+        reference.writeObject(referenceBaos);
+
+        assertAll("Comparing buffer-backed object to the array-backed one",
+                () -> assertEquals(reference, wrapped),
+                () -> assertEquals(wrapped, reference),
+                () -> assertEquals(reference.hashCode(), wrapped.hashCode()),
+                () -> assertEquals(reference.length(), wrapped.length()),
+                () -> assertEquals(reference.toString(), wrapped.toString()),
+                () -> assertEquals(reference.toUTF8String(), wrapped.toUTF8String()),
+                () -> assertEquals(0, reference.compareTo(wrapped)),
+                () -> assertArrayEquals(referenceByteSequence, wrapped.getByteSequence()),
+                () -> assertArrayEquals(referenceBaos.toByteArray(), wrappedBaos.toByteArray())
+        );
+    }
+
+    @Test
+    void byteBufferViewIsReadOnly() {
+        BencodedByteSequence bbs = new BencodedByteSequence("abc");
+        ByteBuffer view = bbs.asByteBuffer();
+
+        assertAll("Validating byte buffer view",
+                () -> assertTrue(view.isReadOnly()),
+                () -> assertEquals(3, view.remaining()),
+                () -> assertEquals('a', view.get(0))
+        );
+    }
+
+    @Test
+    void nullBufferIsNotAllowed() {
+        assertAll("Validating null buffer handling",
+                () -> assertThrows(IllegalArgumentException.class, () -> new BencodedByteSequence((ByteBuffer) null)),
+                () -> assertThrows(IllegalArgumentException.class, () -> BencodedByteSequence.wrap(null))
+        );
+    }
+
+    @Test
+    void instantiationFromStreamWithNonCanonicalSequenceLength() {
+        String[] incorrectContents = {"03:abc", "-1:a", "+3:abc", "2147483648:a"};
+
+        for (String streamContents : incorrectContents) {
+            InputStream is = new ByteArrayInputStream(streamContents.getBytes(StandardCharsets.UTF_8));
+            BencodeStreamReader bsr = new BencodeStreamReader(is);
+
+            BencodeFormatException exception = assertThrows(BencodeFormatException.class, () ->
+                            new BencodedByteSequence(bsr),
+                    "BencodedByteSequence constructor behaves incorrectly on the " +
+                            "stream data with non-canonical sequence length: " + streamContents);
+
+            assertEquals("BencodedByteSequence length cannot be converted to a numeric value",
+                    exception.getMessage(),
+                    "Unexpected message in correctly thrown exception");
+        }
+    }
+
     /**
      * Deserializes particular sequence to test the class correctness.
      *
@@ -483,4 +579,334 @@ class BencodedByteSequenceTest {
                 () -> assertEquals(bbs2, bbsFromStream));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFileRegionByteSequence() throws IOException, NoSuchAlgorithmException {
+        Path path = Files.createTempFile("bencoder4j", ".pieces");
+        try {
+            StringBuilder contents = new StringBuilder("header:");
+            for (int i = 0; i < 10000; i++) {
+                contents.append((char) ('a' + i % 26));
+            }
+            Files.write(path, contents.toString().getBytes(StandardCharsets.UTF_8));
+            BencodedByteSequence reference = new BencodedByteSequence(contents.substring(7));
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                BencodedByteSequence bbs = BencodedByteSequence.wrap(channel, 7, 10000);
+
+                ByteArrayOutputStream referenceOutput = new ByteArrayOutputStream();
+                reference.writeObject(referenceOutput);
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                bbs.writeObject(output);
+
+                MessageDigest referenceDigest = MessageDigest.getInstance("SHA-1");
+                reference.updateDigest(referenceDigest);
+                MessageDigest digest = MessageDigest.getInstance("SHA-1");
+                bbs.updateDigest(digest);
+
+                assertAll("Validating byte sequence, referring to a file region",
+                        () -> assertEquals(10000, bbs.length()),
+                        () -> assertEquals(reference, bbs),
+                        () -> assertEquals(bbs, reference),
+                        () -> assertEquals(reference.hashCode(), bbs.hashCode()),
+                        () -> assertArrayEquals(reference.getByteSequence(), bbs.getByteSequence()),
+                        () -> assertEquals(reference.toUTF8String(), bbs.toUTF8String()),
+                        () -> assertEquals(reference.asByteBuffer(), bbs.asByteBuffer()),
+                        () -> assertArrayEquals(referenceOutput.toByteArray(), output.toByteArray()),
+                        () -> assertArrayEquals(referenceDigest.digest(), digest.digest()),
+                        () -> assertEquals(0, channel.position())
+                );
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void fileRegionIsMappedOnlyUponBufferRequest() throws IOException {
+        Path path = Files.createTempFile("bencoder4j", ".pieces");
+        try {
+            byte[] contents = new byte[20001];
+            for (int i = 0; i < contents.length; i++) {
+                contents[i] = (byte) ('a' + i % 26);
+            }
+            Files.write(path, contents);
+
+            BencodedByteSequence reference = new BencodedByteSequence(Arrays.copyOfRange(contents, 1, 20001));
+            byte[] differingBody = reference.getByteSequence();
+            differingBody[15000] = '~';
+            BencodedByteSequence differing = new BencodedByteSequence(differingBody);
+
+            try (FileChannel channel = new UnmappableFileChannel(FileChannel.open(path, StandardOpenOption.READ))) {
+                BencodedByteSequence bbs = BencodedByteSequence.wrap(channel, 1, 20000);
+                BencodedByteSequence prefix = BencodedByteSequence.wrap(channel, 1, 10000);
+
+                ByteArrayOutputStream referenceOutput = new ByteArrayOutputStream();
+                reference.writeObject(referenceOutput);
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                bbs.writeObject(output);
+
+                ByteArrayOutputStream channelOutput = new ByteArrayOutputStream();
+                BencodeWriter writer = new BencodeWriter(Channels.newChannel(channelOutput));
+                writer.write(bbs);
+                writer.flush();
+
+                assertAll("Validating byte sequence, referring to a file region, that cannot be mapped",
+                        () -> assertEquals(reference, bbs),
+                        () -> assertEquals(bbs, reference),
+                        () -> assertNotEquals(differing, bbs),
+                        () -> assertNotEquals(bbs, prefix),
+                        () -> assertEquals(0, bbs.compareTo(reference)),
+                        () -> assertTrue(bbs.compareTo(differing) < 0),
+                        () -> assertTrue(differing.compareTo(bbs) > 0),
+                        () -> assertTrue(prefix.compareTo(bbs) < 0),
+                        () -> assertEquals(reference.toUTF8String(), bbs.toUTF8String()),
+                        () -> assertArrayEquals(referenceOutput.toByteArray(), output.toByteArray()),
+                        () -> assertArrayEquals(referenceOutput.toByteArray(), channelOutput.toByteArray()),
+                        () -> assertThrows(UnsupportedOperationException.class, bbs::asByteBuffer),
+                        () -> assertThrows(IllegalArgumentException.class, () -> bbs.writeBody(null))
+                );
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void writeObjectPassesLengthAndBodyInBulk() throws IOException {
+        byte[] body = new byte[5000];
+        Arrays.fill(body, (byte) 'x');
+
+        int[] writeCalls = new int[1];
+        ByteArrayOutputStream baos = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(int b) {
+                writeCalls[0]++;
+                super.write(b);
+            }
+
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                writeCalls[0]++;
+                super.write(b, off, len);
+            }
+        };
+
+        new BencodedByteSequence(body).writeObject(baos);
+
+        assertAll("Ensuring the length and the body are written in bulk",
+                () -> assertEquals("5000:" + new String(body, StandardCharsets.US_ASCII),
+                        new String(baos.toByteArray(), StandardCharsets.US_ASCII)),
+                () -> assertEquals(2, writeCalls[0], "Byte sequence is written per byte")
+        );
+    }
+
+    @Test
+    void writeObjectPassesShortByteSequenceInSingleWrite() throws IOException {
+        byte[] buffer = "xx0123456789yy".getBytes(StandardCharsets.US_ASCII);
+        BencodedByteSequence[] byteSequences = {
+                new BencodedByteSequence("0123456789"),
+                BencodedByteSequence.wrap(ByteBuffer.wrap(buffer, 2, 10))
+        };
+
+        for (BencodedByteSequence bbs : byteSequences) {
+            int[] writeCalls = new int[1];
+            ByteArrayOutputStream baos = new ByteArrayOutputStream() {
+                @Override
+                public synchronized void write(int b) {
+                    writeCalls[0]++;
+                    super.write(b);
+                }
+
+                @Override
+                public synchronized void write(byte[] b, int off, int len) {
+                    writeCalls[0]++;
+                    super.write(b, off, len);
+                }
+            };
+
+            bbs.writeObject(baos);
+
+            assertAll("Ensuring the short byte sequence is written in a single call",
+                    () -> assertEquals("10:0123456789", new String(baos.toByteArray(), StandardCharsets.US_ASCII)),
+                    () -> assertEquals(1, writeCalls[0], "Byte sequence is written in several calls")
+            );
+        }
+    }
+
+    @Test
+    void testFileRegionExceedingFile() throws IOException {
+        Path path = Files.createTempFile("bencoder4j", ".pieces");
+        try {
+            Files.write(path, "abc".getBytes(StandardCharsets.UTF_8));
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                BencodedByteSequence bbs = BencodedByteSequence.wrap(channel, 1, 5);
+
+                assertAll("Validating byte sequence, referring to a region beyond the file end",
+                        () -> assertEquals(5, bbs.length()),
+                        () -> assertThrows(UncheckedIOException.class, bbs::getByteSequence),
+                        () -> assertThrows(UncheckedIOException.class, bbs::asByteBuffer),
+                        () -> assertThrows(UncheckedIOException.class, bbs::hashCode),
+                        () -> assertThrows(EOFException.class, () -> bbs.writeObject(new ByteArrayOutputStream())),
+                        () -> assertThrows(IllegalArgumentException.class,
+                                () -> BencodedByteSequence.wrap(channel, -1, 5)),
+                        () -> assertThrows(IllegalArgumentException.class,
+                                () -> BencodedByteSequence.wrap(channel, 0, -1)),
+                        () -> assertThrows(IllegalArgumentException.class,
+                                () -> BencodedByteSequence.wrap(null, 0, 0))
+                );
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testByteSequencesAreComparedAsUnsignedBytes() {
+        BencodedByteSequence highByte = new BencodedByteSequence(new byte[]{(byte) 0xFF});
+        BencodedByteSequence letter = new BencodedByteSequence("a");
+        BencodedByteSequence prefix = new BencodedByteSequence("ab");
+        BencodedByteSequence longer =
+                BencodedByteSequence.wrap(ByteBuffer.wrap("abc".getBytes(StandardCharsets.UTF_8)));
+
+        assertAll("Validating byte sequences order",
+                () -> assertTrue(highByte.compareTo(letter) > 0),
+                () -> assertTrue(letter.compareTo(highByte) < 0),
+                () -> assertTrue(prefix.compareTo(longer) < 0),
+                () -> assertTrue(longer.compareTo(prefix) > 0),
+                () -> assertEquals(0, longer.compareTo(new BencodedByteSequence("abc"))),
+                () -> assertTrue(letter.compareTo(prefix) < 0)
+        );
+    }
+
+    @Test
+    void testByteArraysAreComparedAsUnsignedBytes() {
+        byte[] highByte = {(byte) 0xFF};
+        byte[] letter = {'a'};
+        byte[] prefix = {'a', 'b'};
+
+        assertAll("Validating byte arrays order",
+                () -> assertTrue(BencodedByteSequence.compareUnsigned(highByte, letter) > 0),
+                () -> assertTrue(BencodedByteSequence.compareUnsigned(letter, prefix) < 0),
+                () -> assertEquals(0, BencodedByteSequence.compareUnsigned(prefix, new byte[]{'a', 'b'})),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> BencodedByteSequence.compareUnsigned(null, letter)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> BencodedByteSequence.compareUnsigned(letter, null))
+        );
+    }
+
+
+    @Test
+    void encodedLengthIsEqualToWrittenLength() throws IOException {
+        int[] lengths = {0, 1, 9, 10, 99, 100, 12345};
+
+        for (int length : lengths) {
+            BencodedByteSequence bbs = new BencodedByteSequence(new byte[length]);
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            bbs.writeObject(baos);
+
+            assertEquals(baos.size(), bbs.encodedLength(), "Incorrect encoded length for body length " + length);
+        }
+    }
+
+    /**
+     * File channel, that delegates to another one, but cannot be mapped to memory.
+     */
+    private static final class UnmappableFileChannel extends FileChannel {
+
+        private final FileChannel channel;
+
+        private UnmappableFileChannel(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) {
+            throw new UnsupportedOperationException("The channel cannot be mapped");
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return channel.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return channel.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return channel.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return channel.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return channel.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            channel.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            channel.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            channel.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return channel.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return channel.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return channel.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return channel.write(src, position);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return channel.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return channel.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -2,15 +2,24 @@ package com.github.cdefgah.bencoder4j.model;
 
 import com.github.cdefgah.bencoder4j.BencodeFormatException;
 import com.github.cdefgah.bencoder4j.io.BencodeStreamReader;
+import com.github.cdefgah.bencoder4j.io.DecodeLimits;
 import com.github.cdefgah.bencoder4j.CircularReferenceException;
 
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -1032,4 +1041,374 @@ class BencodedDictionaryTest {
                 () -> assertFalse(valuesIterator.hasNext())
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void encodedValuesAreDecodedOnAccess() throws BencodeFormatException {
+        ByteBuffer encodedList = ByteBuffer.wrap("li1e3:abce".getBytes(StandardCharsets.UTF_8));
+        ByteBuffer encodedInteger = ByteBuffer.wrap("i5e".getBytes(StandardCharsets.UTF_8));
+
+        BencodedDictionary dictionary = new BencodedDictionary();
+        dictionary.putEncoded(new BencodedByteSequence("list"), encodedList);
+        dictionary.putEncoded(new BencodedByteSequence("int"), encodedInteger);
+        dictionary.putEncoded(new BencodedByteSequence("removed"), encodedInteger);
+
+        BencodedList expectedList = new BencodedList();
+        expectedList.add(new BencodedInteger(1));
+        expectedList.add(new BencodedByteSequence("abc"));
+
+        assertAll("Validating encoded values access",
+                () -> assertEquals(0, encodedList.position()),
+                () -> assertEquals(3, dictionary.size()),
+                () -> assertTrue(dictionary.containsKey("int")),
+                () -> assertEquals(expectedList, dictionary.get("list")),
+                () -> assertSame(dictionary.get("list"), dictionary.get("list")),
+                () -> assertEquals(new BencodedInteger(5), dictionary.remove("removed")),
+                () -> assertTrue(dictionary.containsValue(new BencodedInteger(5))),
+                () -> assertEquals(2, dictionary.size())
+        );
+    }
+
+    @Test
+    void encodedValueIsDecodedOnceByConcurrentReaders() throws Exception {
+        BencodedDictionary dictionary = new BencodedDictionary();
+        dictionary.putEncoded(new BencodedByteSequence("list"),
+                ByteBuffer.wrap("li1e3:abce".getBytes(StandardCharsets.UTF_8)));
+
+        int threadsCount = 8;
+        CountDownLatch startLatch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+        try {
+            List<Future<BencodedObject>> results = new ArrayList<>();
+            for (int i = 0; i < threadsCount; i++) {
+                results.add(executor.submit(() -> {
+                    startLatch.await();
+                    return dictionary.get("list");
+                }));
+            }
+
+            startLatch.countDown();
+            BencodedObject firstValue = results.get(0).get();
+            for (Future<BencodedObject> result : results) {
+                assertSame(firstValue, result.get(), "Encoded value is decoded more than once");
+            }
+
+            assertSame(firstValue, dictionary.getValuesIterator().next(),
+                    "Iteration does not reuse the value, decoded by get() method");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void encodedValuesAreKeptByReadOnlyOperations() throws BencodeFormatException {
+        BencodedDictionary dictionary = new BencodedDictionary();
+        dictionary.putEncoded(new BencodedByteSequence("list"),
+                ByteBuffer.wrap("li1e3:abce".getBytes(StandardCharsets.UTF_8)));
+        BencodedDictionary sameDictionary = new BencodedDictionary();
+        sameDictionary.putEncoded(new BencodedByteSequence("list"),
+                ByteBuffer.wrap("li1e3:abce".getBytes(StandardCharsets.UTF_8)));
+
+        BencodedList expectedList = new BencodedList();
+        expectedList.add(new BencodedInteger(1));
+        expectedList.add(new BencodedByteSequence("abc"));
+        BencodedDictionary plainDictionary = new BencodedDictionary();
+        plainDictionary.put("list", expectedList);
+
+        assertAll("Validating read-only operations over encoded values",
+                () -> assertEquals(plainDictionary, dictionary),
+                () -> assertEquals(sameDictionary, dictionary),
+                () -> assertEquals(plainDictionary.hashCode(), dictionary.hashCode()),
+                () -> assertEquals(plainDictionary.toString(), dictionary.toString()),
+                () -> assertTrue(dictionary.containsValue(expectedList)),
+                () -> assertEquals(expectedList, dictionary.getValuesIterator().next())
+        );
+
+        assertAll("Validating encoded values are not replaced",
+                () -> assertTrue(dictionary.getCompositeValues().iterator().next() instanceof BencodedLazyValue),
+                () -> assertTrue(sameDictionary.getCompositeValues().iterator().next() instanceof BencodedLazyValue)
+        );
+    }
+
+    @Test
+    void encodedValueReplacedWithPlainOne() throws BencodeFormatException {
+        BencodedDictionary dictionary = new BencodedDictionary();
+        dictionary.putEncoded(new BencodedByteSequence("key"),
+                ByteBuffer.wrap("i5e".getBytes(StandardCharsets.UTF_8)));
+        dictionary.put("key", new BencodedInteger(7));
+
+        Iterator<BencodedObject> valuesIterator = dictionary.getValuesIterator();
+
+        assertAll("Validating replaced encoded value",
+                () -> assertEquals(new BencodedInteger(7), valuesIterator.next()),
+                () -> assertFalse(valuesIterator.hasNext())
+        );
+    }
+
+    @Test
+    void incorrectEncodedValueIsRejected() {
+        BencodedDictionary dictionary = new BencodedDictionary();
+        String[] incorrectValues = {"i5ei6e", "li1e", "d1:ae", "x", ""};
+
+        for (String incorrectValue : incorrectValues) {
+            assertThrows(BencodeFormatException.class, () ->
+                            dictionary.putEncoded(new BencodedByteSequence("key"),
+                                    ByteBuffer.wrap(incorrectValue.getBytes(StandardCharsets.UTF_8))),
+                    "BencodedDictionary behaves incorrectly on incorrect encoded value: " + incorrectValue);
+        }
+
+        assertAll("Ensuring incorrect encoded values are not put",
+                () -> assertTrue(dictionary.isEmpty()),
+                () -> assertNull(dictionary.get("key"))
+        );
+    }
+
+    @Test
+    void nullEncodedValuesAreNotAllowedInDictionary() {
+        BencodedDictionary dictionary = new BencodedDictionary();
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                        dictionary.putEncoded(new BencodedByteSequence("abc"), null),
+                "BencodedDictionary should throw illegal argument exception on attempt to " +
+                        "add an entry with null encoded value. But it does not.");
+
+        assertEquals("'encodedValue' value for BencodedDictionary cannot be null!",
+                exception.getMessage(),
+                "Unexpected message in correctly thrown exception");
+    }
+
+    @Test
+    void keysPutOutOfOrderAreSorted() throws IOException, CircularReferenceException {
+        BencodedDictionary dictionary = new BencodedDictionary();
+        dictionary.put("c", new BencodedInteger(3));
+        dictionary.put("a", new BencodedInteger(1));
+        dictionary.put("b", new BencodedInteger(2));
+        dictionary.put("a", new BencodedInteger(4));
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        dictionary.writeObject(os);
+
+        assertAll("Validating dictionary with keys put out of order",
+                () -> assertEquals("d1:ai4e1:bi2e1:ci3ee", new String(os.toByteArray(), StandardCharsets.UTF_8)),
+                () -> assertEquals(3, dictionary.size()),
+                () -> assertEquals(new BencodedInteger(2), dictionary.get("b")),
+                () -> assertNull(dictionary.get("d"))
+        );
+    }
+
+    @Test
+    void bigDictionaryWithKeysPutInAnyOrder() {
+        final int size = 5000;
+        BencodedDictionary ascendingDictionary = new BencodedDictionary();
+        BencodedDictionary shuffledDictionary = new BencodedDictionary();
+        for (int i = 0; i < size; i++) {
+            ascendingDictionary.put(String.format("%05d", i), new BencodedInteger(i));
+
+            // 7919 is coprime with the size, so all keys are put in a scrambled order
+            int shuffledIndex = (int) ((i * 7919L) % size);
+            shuffledDictionary.put(String.format("%05d", shuffledIndex), new BencodedInteger(shuffledIndex));
+        }
+
+        Iterator<BencodedByteSequence> keysIterator = shuffledDictionary.getKeysIterator();
+        BencodedByteSequence previousKey = keysIterator.next();
+        while (keysIterator.hasNext()) {
+            BencodedByteSequence key = keysIterator.next();
+            assertTrue(previousKey.compareTo(key) < 0, "Dictionary keys are not sorted");
+            previousKey = key;
+        }
+
+        assertAll("Validating big dictionaries",
+                () -> assertEquals(size, shuffledDictionary.size()),
+                () -> assertEquals(ascendingDictionary, shuffledDictionary),
+                () -> assertEquals(ascendingDictionary.hashCode(), shuffledDictionary.hashCode()),
+                () -> assertEquals(new BencodedInteger(1234), shuffledDictionary.get("01234")),
+                () -> assertEquals(new BencodedInteger(4321), ascendingDictionary.remove("04321")),
+                () -> assertFalse(ascendingDictionary.containsKey("04321"))
+        );
+    }
+
+    @Test
+    void removingEntriesWithKeysIterator() {
+        BencodedDictionary dictionary = new BencodedDictionary();
+        dictionary.put("a", new BencodedInteger(1));
+        dictionary.put("b", new BencodedInteger(2));
+        dictionary.put("c", new BencodedInteger(3));
+
+        Iterator<BencodedByteSequence> keysIterator = dictionary.getKeysIterator();
+        while (keysIterator.hasNext()) {
+            if (keysIterator.next().toUTF8String().equals("b")) {
+                keysIterator.remove();
+            }
+        }
+
+        Iterator<BencodedByteSequence> exhaustedIterator = dictionary.getKeysIterator();
+        exhaustedIterator.next();
+        dictionary.put("d", new BencodedInteger(4));
+
+        assertAll("Validating entries removal with keys iterator",
+                () -> assertEquals(3, dictionary.size()),
+                () -> assertFalse(dictionary.containsKey("b")),
+                () -> assertEquals(new BencodedInteger(3), dictionary.get("c")),
+                () -> assertThrows(ConcurrentModificationException.class, exhaustedIterator::next)
+        );
+    }
+
+    @Test
+    void removingEntriesWithValuesIterator() {
+        BencodedDictionary dictionary = new BencodedDictionary();
+        dictionary.put("a", new BencodedInteger(1));
+        dictionary.put("b", new BencodedInteger(2));
+        dictionary.put("c", new BencodedInteger(3));
+
+        Iterator<BencodedObject> valuesIterator = dictionary.getValuesIterator();
+        while (valuesIterator.hasNext()) {
+            if (valuesIterator.next().equals(new BencodedInteger(2))) {
+                valuesIterator.remove();
+            }
+        }
+
+        Iterator<BencodedObject> exhaustedIterator = dictionary.getValuesIterator();
+        exhaustedIterator.next();
+        dictionary.remove("a");
+
+        assertAll("Validating entries removal with values iterator",
+                () -> assertEquals(1, dictionary.size()),
+                () -> assertFalse(dictionary.containsKey("b")),
+                () -> assertEquals(new BencodedInteger(3), dictionary.get("c")),
+                () -> assertThrows(ConcurrentModificationException.class, exhaustedIterator::next)
+        );
+    }
+
+    @Test
+    void encodedValuesAreReplacedUponFreezing() throws BencodeFormatException, CircularReferenceException {
+        BencodedDictionary dictionary = new BencodedDictionary();
+        dictionary.putEncoded(new BencodedByteSequence("a"),
+                ByteBuffer.wrap("i1e".getBytes(StandardCharsets.US_ASCII)));
+        dictionary.put("b", new BencodedInteger(2));
+        dictionary.putEncoded(new BencodedByteSequence("c"),
+                ByteBuffer.wrap("i3e".getBytes(StandardCharsets.US_ASCII)));
+
+        dictionary.freeze();
+
+        Iterator<BencodedObject> compositeValues = dictionary.getCompositeValues().iterator();
+        assertAll("Validating encoded values replaced upon freezing",
+                () -> assertEquals(new BencodedInteger(1), compositeValues.next()),
+                () -> assertEquals(new BencodedInteger(2), compositeValues.next()),
+                () -> assertEquals(new BencodedInteger(3), compositeValues.next()),
+                () -> assertFalse(compositeValues.hasNext())
+        );
+    }
+
+
+    @Test
+    void encodedLengthIsEqualToWrittenLength() throws IOException, BencodeFormatException,
+            CircularReferenceException {
+        BencodedList list = new BencodedList();
+        list.add(new BencodedInteger(1234567));
+
+        BencodedDictionary dictionary = new BencodedDictionary();
+        dictionary.put("list", list);
+        dictionary.put("string", new BencodedByteSequence("0123456789"));
+        dictionary.put("nested", new BencodedDictionary());
+        dictionary.putEncoded(new BencodedByteSequence("encoded"),
+                ByteBuffer.wrap("d1:ali1ei2eee".getBytes(StandardCharsets.US_ASCII)));
+
+        long encodedLength = dictionary.encodedLength();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        dictionary.writeObject(baos);
+
+        assertEquals(baos.size(), encodedLength, "Incorrect encoded length of the dictionary");
+    }
+
+
+    @Test
+    void frozenDictionaryIsWrittenFromCachedForm() throws IOException, BencodeFormatException,
+            CircularReferenceException {
+        BencodedList peers = new BencodedList();
+        peers.add(new BencodedByteSequence("peer"));
+
+        BencodedDictionary response = new BencodedDictionary();
+        response.put("interval", new BencodedInteger(1800));
+        response.put("peers", peers);
+        response.putEncoded(new BencodedByteSequence("tracker id"),
+                ByteBuffer.wrap("2:idxyz".getBytes(StandardCharsets.US_ASCII), 0, 4));
+
+        response.freeze();
+
+        BencodedDictionary container = new BencodedDictionary();
+        container.put("response", response);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        container.writeObject(baos);
+
+        String expectedResponse = "d8:intervali1800e5:peersl4:peere10:tracker id2:ide";
+        assertAll("Ensuring frozen dictionary is written correctly",
+                () -> assertTrue(response.isFrozen()),
+                () -> assertTrue(peers.isFrozen()),
+                () -> assertFalse(container.isFrozen()),
+                () -> assertEquals(ByteBuffer.wrap(expectedResponse.getBytes(StandardCharsets.US_ASCII)),
+                        response.getFrozenForm()),
+                () -> assertNull(peers.getFrozenForm()),
+                () -> assertEquals(expectedResponse.length(), response.encodedLength()),
+                () -> assertEquals("d8:response" + expectedResponse + "e",
+                        new String(baos.toByteArray(), StandardCharsets.US_ASCII))
+        );
+    }
+
+    @Test
+    void frozenDictionaryCannotBeModified() throws CircularReferenceException {
+        BencodedDictionary nested = new BencodedDictionary();
+        nested.put("key", new BencodedInteger(1));
+
+        BencodedDictionary dictionary = new BencodedDictionary();
+        dictionary.put("nested", nested);
+        dictionary.freeze();
+
+        String noExceptionMessage = "Frozen dictionary should not be modified, but it is";
+        assertAll("Ensuring frozen dictionary cannot be modified",
+                () -> assertThrows(UnsupportedOperationException.class,
+                        () -> dictionary.put("key", new BencodedInteger(2)), noExceptionMessage),
+                () -> assertThrows(UnsupportedOperationException.class,
+                        () -> dictionary.putEncoded(new BencodedByteSequence("key"), ByteBuffer.allocate(3)),
+                        noExceptionMessage),
+                () -> assertThrows(UnsupportedOperationException.class,
+                        () -> dictionary.remove("nested"), noExceptionMessage),
+                () -> assertThrows(UnsupportedOperationException.class, dictionary::clear, noExceptionMessage),
+                () -> assertThrows(UnsupportedOperationException.class,
+                        () -> nested.put("key", new BencodedInteger(2)), noExceptionMessage),
+                () -> assertThrows(UnsupportedOperationException.class, () -> {
+                    Iterator<BencodedByteSequence> iterator = dictionary.getKeysIterator();
+                    iterator.next();
+                    iterator.remove();
+                }, noExceptionMessage),
+                () -> assertThrows(UnsupportedOperationException.class, () -> {
+                    Iterator<BencodedObject> iterator = dictionary.getValuesIterator();
+                    iterator.next();
+                    iterator.remove();
+                }, noExceptionMessage),
+                () -> assertEquals(1, dictionary.size()),
+                () -> assertEquals(new BencodedInteger(1), nested.get("key"))
+        );
+    }
+
+
+    @Test
+    void decodeLimitsAreEnforcedByConstructor() throws IOException, BencodeFormatException {
+        byte[] encoded = "d1:ai1e1:bi2e1:cli3eee".getBytes(StandardCharsets.US_ASCII);
+
+        BencodeStreamReader limitedReader = new BencodeStreamReader(new ByteArrayInputStream(encoded));
+        limitedReader.setDecodeLimits(new DecodeLimits(Integer.MAX_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE, 7));
+
+        BencodeStreamReader depthReader = new BencodeStreamReader(new ByteArrayInputStream(encoded));
+        depthReader.setDecodeLimits(new DecodeLimits(Integer.MAX_VALUE, Long.MAX_VALUE, 2, 8));
+
+        BencodeFormatException exception = assertThrows(BencodeFormatException.class,
+                () -> new BencodedDictionary(limitedReader),
+                "BencodedDictionary constructor should enforce the elements count limit, but it does not");
+
+        assertAll("Ensuring decode limits are enforced by the constructor",
+                () -> assertEquals("Elements count exceeds the limit: 7", exception.getMessage()),
+                () -> assertEquals(3, new BencodedDictionary(depthReader).size())
+        );
+    }
+}
@@ -342,6 +342,31 @@ class BencodedIntegerTest {
         assertEquals(expectedSerializedForm, serializedForm);
     }
 
+    @Test
+    void writeObjectPassesEncodedIntegerInSingleWrite() throws IOException {
+        int[] writeCalls = new int[1];
+        ByteArrayOutputStream baos = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(int b) {
+                writeCalls[0]++;
+                super.write(b);
+            }
+
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                writeCalls[0]++;
+                super.write(b, off, len);
+            }
+        };
+
+        new BencodedInteger(-1234567890123L).writeObject(baos);
+
+        assertAll("Ensuring the integer is written in a single call",
+                () -> assertEquals("i-1234567890123e", new String(baos.toByteArray(), StandardCharsets.UTF_8)),
+                () -> assertEquals(1, writeCalls[0], "Integer is written per byte")
+        );
+    }
+
     @Test
     void testNonCompositeState() {
         BencodedInteger bint = new BencodedInteger(Long.MAX_VALUE);
@@ -394,4 +419,18 @@ class BencodedIntegerTest {
 
         }, "BencodedInteger.valueOf(string, radix) behaves incorrectly when used non-numeric string");
     }
-}
\ No newline at end of file
+
+
+    @Test
+    void encodedLengthIsEqualToWrittenLength() throws IOException {
+        long[] values = {0, 7, -7, 10, -10, 99, 100, 123456789, -1000000000000L, Long.MAX_VALUE, Long.MIN_VALUE};
+
+        for (long value : values) {
+            BencodedInteger bint = new BencodedInteger(value);
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            bint.writeObject(baos);
+
+            assertEquals(baos.size(), bint.encodedLength(), "Incorrect encoded length of " + value);
+        }
+    }
+}
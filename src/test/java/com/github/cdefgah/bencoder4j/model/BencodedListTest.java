@@ -3,10 +3,12 @@ package com.github.cdefgah.bencoder4j.model;
 import com.github.cdefgah.bencoder4j.BencodeFormatException;
 import com.github.cdefgah.bencoder4j.CircularReferenceException;
 import com.github.cdefgah.bencoder4j.io.BencodeStreamReader;
+import com.github.cdefgah.bencoder4j.io.DecodeLimits;
 
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 
@@ -606,6 +608,34 @@ class BencodedListTest {
         assertEquals(expectedSerializedForm, serializedForm);
     }
 
+    @Test
+    void writeObjectWorksForDeeplyNestedLists() throws IOException, CircularReferenceException {
+        int depth = 100000;
+        BencodedList bencodedList = new BencodedList();
+        BencodedList current = bencodedList;
+        for (int i = 1; i < depth; i++) {
+            BencodedList nested = new BencodedList();
+            current.add(new BencodedInteger(i));
+            current.add(nested);
+            current = nested;
+        }
+
+        StringBuilder expectedSerializedForm = new StringBuilder("l");
+        for (int i = 1; i < depth; i++) {
+            expectedSerializedForm.append('i').append(i).append("el");
+        }
+
+        for (int i = 0; i < depth; i++) {
+            expectedSerializedForm.append('e');
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        bencodedList.writeObject(baos);
+
+        assertEquals(expectedSerializedForm.toString(), new String(baos.toByteArray(), StandardCharsets.UTF_8),
+                "Deeply nested list is written incorrectly");
+    }
+
 
     @Test
     void loadingFromStream() throws IOException, BencodeFormatException {
@@ -846,4 +876,143 @@ class BencodedListTest {
                 "BencodedList.lastIndexOf() works incorrectly on null argument. " +
                         "Expected IllegalArgumentException.");
     }
-}
\ No newline at end of file
+
+
+    @Test
+    void encodedLengthIsEqualToWrittenLength() throws IOException, CircularReferenceException {
+        BencodedDictionary dictionary = new BencodedDictionary();
+        dictionary.put("key", new BencodedByteSequence("value"));
+        dictionary.put("nested", new BencodedList());
+
+        BencodedList nestedList = new BencodedList();
+        nestedList.add(new BencodedInteger(-12));
+        nestedList.add(dictionary);
+
+        BencodedList bencodedList = new BencodedList();
+        bencodedList.add(new BencodedByteSequence("abc"));
+        bencodedList.add(nestedList);
+        bencodedList.add(nestedList);
+        bencodedList.add(new BencodedList());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        bencodedList.writeObject(baos);
+
+        assertAll("Ensuring encoded length is calculated correctly",
+                () -> assertEquals(baos.size(), bencodedList.encodedLength()),
+                () -> assertEquals(2, new BencodedList().encodedLength())
+        );
+    }
+
+    @Test
+    void encodedLengthDetectsCircularReferences() {
+        BencodedList bencodedList = new BencodedList();
+        BencodedList nestedList = new BencodedList();
+        bencodedList.add(nestedList);
+        nestedList.add(new BencodedInteger(1));
+        nestedList.add(bencodedList);
+
+        CircularReferenceException exception = assertThrows(CircularReferenceException.class,
+                bencodedList::encodedLength,
+                "encodedLength() should throw circular reference exception, but it does not");
+
+        assertEquals("Upon calculating encoded length, circular reference found in " +
+                        BencodedList.class.getCanonicalName(),
+                exception.getMessage(),
+                "Unexpected message in correctly thrown exception");
+    }
+
+
+    @Test
+    void frozenListCannotBeModified() throws CircularReferenceException {
+        BencodedList bencodedList = new BencodedList();
+        bencodedList.add(new BencodedInteger(1));
+        bencodedList.add(new BencodedByteSequence("abc"));
+        bencodedList.freeze();
+
+        String noExceptionMessage = "Frozen list should not be modified, but it is";
+        assertAll("Ensuring frozen list cannot be modified",
+                () -> assertThrows(UnsupportedOperationException.class,
+                        () -> bencodedList.add(new BencodedInteger(2)), noExceptionMessage),
+                () -> assertThrows(UnsupportedOperationException.class,
+                        () -> bencodedList.add(0, new BencodedInteger(2)), noExceptionMessage),
+                () -> assertThrows(UnsupportedOperationException.class,
+                        () -> bencodedList.remove(0), noExceptionMessage),
+                () -> assertThrows(UnsupportedOperationException.class,
+                        () -> bencodedList.remove(new BencodedInteger(1)), noExceptionMessage),
+                () -> assertThrows(UnsupportedOperationException.class, bencodedList::clear, noExceptionMessage),
+                () -> assertThrows(UnsupportedOperationException.class, () -> {
+                    Iterator<BencodedObject> iterator = bencodedList.iterator();
+                    iterator.next();
+                    iterator.remove();
+                }, noExceptionMessage),
+                () -> assertEquals(2, bencodedList.size()),
+                () -> assertEquals(ByteBuffer.wrap("li1e3:abce".getBytes(StandardCharsets.US_ASCII)),
+                        bencodedList.getFrozenForm())
+        );
+    }
+
+    @Test
+    void listWithCircularReferenceIsNotFrozen() {
+        BencodedList bencodedList = new BencodedList();
+        BencodedList nestedList = new BencodedList();
+        bencodedList.add(nestedList);
+        nestedList.add(bencodedList);
+
+        assertThrows(CircularReferenceException.class, bencodedList::freeze,
+                "List with circular reference should not be frozen, but it is");
+
+        assertAll("Ensuring nothing is frozen",
+                () -> assertFalse(bencodedList.isFrozen()),
+                () -> assertFalse(nestedList.isFrozen()),
+                () -> assertNull(bencodedList.getFrozenForm())
+        );
+    }
+
+
+    @Test
+    void decodeLimitsAreEnforcedByConstructor() {
+        BencodeStreamReader elementsReader = new BencodeStreamReader(
+                new ByteArrayInputStream("li1ei2ei3ei4ei5ee".getBytes(StandardCharsets.US_ASCII)));
+        elementsReader.setDecodeLimits(new DecodeLimits(Integer.MAX_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE, 3));
+
+        BencodeStreamReader bytesReader = new BencodeStreamReader(
+                new ByteArrayInputStream("l3:abc3:defe".getBytes(StandardCharsets.US_ASCII)));
+        bytesReader.setDecodeLimits(new DecodeLimits(Integer.MAX_VALUE, 5, Integer.MAX_VALUE, Long.MAX_VALUE));
+
+        BencodeStreamReader depthReader = new BencodeStreamReader(
+                new ByteArrayInputStream("llleee".getBytes(StandardCharsets.US_ASCII)));
+        depthReader.setDecodeLimits(new DecodeLimits(Integer.MAX_VALUE, Long.MAX_VALUE, 2, Long.MAX_VALUE));
+
+        assertAll("Ensuring decode limits are enforced by the constructor",
+                () -> assertEquals("Elements count exceeds the limit: 3", assertThrows(BencodeFormatException.class,
+                        () -> new BencodedList(elementsReader)).getMessage()),
+                () -> assertEquals("Total byte sequences length exceeds the limit: 5",
+                        assertThrows(BencodeFormatException.class, () -> new BencodedList(bytesReader)).getMessage()),
+                () -> assertEquals("Nesting depth exceeds the limit: 2", assertThrows(BencodeFormatException.class,
+                        () -> new BencodedList(depthReader)).getMessage())
+        );
+    }
+
+
+    @Test
+    void writeObjectDoesNotFlushOutputStream() throws IOException, CircularReferenceException {
+        BencodedList bencodedList = new BencodedList();
+        bencodedList.add(new BencodedInteger(1));
+        bencodedList.add(new BencodedByteSequence("abc"));
+
+        int[] flushesCount = new int[1];
+        ByteArrayOutputStream baos = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushesCount[0]++;
+            }
+        };
+
+        bencodedList.writeObject(baos);
+
+        assertAll("Ensuring the object is written without flushing the output stream",
+                () -> assertEquals("li1e3:abce", new String(baos.toByteArray(), StandardCharsets.UTF_8)),
+                () -> assertEquals(0, flushesCount[0])
+        );
+    }
+}